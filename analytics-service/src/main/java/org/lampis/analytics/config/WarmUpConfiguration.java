@@ -0,0 +1,40 @@
+package org.lampis.analytics.config;
+
+import org.lampis.common.warmup.WarmUpProperties;
+import org.lampis.common.warmup.WarmUpRunner;
+import org.lampis.common.warmup.WarmUpSamples;
+import org.lampis.common.warmup.WarmUpTask;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+/**
+ * Warm-up of order event deserialisation, with the listeners' message converter, before the service reports ready
+ */
+@Configuration
+public class WarmUpConfiguration {
+
+    @Bean
+    @Validated
+    @ConfigurationProperties(prefix = "warmup")
+    public WarmUpProperties warmUpProperties() {
+        return new WarmUpProperties();
+    }
+
+    @Bean
+    public WarmUpRunner warmUpRunner(WarmUpProperties properties, MessageConverter jsonMessageConverter) {
+        // messages as order-service publishes them, type header included
+        Message orderCreated = jsonMessageConverter.toMessage(WarmUpSamples.orderCreatedEvent(), new MessageProperties());
+        Message statusChanged = jsonMessageConverter.toMessage(WarmUpSamples.orderStatusChangedEvent(), new MessageProperties());
+
+        return new WarmUpRunner(properties, List.of(
+                new WarmUpTask("order-created-event", () -> jsonMessageConverter.fromMessage(orderCreated)),
+                new WarmUpTask("order-status-changed-event", () -> jsonMessageConverter.fromMessage(statusChanged))));
+    }
+}
@@ -37,9 +37,8 @@ public class OrderEventListener {
                     .map(item -> OrderAnalytics.OrderLineItem.builder()
                             .productId(item.getProductId())
                             .quantity(item.getQuantity())
-                            .unitPrice(item.getUnitPrice())
-                            .lineTotal(item.getUnitPrice().multiply(
-                                    java.math.BigDecimal.valueOf(item.getQuantity())))
+                            .unitPrice(item.getUnitPrice().toDecimal())
+                            .lineTotal(item.getUnitPrice().times(item.getQuantity()).toDecimal())
                             .build())
                     .collect(Collectors.toList());
 
@@ -47,7 +46,7 @@ public class OrderEventListener {
                     event.getOrderId(),
                     event.getCustomerId(),
                     event.getStatus(),
-                    event.getTotalAmount(),
+                    event.getTotalAmount().toDecimal(),
                     event.getOrderDate(),
                     items
             );
@@ -0,0 +1,97 @@
+package org.lampis.analytics.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lampis.analytics.config.BinaryContentConfiguration;
+import org.lampis.analytics.model.OrderAnalytics;
+import org.lampis.analytics.service.AnalyticsService;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.util.BinaryFormats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Accept header negotiation of the analytics endpoints: CBOR and Smile on request, JSON otherwise
+ */
+@WebMvcTest(AnalyticsController.class)
+@ContextConfiguration(classes = {AnalyticsController.class, BinaryContentConfiguration.class})
+class AnalyticsControllerContentNegotiationTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        OrderAnalytics order = OrderAnalytics.builder()
+                .orderId(1L)
+                .customerId(7L)
+                .status(OrderStatus.PROCESSING)
+                .totalAmount(new BigDecimal("59.98"))
+                .orderDate(ORDER_DATE)
+                .itemCount(2)
+                .items(List.of(OrderAnalytics.OrderLineItem.builder()
+                        .productId(100L).quantity(2)
+                        .unitPrice(new BigDecimal("29.99")).lineTotal(new BigDecimal("59.98"))
+                        .build()))
+                .build();
+        when(analyticsService.getOrdersByStatus(OrderStatus.PROCESSING)).thenReturn(List.of(order));
+    }
+
+    @Test
+    void getOrdersByStatus_BinaryAcceptHeader_RoundTripsTheOrders() throws Exception {
+        Map<String, ObjectMapper> formats = Map.of(
+                BinaryFormats.APPLICATION_CBOR_VALUE, BinaryFormats.cborMapper(objectMapper),
+                BinaryFormats.APPLICATION_SMILE_VALUE, BinaryFormats.smileMapper(objectMapper));
+
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            MvcResult result = mockMvc.perform(get("/api/v1/analytics/orders/status/PROCESSING").accept(format.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(format.getKey()))
+                    .andReturn();
+
+            List<OrderAnalytics> orders = format.getValue().readValue(
+                    result.getResponse().getContentAsByteArray(), new TypeReference<>() {});
+            assertEquals(1, orders.size());
+            OrderAnalytics order = orders.get(0);
+            assertEquals(1L, order.getOrderId());
+            assertEquals(ORDER_DATE, order.getOrderDate());
+            assertEquals(new BigDecimal("59.98"), order.getTotalAmount());
+            assertEquals(new BigDecimal("29.99"), order.getItems().get(0).getUnitPrice());
+        }
+    }
+
+    @Test
+    void getOrdersByStatus_AnyMediaType_ReturnsJson() throws Exception {
+        mockMvc.perform(get("/api/v1/analytics/orders/status/PROCESSING").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].orderId").value(1));
+    }
+}
@@ -5,6 +5,7 @@ import org.lampis.common.dto.order.OrderLineDTO;
 import org.lampis.common.enums.OrderStatus;
 import org.lampis.common.event.order.OrderCreatedEvent;
 import org.lampis.common.event.order.OrderStatusChangedEvent;
+import org.lampis.common.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,7 +42,7 @@ class OrderEventListenerTest {
                 OrderLineDTO.builder()
                         .productId(1L)
                         .quantity(2)
-                        .unitPrice(new BigDecimal("29.99"))
+                        .unitPrice(Money.ofMinor(2999))
                         .build()
         );
 
@@ -49,7 +50,7 @@ class OrderEventListenerTest {
                 1L,
                 100L,
                 OrderStatus.UNPROCESSED,
-                new BigDecimal("59.98"),
+                Money.ofMinor(5998),
                 LocalDateTime.now(),
                 orderLines
         );
@@ -167,12 +168,12 @@ class OrderEventListenerTest {
                 OrderLineDTO.builder()
                         .productId(1L)
                         .quantity(2)
-                        .unitPrice(new BigDecimal("29.99"))
+                        .unitPrice(Money.ofMinor(2999))
                         .build(),
                 OrderLineDTO.builder()
                         .productId(2L)
                         .quantity(1)
-                        .unitPrice(new BigDecimal("49.99"))
+                        .unitPrice(Money.ofMinor(4999))
                         .build()
         );
 
@@ -180,7 +181,7 @@ class OrderEventListenerTest {
                 3L,
                 300L,
                 OrderStatus.UNPROCESSED,
-                new BigDecimal("109.97"),
+                Money.ofMinor(10997),
                 LocalDateTime.now(),
                 multipleItems
         );
@@ -26,4 +26,10 @@ public class JwtProperties {
      */
     @NotBlank(message = "JWT issuer must be configured")
     private String issuer;
+
+    /**
+     * Fetch the JWKS when the gateway starts; when false it is fetched for the first token,
+     * e.g. in the CDS training run of the image build, which has no authorization server
+     */
+    private boolean fetchJwksOnStartup = true;
 }
\ No newline at end of file
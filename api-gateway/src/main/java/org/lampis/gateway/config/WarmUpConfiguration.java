@@ -0,0 +1,87 @@
+package org.lampis.gateway.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.lampis.common.warmup.WarmUpProperties;
+import org.lampis.common.warmup.WarmUpRunner;
+import org.lampis.common.warmup.WarmUpTask;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Warm-up of JWT validation before the gateway reports ready
+ * <p>
+ * The authorization server's private key is not available here, so the token is signed with a throwaway
+ * RSA key of the same size and algorithm (RS256) and parsed the way {@link org.lampis.gateway.util.JwtUtil}
+ * parses request tokens.
+ */
+@Configuration
+public class WarmUpConfiguration {
+
+    @Bean
+    @Validated
+    @ConfigurationProperties(prefix = "warmup")
+    public WarmUpProperties warmUpProperties() {
+        return new WarmUpProperties();
+    }
+
+    @Bean
+    public WarmUpRunner warmUpRunner(WarmUpProperties properties, JwtProperties jwtProperties) {
+        SampleToken sample = new SampleToken(jwtProperties.getIssuer());
+        return new WarmUpRunner(properties, List.of(new WarmUpTask("jwt-validation", sample::validate)));
+    }
+
+    /**
+     * Signed on first use: generating the key is too slow to pay for when warm-up is disabled
+     */
+    private static final class SampleToken {
+
+        private final String issuer;
+        private PublicKey publicKey;
+        private String token;
+
+        private SampleToken(String issuer) {
+            this.issuer = issuer;
+        }
+
+        String validate() throws NoSuchAlgorithmException {
+            if (token == null) {
+                sign();
+            }
+            Claims claims = Jwts.parser()
+                    .verifyWith(publicKey)
+                    .requireIssuer(issuer)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            return claims.getSubject() + claims.get("role") + claims.get("email", String.class);
+        }
+
+        private void sign() throws NoSuchAlgorithmException {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keyPair = generator.generateKeyPair();
+            publicKey = keyPair.getPublic();
+            token = Jwts.builder()
+                    .subject("warm-up")
+                    .issuer(issuer)
+                    .claim("role", "USER")
+                    .claim("email", "warm-up@example.com")
+                    .issuedAt(new Date())
+                    .expiration(Date.from(Instant.now().plus(Duration.ofDays(1))))
+                    .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                    .compact();
+        }
+    }
+}
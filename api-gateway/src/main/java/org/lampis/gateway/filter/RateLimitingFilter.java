@@ -105,8 +105,9 @@ public class RateLimitingFilter extends AbstractGatewayFilterFactory<RateLimitin
 
     /**
      * Determine rate limit key based on strategy
+     * (package-private so the benchmarks module can measure it in isolation)
      */
-    private String getRateLimitKey(ServerWebExchange exchange, Config config) {
+    String getRateLimitKey(ServerWebExchange exchange, Config config) {
         ServerHttpRequest request = exchange.getRequest();
 
         switch (config.getKeyStrategy()) {
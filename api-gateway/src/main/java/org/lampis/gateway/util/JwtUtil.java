@@ -16,7 +16,7 @@ import java.util.Date;
  * JWT utility for token validation
  * <p>
  * Features:
- * - Loads public key from JWKS endpoint at startup
+ * - Loads public key from JWKS endpoint at startup, or for the first token with jwt.fetch-jwks-on-startup=false
  * - Validates JWT tokens offline using RSA public key
  * - Extracts user claims (ID, role, email)
  */
@@ -24,19 +24,37 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
-    private final RSAPublicKey publicKey;
     private final JwtProperties jwtProperties;
+    private volatile RSAPublicKey publicKey;
 
     public JwtUtil(JwtProperties jwtProperties) {
         this.jwtProperties = jwtProperties;
 
-        try {
-            this.publicKey = loadPublicKeyFromJwks(jwtProperties.getJwksUri());
-            log.info("Successfully loaded public key from JWKS endpoint: {}", jwtProperties.getJwksUri());
-            log.info("Issuer configured: {}", jwtProperties.getIssuer());
-        } catch (Exception e) {
-            log.error("Failed to load public key", e);
-            throw new RuntimeException("Cannot initialize JWT validation", e);
+        if (jwtProperties.isFetchJwksOnStartup()) {
+            publicKey();
+        }
+    }
+
+    /**
+     * Public key from the JWKS endpoint, fetched once
+     */
+    private RSAPublicKey publicKey() {
+        RSAPublicKey key = publicKey;
+        if (key != null) {
+            return key;
+        }
+        synchronized (this) {
+            if (publicKey == null) {
+                try {
+                    publicKey = loadPublicKeyFromJwks(jwtProperties.getJwksUri());
+                    log.info("Successfully loaded public key from JWKS endpoint: {}", jwtProperties.getJwksUri());
+                    log.info("Issuer configured: {}", jwtProperties.getIssuer());
+                } catch (Exception e) {
+                    log.error("Failed to load public key", e);
+                    throw new RuntimeException("Cannot initialize JWT validation", e);
+                }
+            }
+            return publicKey;
         }
     }
 
@@ -82,7 +100,7 @@ public class JwtUtil {
     public boolean validateToken(String token) {
         try {
             Claims claims = Jwts.parser()
-                    .verifyWith(publicKey)  // Verify with public key from JWKS
+                    .verifyWith(publicKey())  // Verify with public key from JWKS
                     .requireIssuer(jwtProperties.getIssuer())   // Validate issuer
                     .build()
                     .parseSignedClaims(token)
@@ -149,7 +167,7 @@ public class JwtUtil {
     private Claims getClaims(String token) {
         try {
             return Jwts.parser()
-                    .verifyWith(publicKey)
+                    .verifyWith(publicKey())
                     .build()
                     .parseSignedClaims(token)
                     .getPayload();
@@ -78,6 +78,7 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers(
                                 "/actuator/health",
+                                "/actuator/health/**",
                                 "/.well-known/**"
                         ).permitAll()
                         // All other requests require authentication
@@ -0,0 +1,61 @@
+package org.lampis.benchmarks;
+
+import org.lampis.analytics.model.CustomerAnalytics;
+import org.lampis.analytics.model.DailyMetrics;
+import org.lampis.common.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory updates applied to the analytics documents for every order event
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AnalyticsUpdateBenchmark {
+
+    private static final BigDecimal ORDER_AMOUNT = new BigDecimal("149.97");
+
+    private CustomerAnalytics customerAnalytics;
+    private DailyMetrics dailyMetrics;
+
+    /**
+     * Fresh documents per iteration keep the order counters far from overflow
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        customerAnalytics = CustomerAnalytics.builder()
+                .customerId(7L)
+                .totalOrders(0)
+                .totalRevenue(BigDecimal.ZERO)
+                .build();
+        dailyMetrics = DailyMetrics.builder()
+                .totalOrders(0)
+                .totalRevenue(BigDecimal.ZERO)
+                .build();
+    }
+
+    @Benchmark
+    public CustomerAnalytics customerAddOrder() {
+        customerAnalytics.addOrder(ORDER_AMOUNT);
+        return customerAnalytics;
+    }
+
+    @Benchmark
+    public CustomerAnalytics customerStatusChange() {
+        customerAnalytics.decrementStatusCount(OrderStatus.UNPROCESSED);
+        customerAnalytics.incrementStatusCount(OrderStatus.PROCESSING);
+        return customerAnalytics;
+    }
+
+    @Benchmark
+    public DailyMetrics dailyAddOrder() {
+        dailyMetrics.addOrder(ORDER_AMOUNT);
+        return dailyMetrics;
+    }
+}
@@ -0,0 +1,69 @@
+package org.lampis.benchmarks;
+
+import org.lampis.common.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line and order total arithmetic: {@link Money} minor units against {@link BigDecimal}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    @Param({"10", "1000"})
+    private int lineCount;
+
+    private BigDecimal[] unitPrices;
+    private Money[] unitPriceMoney;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        unitPrices = new BigDecimal[lineCount];
+        unitPriceMoney = new Money[lineCount];
+        quantities = new int[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            unitPrices[i] = BigDecimal.valueOf(random.nextLong(1, 100_000), 2);
+            unitPriceMoney[i] = Money.of(unitPrices[i]);
+            quantities[i] = random.nextInt(1, 20);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal orderTotalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lineCount; i++) {
+            total = total.add(unitPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money orderTotalMoney() {
+        Money total = Money.zero();
+        for (int i = 0; i < lineCount; i++) {
+            total = total.plus(unitPriceMoney[i].times(quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal averageBigDecimal() {
+        return orderTotalBigDecimal().divide(BigDecimal.valueOf(lineCount), 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Money averageMoney() {
+        return orderTotalMoney().dividedBy(lineCount, RoundingMode.HALF_UP);
+    }
+}
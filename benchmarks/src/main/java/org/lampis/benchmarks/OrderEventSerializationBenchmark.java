@@ -0,0 +1,95 @@
+package org.lampis.benchmarks;
+
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.event.order.OrderCreatedEvent;
+import org.lampis.common.event.order.OrderStatusChangedEvent;
+import org.lampis.common.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JSON round-trips of the order events through the converter the services register for RabbitMQ
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderEventSerializationBenchmark {
+
+    @Param({"1", "50"})
+    private int lineCount;
+
+    private Jackson2JsonMessageConverter converter;
+    private OrderCreatedEvent createdEvent;
+    private OrderStatusChangedEvent statusChangedEvent;
+    private Message createdMessage;
+    private Message statusChangedMessage;
+
+    @Setup
+    public void setUp() {
+        converter = new Jackson2JsonMessageConverter();
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setTrustedPackages("org.lampis.common.event.order", "org.lampis.common.dto.order");
+        converter.setJavaTypeMapper(typeMapper);
+
+        List<OrderLineDTO> lines = IntStream.range(0, lineCount)
+                .mapToObj(i -> OrderLineDTO.builder()
+                        .id((long) i)
+                        .productId(1000L + i)
+                        .quantity(1 + i % 5)
+                        .unitPrice(Money.ofMinor(1999))
+                        .lineTotal(Money.ofMinor(1999).times(1 + i % 5))
+                        .build())
+                .toList();
+        createdEvent = new OrderCreatedEvent(42L, 7L, OrderStatus.UNPROCESSED,
+                Money.ofMinor(99950), LocalDateTime.now(), lines);
+        createdEvent.initializeMetadata(UUID.randomUUID().toString());
+        statusChangedEvent = new OrderStatusChangedEvent(42L, 7L, OrderStatus.UNPROCESSED, OrderStatus.PROCESSING);
+        statusChangedEvent.initializeMetadata(UUID.randomUUID().toString());
+
+        createdMessage = converter.toMessage(createdEvent, new MessageProperties());
+        statusChangedMessage = converter.toMessage(statusChangedEvent, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message serializeOrderCreated() {
+        return converter.toMessage(createdEvent, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeOrderCreated() {
+        return converter.fromMessage(createdMessage);
+    }
+
+    @Benchmark
+    public Object roundTripOrderCreated() {
+        return converter.fromMessage(converter.toMessage(createdEvent, new MessageProperties()));
+    }
+
+    @Benchmark
+    public Message serializeOrderStatusChanged() {
+        return converter.toMessage(statusChangedEvent, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeOrderStatusChanged() {
+        return converter.fromMessage(statusChangedMessage);
+    }
+
+    @Benchmark
+    public Object roundTripOrderStatusChanged() {
+        return converter.fromMessage(converter.toMessage(statusChangedEvent, new MessageProperties()));
+    }
+}
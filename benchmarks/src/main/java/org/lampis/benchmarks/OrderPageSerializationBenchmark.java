@@ -0,0 +1,100 @@
+package org.lampis.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.dto.order.OrderSearchKeyset;
+import org.lampis.common.dto.order.OrderSearchResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.money.Money;
+import org.lampis.common.util.BinaryFormats;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * A full search page (100 orders of 10 lines) written and read as JSON, CBOR and Smile,
+ * with the mappers the services derive from their Spring Boot JSON mapper
+ * <p>
+ * The payload size of each format is printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderPageSerializationBenchmark {
+
+    private static final int ORDER_COUNT = 100;
+    private static final int LINE_COUNT = 10;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private OrderSearchResponse page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        mapper = switch (format) {
+            case "CBOR" -> BinaryFormats.cborMapper(jsonMapper);
+            case "SMILE" -> BinaryFormats.smileMapper(jsonMapper);
+            default -> jsonMapper;
+        };
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderResponse> orders = IntStream.range(0, ORDER_COUNT)
+                .mapToObj(i -> order(i, now.minusMinutes(i)))
+                .toList();
+        OrderResponse last = orders.get(orders.size() - 1);
+        page = OrderSearchResponse.builder()
+                .orders(orders)
+                .size(orders.size())
+                .hasNext(true)
+                .nextCursor(new OrderSearchKeyset(last.getOrderDate(), last.getOrderId()).encode())
+                .build();
+
+        payload = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d orders x %d lines: %,d bytes%n", format, ORDER_COUNT, LINE_COUNT, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public OrderSearchResponse deserialize() throws IOException {
+        return mapper.readValue(payload, OrderSearchResponse.class);
+    }
+
+    private static OrderResponse order(int index, LocalDateTime orderDate) {
+        List<OrderLineDTO> lines = IntStream.range(0, LINE_COUNT)
+                .mapToObj(i -> OrderLineDTO.builder()
+                        .id((long) index * LINE_COUNT + i)
+                        .productId(1000L + i)
+                        .quantity(1 + i % 5)
+                        .unitPrice(Money.ofMinor(1999))
+                        .lineTotal(Money.ofMinor(1999).times(1 + i % 5))
+                        .build())
+                .toList();
+        return OrderResponse.builder()
+                .orderId(10_000L + index)
+                .customerId(7L + index % 13)
+                .status(OrderStatus.values()[index % OrderStatus.values().length])
+                .orderDate(orderDate)
+                .totalAmount(lines.stream().map(OrderLineDTO::getLineTotal).reduce(Money.zero(), Money::plus))
+                .orderLines(lines)
+                .createdAt(orderDate)
+                .updatedAt(orderDate)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package org.lampis.benchmarks;
+
+import org.lampis.common.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderStatus#canTransitionTo} over every source/target pair
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderStatusBenchmark {
+
+    private final OrderStatus[] statuses = OrderStatus.values();
+
+    @Benchmark
+    public void canTransitionToAllPairs(Blackhole blackhole) {
+        for (OrderStatus source : statuses) {
+            for (OrderStatus target : statuses) {
+                blackhole.consume(source.canTransitionTo(target));
+            }
+        }
+    }
+}
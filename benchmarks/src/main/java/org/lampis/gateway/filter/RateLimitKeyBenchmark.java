@@ -0,0 +1,67 @@
+package org.lampis.gateway.filter;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit key derivation of {@link RateLimitingFilter} for each key strategy
+ * <p>
+ * Lives in the filter package because key derivation is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RateLimitKeyBenchmark {
+
+    @Param({"USER", "IP", "API_KEY", "GLOBAL"})
+    private RateLimitingFilter.KeyStrategy keyStrategy;
+
+    /**
+     * Whether the request came through a proxy chain (X-Forwarded-For) or directly
+     */
+    @Param({"true", "false"})
+    private boolean forwarded;
+
+    private RateLimitingFilter filter;
+    private RateLimitingFilter.Config config;
+    private MockServerWebExchange authenticatedExchange;
+    private MockServerWebExchange anonymousExchange;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitingFilter();
+        config = new RateLimitingFilter.Config();
+        config.setKeyStrategy(keyStrategy);
+
+        authenticatedExchange = MockServerWebExchange.from(request()
+                .header("X-User-Id", "user-12345")
+                .header("X-API-Key", "key-0a1b2c3d4e5f"));
+        anonymousExchange = MockServerWebExchange.from(request());
+    }
+
+    private MockServerHttpRequest.BaseBuilder<?> request() {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/orders")
+                .remoteAddress(new InetSocketAddress("10.1.2.3", 52100));
+        if (forwarded) {
+            request.header("X-Forwarded-For", "203.0.113.7, 10.0.0.2, 10.0.0.1");
+        }
+        return request;
+    }
+
+    @Benchmark
+    public String authenticatedKey() {
+        return filter.getRateLimitKey(authenticatedExchange, config);
+    }
+
+    @Benchmark
+    public String anonymousKey() {
+        return filter.getRateLimitKey(anonymousExchange, config);
+    }
+}
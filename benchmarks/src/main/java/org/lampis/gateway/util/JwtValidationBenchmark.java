@@ -0,0 +1,91 @@
+package org.lampis.gateway.util;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import org.lampis.gateway.config.JwtProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline token validation and claim extraction in {@link JwtUtil}
+ * <p>
+ * A throwaway RSA key is published on a local JWKS endpoint so JwtUtil initializes
+ * exactly as it does against the authorization server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private static final String ISSUER = "http://localhost:9000";
+
+    private HttpServer jwksServer;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        byte[] jwks = new JWKSet(new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .keyID("benchmark-key")
+                .build())
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+        jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jwksServer.createContext("/oauth2/jwks", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            exchange.getResponseBody().write(jwks);
+            exchange.close();
+        });
+        jwksServer.start();
+
+        JwtProperties properties = new JwtProperties();
+        properties.setJwksUri("http://localhost:" + jwksServer.getAddress().getPort() + "/oauth2/jwks");
+        properties.setIssuer(ISSUER);
+        jwtUtil = new JwtUtil(properties);
+
+        Instant now = Instant.now();
+        token = Jwts.builder()
+                .issuer(ISSUER)
+                .subject("user-12345")
+                .claim("role", "CUSTOMER")
+                .claim("email", "customer@example.com")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(Duration.ofDays(1))))
+                .signWith(keyPair.getPrivate())
+                .compact();
+    }
+
+    @TearDown
+    public void tearDown() {
+        jwksServer.stop(0);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractUserId() {
+        return jwtUtil.getUserId(token);
+    }
+}
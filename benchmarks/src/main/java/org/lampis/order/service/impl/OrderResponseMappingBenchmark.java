@@ -0,0 +1,60 @@
+package org.lampis.order.service.impl;
+
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.money.Money;
+import org.lampis.order.entity.Order;
+import org.lampis.order.entity.OrderLine;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderServiceImpl#mapToResponse(Order)} over orders of growing size
+ * <p>
+ * Lives in the service package because the mapping method is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderResponseMappingBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int lineCount;
+
+    private OrderServiceImpl orderService;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        // mapping touches none of the collaborators
+        orderService = new OrderServiceImpl(null, null, null, null, null, null, null, null, null, null, null, null);
+
+        order = Order.builder()
+                .id(42L)
+                .customerId(7L)
+                .status(OrderStatus.PROCESSING)
+                .orderDate(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        for (int i = 0; i < lineCount; i++) {
+            order.addOrderLine(OrderLine.builder()
+                    .id((long) i)
+                    .productId(1000L + i)
+                    .quantity(1 + i % 5)
+                    .unitPrice(Money.ofMinor(1999))
+                    .build());
+        }
+        order.calculateTotalAmount();
+    }
+
+    @Benchmark
+    public OrderResponse mapToResponse() {
+        return orderService.mapToResponse(order);
+    }
+}
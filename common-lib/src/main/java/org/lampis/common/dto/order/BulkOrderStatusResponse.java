@@ -0,0 +1,26 @@
+package org.lampis.common.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.enums.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Response DTO summarising a bulk status update
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusResponse {
+
+    private OrderStatus targetStatus;
+    private int requested;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    private List<BulkOrderStatusResult> results;
+}
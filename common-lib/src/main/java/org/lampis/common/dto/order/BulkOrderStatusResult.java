@@ -0,0 +1,35 @@
+package org.lampis.common.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.enums.OrderStatus;
+
+/**
+ * Per-order outcome of a bulk status update
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderStatusResult {
+
+    private Long orderId;
+    private Outcome outcome;
+    private OrderStatus previousStatus;
+    private String message;
+
+    /**
+     * Outcome of a single order within a bulk operation
+     */
+    public enum Outcome {
+        UPDATED,            // Status changed
+        UNCHANGED,          // Order was already in the target status
+        NOT_FOUND,          // Order does not exist or is deleted
+        INVALID_TRANSITION, // Transition not allowed from the current status
+        FAILED              // The order's chunk was rolled back
+    }
+}
@@ -0,0 +1,38 @@
+package org.lampis.common.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.enums.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Request DTO for updating the status of many orders at once.
+ * Orders are selected either by an explicit ID list or by a filter (customerId and/or currentStatus).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateOrderStatusRequest {
+
+    private List<Long> orderIds;
+
+    private Long customerId;
+
+    private OrderStatus currentStatus;
+
+    @NotNull(message = "Status is required")
+    private OrderStatus status;
+
+    @JsonIgnore
+    @AssertTrue(message = "Either orderIds or a filter (customerId, currentStatus) is required")
+    public boolean isSelectionPresent() {
+        return (orderIds != null && !orderIds.isEmpty()) || customerId != null || currentStatus != null;
+    }
+}
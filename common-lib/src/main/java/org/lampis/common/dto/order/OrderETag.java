@@ -0,0 +1,28 @@
+package org.lampis.common.dto.order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Strong entity tag of a single order representation, shared by order-service and order-query-service
+ * so a tag from one is honoured by the other
+ * <p>
+ * The version is the order's updated_at, which every order write moves. The selected fields and the
+ * request's Accept header change the bytes of the representation and are hashed into the tag as well.
+ */
+public final class OrderETag {
+
+    private OrderETag() {
+    }
+
+    public static String of(Long orderId, LocalDateTime updatedAt, OrderFieldSelection fields, String accept) {
+        // the database keeps microseconds
+        long version = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), updatedAt);
+        CRC32 variant = new CRC32();
+        variant.update((fields + "|" + (accept == null ? "" : accept)).getBytes(StandardCharsets.UTF_8));
+        return "\"" + orderId + "-" + Long.toHexString(version) + "-" + Long.toHexString(variant.getValue()) + "\"";
+    }
+}
@@ -0,0 +1,109 @@
+package org.lampis.common.dto.order;
+
+import lombok.Getter;
+import org.lampis.common.exception.BusinessException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset for order reads, parsed from the fields= and include= request parameters.
+ * When order lines are not selected, orders are read through line-less projections.
+ */
+public final class OrderFieldSelection {
+
+    /**
+     * Every field, including order lines
+     */
+    public static final OrderFieldSelection ALL = new OrderFieldSelection(EnumSet.allOf(Field.class));
+
+    private final Set<Field> fields;
+
+    private OrderFieldSelection(Set<Field> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Parse a comma separated list of OrderResponse field names plus an optional include=lines.
+     * No fields means all fields.
+     */
+    public static OrderFieldSelection parse(String fields, String include) {
+        EnumSet<Field> selected;
+        if (fields == null || fields.isBlank()) {
+            selected = EnumSet.allOf(Field.class);
+        } else {
+            selected = EnumSet.noneOf(Field.class);
+            for (String name : fields.split(",")) {
+                selected.add(Field.fromName(name.trim()));
+            }
+        }
+
+        if (include != null && !include.isBlank()) {
+            for (String name : include.split(",")) {
+                if (!"lines".equals(name.trim())) {
+                    throw new BusinessException("INVALID_FIELD", "Unknown include: " + name.trim());
+                }
+                selected.add(Field.ORDER_LINES);
+            }
+        }
+        return new OrderFieldSelection(selected);
+    }
+
+    /**
+     * This selection plus the given fields
+     */
+    public OrderFieldSelection with(Collection<Field> extra) {
+        EnumSet<Field> selected = EnumSet.noneOf(Field.class);
+        selected.addAll(fields);
+        selected.addAll(extra);
+        return new OrderFieldSelection(selected);
+    }
+
+    public boolean includes(Field field) {
+        return fields.contains(field);
+    }
+
+    public boolean includesLines() {
+        return fields.contains(Field.ORDER_LINES);
+    }
+
+    /**
+     * The selected field names in declaration order, the same for every spelling of the selection
+     */
+    @Override
+    public String toString() {
+        return fields.stream().map(Field::getName).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Selectable fields of OrderResponse
+     */
+    @Getter
+    public enum Field {
+        ORDER_ID("orderId"),
+        CUSTOMER_ID("customerId"),
+        STATUS("status"),
+        ORDER_DATE("orderDate"),
+        TOTAL_AMOUNT("totalAmount"),
+        ORDER_LINES("orderLines"),
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt");
+
+        private final String name;
+
+        Field(String name) {
+            this.name = name;
+        }
+
+        static Field fromName(String name) {
+            return Arrays.stream(values())
+                    .filter(field -> field.name.equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new BusinessException("INVALID_FIELD", "Unknown order field: " + name));
+        }
+    }
+}
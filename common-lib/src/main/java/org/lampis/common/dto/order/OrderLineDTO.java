@@ -6,8 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
+import org.lampis.common.money.Money;
 
 /**
  * DTO for order line items
@@ -27,18 +26,20 @@ public class OrderLineDTO {
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
 
-    @NotNull(message = "Unit price is required")
-    @Min(value = 0, message = "Unit price must be positive")
-    private BigDecimal unitPrice;
+    /**
+     * Set by order-service from its price catalog; a value sent by the client is ignored,
+     * but one with more than 2 decimal places is rejected when the request is read
+     */
+    private Money unitPrice;
 
-    private BigDecimal lineTotal;
+    private Money lineTotal;
 
     /**
      * Calculate line total
      */
     public void calculateLineTotal() {
         if (quantity != null && unitPrice != null) {
-            this.lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            this.lineTotal = unitPrice.times(quantity);
         }
     }
 }
@@ -0,0 +1,22 @@
+package org.lampis.common.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a multi-get lookup, with results in request order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLookupResponse {
+
+    private int requested;
+    private int found;
+    private List<OrderLookupResult> results;
+}
@@ -0,0 +1,22 @@
+package org.lampis.common.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of looking up a single order within a multi-get request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderLookupResult {
+
+    private Long orderId;
+    private boolean found;
+    private OrderResponse order;
+}
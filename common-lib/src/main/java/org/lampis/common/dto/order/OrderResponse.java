@@ -1,30 +1,37 @@
 package org.lampis.common.dto.order;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.money.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Response DTO for order information
+ * Fields left out of a sparse fieldset are null and omitted from JSON
  */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OrderResponse {
 
     private Long orderId;
     private Long customerId;
     private OrderStatus status;
     private LocalDateTime orderDate;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private List<OrderLineDTO> orderLines;
+    /**
+     * Number of lines of a large order, whose lines are read page by page from /orders/{id}/lines instead
+     */
+    private Integer lineCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,28 @@
+package org.lampis.common.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Combined filters for order search. Every filter is optional and all given filters must match.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchCriteria {
+
+    private Long customerId;
+    private Set<OrderStatus> statuses;
+    private LocalDateTime orderDateFrom;
+    private LocalDateTime orderDateTo;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+}
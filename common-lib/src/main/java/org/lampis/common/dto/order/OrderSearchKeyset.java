@@ -0,0 +1,41 @@
+package org.lampis.common.dto.order;
+
+import lombok.Value;
+import org.lampis.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset of the order search: the (orderDate, orderId) of the last order of a page,
+ * carried between requests as the opaque nextCursor/cursor string
+ */
+@Value
+public class OrderSearchKeyset {
+
+    LocalDateTime orderDate;
+    Long orderId;
+
+    public String encode() {
+        String keyset = orderDate + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a cursor; null or blank means the first page and yields null
+     */
+    public static OrderSearchKeyset decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = keyset.indexOf('|');
+            return new OrderSearchKeyset(LocalDateTime.parse(keyset.substring(0, separator)),
+                    Long.valueOf(keyset.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("INVALID_CURSOR", "Invalid search cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.lampis.common.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a keyset-paginated order search.
+ * Pass nextCursor as the cursor parameter to fetch the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderSearchResponse {
+
+    private List<OrderResponse> orders;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
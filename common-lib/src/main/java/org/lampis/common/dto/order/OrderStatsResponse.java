@@ -0,0 +1,22 @@
+package org.lampis.common.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.enums.OrderStatus;
+
+import java.util.Map;
+
+/**
+ * DTO for order counts per status
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsResponse {
+
+    private Map<OrderStatus, Long> countsByStatus;
+    private long total;
+}
@@ -0,0 +1,28 @@
+package org.lampis.common.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data of an order status stream event: a status change, or the current status sent on subscription
+ * (without previousStatus). Clients keep the update with the latest changedAt per order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderStatusUpdate {
+
+    private Long orderId;
+    private Long customerId;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private LocalDateTime changedAt;
+}
@@ -2,6 +2,12 @@ package org.lampis.common.enums;
 
 import lombok.Getter;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Order lifecycle status
  * Flow: UNPROCESSED -> PROCESSING -> PROCESSED -> SHIPPED
@@ -14,6 +20,20 @@ public enum OrderStatus {
     SHIPPED("Order has been shipped"),
     CANCELLED("Order has been cancelled");
 
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED_SOURCE_STATUSES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus target : values()) {
+            EnumSet<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus source : values()) {
+                if (source.canTransitionTo(target)) {
+                    sources.add(source);
+                }
+            }
+            ALLOWED_SOURCE_STATUSES.put(target, Collections.unmodifiableSet(sources));
+        }
+    }
+
     private final String description;
 
     OrderStatus(String description) {
@@ -56,4 +76,11 @@ public enum OrderStatus {
         // Normal progression
         return target == this.getNextStatus();
     }
-}
\ No newline at end of file
+
+    /**
+     * Get all statuses from which a transition to the target status is valid
+     */
+    public static Set<OrderStatus> getAllowedSourceStatuses(OrderStatus target) {
+        return ALLOWED_SOURCE_STATUSES.get(target);
+    }
+}
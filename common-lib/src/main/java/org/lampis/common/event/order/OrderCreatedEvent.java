@@ -8,8 +8,8 @@ import org.lampis.common.dto.order.OrderLineDTO;
 import org.lampis.common.enums.EventType;
 import org.lampis.common.enums.OrderStatus;
 import org.lampis.common.event.BaseEvent;
+import org.lampis.common.money.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,11 +25,11 @@ public class OrderCreatedEvent extends BaseEvent {
     private Long orderId;
     private Long customerId;
     private OrderStatus status;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private LocalDateTime orderDate;
     private List<OrderLineDTO> orderLines;
 
-    public OrderCreatedEvent(Long orderId, Long customerId, OrderStatus status, BigDecimal totalAmount, LocalDateTime orderDate, List<OrderLineDTO> orderLines) {
+    public OrderCreatedEvent(Long orderId, Long customerId, OrderStatus status, Money totalAmount, LocalDateTime orderDate, List<OrderLineDTO> orderLines) {
         super();
         this.orderId = orderId;
         this.customerId = customerId;
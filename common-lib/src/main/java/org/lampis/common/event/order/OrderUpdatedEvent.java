@@ -6,8 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 import org.lampis.common.enums.EventType;
 import org.lampis.common.event.BaseEvent;
-
-import java.math.BigDecimal;
+import org.lampis.common.money.Money;
 
 /**
  * Event published when an order is updated
@@ -20,9 +19,9 @@ public class OrderUpdatedEvent extends BaseEvent {
 
     private Long orderId;
     private Long customerId;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
 
-    public OrderUpdatedEvent(Long orderId, Long customerId, BigDecimal totalAmount) {
+    public OrderUpdatedEvent(Long orderId, Long customerId, Money totalAmount) {
         super();
         this.orderId = orderId;
         this.customerId = customerId;
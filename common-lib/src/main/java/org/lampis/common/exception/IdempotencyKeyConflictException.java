@@ -0,0 +1,17 @@
+package org.lampis.common.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when another request holds an Idempotency-Key, so this one cannot run or replay it yet
+ */
+@Getter
+public class IdempotencyKeyConflictException extends BusinessException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyConflictException(String idempotencyKey, String message) {
+        super("IDEMPOTENCY_KEY_CONFLICT", message);
+        this.idempotencyKey = idempotencyKey;
+    }
+}
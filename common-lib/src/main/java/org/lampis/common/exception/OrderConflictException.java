@@ -0,0 +1,17 @@
+package org.lampis.common.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when an order was modified concurrently and the requested change no longer applies
+ */
+@Getter
+public class OrderConflictException extends BusinessException {
+
+    private final Long orderId;
+
+    public OrderConflictException(Long orderId, String message) {
+        super("ORDER_CONFLICT", message);
+        this.orderId = orderId;
+    }
+}
@@ -0,0 +1,201 @@
+package org.lampis.common.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Immutable monetary amount held as a {@code long} count of minor units (e.g. cents) plus a currency.
+ * All arithmetic is exact and fails with {@link ArithmeticException} on overflow instead of wrapping.
+ * <p>
+ * Orders, their lines, DTOs and events carry amounts as Money. On the wire and in the database an
+ * amount is a plain decimal in {@link #DEFAULT_CURRENCY}: JSON, CBOR and Smile read and write it as a
+ * number through {@link #of(BigDecimal)} and {@link #toDecimal()}, and {@link MoneyConverter} maps it
+ * to the {@code decimal(10, 2)} columns. Both reject amounts with more fraction digits than the
+ * currency has, and amounts in any other currency.
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * Currency of every amount handled by the platform; orders and events carry no currency code
+     */
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("EUR");
+
+    private static final Money ZERO = new Money(0L, DEFAULT_CURRENCY);
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money zero() {
+        return ZERO;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return ofMinor(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        Objects.requireNonNull(currency, "currency");
+        if (currency.getDefaultFractionDigits() < 0) {
+            throw new IllegalArgumentException("Currency has no minor unit: " + currency);
+        }
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Converts a decimal amount in the default currency exactly
+     *
+     * @throws IllegalArgumentException if the amount has more fraction digits than the currency allows
+     * @throws ArithmeticException      if the amount does not fit in a {@code long} of minor units
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    public static Money of(BigDecimal amount, Currency currency) {
+        Objects.requireNonNull(amount, "amount");
+        int fractionDigits = currency.getDefaultFractionDigits();
+        if (amount.stripTrailingZeros().scale() > fractionDigits) {
+            throw new IllegalArgumentException(String.format("Amount %s has more than %d decimal places for %s",
+                    amount.toPlainString(), fractionDigits, currency.getCurrencyCode()));
+        }
+        // scaleByPowerOfTen keeps the unscaled value, so compact decimals never inflate to BigInteger
+        long minor = amount.scaleByPowerOfTen(fractionDigits).longValueExact();
+        return ofMinor(minor, currency);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0L;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long multiplier) {
+        return new Money(Math.multiplyExact(minorUnits, multiplier), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    /**
+     * Divides in whole minor units, rounding the quotient with the given mode
+     * exactly as {@link BigDecimal#divide(BigDecimal, int, RoundingMode)} would at the currency scale
+     */
+    public Money dividedBy(long divisor, RoundingMode roundingMode) {
+        if (divisor == 0L) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long quotient = minorUnits / divisor;
+        long remainder = minorUnits % divisor;
+        if (remainder == 0L) {
+            return new Money(quotient, currency);
+        }
+
+        int sign = Long.signum(minorUnits) * Long.signum(divisor);
+        long absRemainder = Math.absExact(remainder);
+        long absDivisor = Math.absExact(divisor);
+        boolean awayFromZero = switch (roundingMode) {
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+            case DOWN -> false;
+            case UP -> true;
+            case FLOOR -> sign < 0;
+            case CEILING -> sign > 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                // compare remainder with divisor - remainder to avoid overflowing 2 * remainder
+                int half = Long.compare(absRemainder, absDivisor - absRemainder);
+                if (half != 0) {
+                    yield half > 0;
+                }
+                yield roundingMode == RoundingMode.HALF_UP
+                        || (roundingMode == RoundingMode.HALF_EVEN && (quotient & 1L) != 0L);
+            }
+        };
+        return new Money(awayFromZero ? quotient + sign : quotient, currency);
+    }
+
+    /**
+     * The amount as a decimal at the currency scale (e.g. {@code 12.30} for EUR)
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    /**
+     * The amount as a decimal in the default currency, the form amounts take on the wire and in the database
+     *
+     * @throws IllegalArgumentException if the amount is in another currency
+     */
+    @JsonValue
+    public BigDecimal toDecimal() {
+        if (!DEFAULT_CURRENCY.equals(currency)) {
+            throw new IllegalArgumentException(String.format("Amounts are stored and sent in %s, not %s",
+                    DEFAULT_CURRENCY.getCurrencyCode(), currency.getCurrencyCode()));
+        }
+        return toBigDecimal();
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException(
+                    "Currency mismatch: " + currency.getCurrencyCode() + " vs " + other.currency.getCurrencyCode());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other)) {
+            return false;
+        }
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return currency.getCurrencyCode() + " " + toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,24 @@
+package org.lampis.common.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps Money attributes to decimal columns holding amounts in the default currency
+ * Writing an amount in another currency fails rather than storing it as if it were the default one
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money amount) {
+        return amount != null ? amount.toDecimal() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal column) {
+        return column != null ? Money.of(column) : null;
+    }
+}
@@ -0,0 +1,31 @@
+package org.lampis.common.warmup;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the start-up warm-up phase, bound by each service under {@code warmup}
+ */
+@Data
+public class WarmUpProperties {
+
+    /**
+     * Exercise the hot paths before the readiness probe reports the service ready
+     */
+    private boolean enabled = false;
+
+    /**
+     * Iterations of each task; the JIT compiles a method after some thousands of invocations
+     */
+    @Min(1)
+    private int iterations = 5000;
+
+    /**
+     * Upper bound of the whole phase; the remaining iterations are skipped once it has passed
+     */
+    @NotNull
+    private Duration maxDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,73 @@
+package org.lampis.common.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Runs a service's warm-up tasks after start-up, before the service reports ready
+ * <p>
+ * Spring Boot moves the readiness state to ACCEPTING_TRAFFIC only once every ApplicationRunner has
+ * returned, so {@code /actuator/health/readiness} stays down while the hot paths are interpreted and
+ * JIT-compiled here instead of on the first user requests. Runs last, after runners that load data.
+ * <p>
+ * Always registered and switched by {@link WarmUpProperties#isEnabled()} at run time: an AOT-processed
+ * build fixes conditional beans at build time. A failing task is logged and skipped; warm-up never
+ * keeps a service from starting.
+ */
+@Slf4j
+public class WarmUpRunner implements ApplicationRunner, Ordered {
+
+    private final WarmUpProperties properties;
+    private final List<WarmUpTask> tasks;
+
+    // results are published here so the JIT cannot drop the iterations as dead code
+    private volatile int sink;
+
+    public WarmUpRunner(WarmUpProperties properties, List<WarmUpTask> tasks) {
+        this.properties = properties;
+        this.tasks = List.copyOf(tasks);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isEnabled() && !tasks.isEmpty()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * @return iterations completed across all tasks
+     */
+    public long warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        long total = 0;
+        for (WarmUpTask task : tasks) {
+            long taskStart = System.nanoTime();
+            int completed = 0;
+            try {
+                while (completed < properties.getIterations() && System.nanoTime() < deadline) {
+                    Object result = task.iteration().call();
+                    sink += result != null ? result.hashCode() : 0;
+                    completed++;
+                }
+            } catch (Exception e) {
+                log.warn("Warm-up task {} failed after {} iterations, skipping it", task.name(), completed, e);
+            }
+            total += completed;
+            log.info("Warm-up task {}: {} iterations in {} ms", task.name(), completed,
+                    (System.nanoTime() - taskStart) / 1_000_000);
+        }
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,78 @@
+package org.lampis.common.warmup;
+
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.event.order.OrderCreatedEvent;
+import org.lampis.common.event.order.OrderStatusChangedEvent;
+import org.lampis.common.money.Money;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Representative payloads for the warm-up tasks: a few lines per order, as in the load generator's workload
+ */
+public final class WarmUpSamples {
+
+    private static final int LINE_COUNT = 3;
+    private static final Money UNIT_PRICE = Money.ofMinor(1999);
+
+    private WarmUpSamples() {
+        // Utility class
+    }
+
+    public static List<OrderLineDTO> orderLines() {
+        return IntStream.range(0, LINE_COUNT)
+                .mapToObj(i -> OrderLineDTO.builder()
+                        .id(1L + i)
+                        .productId(100L + i)
+                        .quantity(1 + i)
+                        .unitPrice(UNIT_PRICE)
+                        .lineTotal(UNIT_PRICE.times(1 + i))
+                        .build())
+                .toList();
+    }
+
+    public static OrderResponse order() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderLineDTO> lines = orderLines();
+        return OrderResponse.builder()
+                .orderId(1L)
+                .customerId(1L)
+                .status(OrderStatus.UNPROCESSED)
+                .orderDate(now)
+                .totalAmount(total(lines))
+                .orderLines(lines)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    public static CreateOrderRequest createOrderRequest() {
+        return CreateOrderRequest.builder()
+                .customerId(1L)
+                .orderLines(orderLines())
+                .build();
+    }
+
+    public static OrderCreatedEvent orderCreatedEvent() {
+        List<OrderLineDTO> lines = orderLines();
+        OrderCreatedEvent event = new OrderCreatedEvent(1L, 1L, OrderStatus.UNPROCESSED, total(lines),
+                LocalDateTime.now(), lines);
+        event.initializeMetadata("warm-up");
+        return event;
+    }
+
+    public static OrderStatusChangedEvent orderStatusChangedEvent() {
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(1L, 1L, OrderStatus.UNPROCESSED, OrderStatus.PROCESSING);
+        event.initializeMetadata("warm-up");
+        return event;
+    }
+
+    private static Money total(List<OrderLineDTO> lines) {
+        return lines.stream().map(OrderLineDTO::getLineTotal).reduce(Money.zero(), Money::plus);
+    }
+}
@@ -0,0 +1,16 @@
+package org.lampis.common.warmup;
+
+import java.util.concurrent.Callable;
+
+/**
+ * One hot path of a service, exercised repeatedly by the {@link WarmUpRunner} before the service reports ready
+ * <p>
+ * An iteration must not touch external systems or change state: it runs on every start, against
+ * whatever database or broker the service is connected to. It returns what it computed, so the JIT
+ * cannot discard the work as unused.
+ *
+ * @param name      name in the warm-up log lines, e.g. {@code "order-json"}
+ * @param iteration one pass over the hot path
+ */
+public record WarmUpTask(String name, Callable<?> iteration) {
+}
@@ -2,6 +2,8 @@ package org.lampis.common.enums;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.EnumSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class OrderStatusTest {
@@ -57,4 +59,19 @@ class OrderStatusTest {
         // Cannot cancel if already shipped
         assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.CANCELLED));
     }
+
+    @Test
+    void testGetAllowedSourceStatuses() {
+        assertEquals(EnumSet.of(OrderStatus.UNPROCESSED, OrderStatus.PROCESSING),
+                OrderStatus.getAllowedSourceStatuses(OrderStatus.PROCESSING));
+        assertEquals(EnumSet.of(OrderStatus.PROCESSED, OrderStatus.SHIPPED),
+                OrderStatus.getAllowedSourceStatuses(OrderStatus.SHIPPED));
+        assertEquals(EnumSet.of(OrderStatus.UNPROCESSED, OrderStatus.PROCESSING,
+                        OrderStatus.PROCESSED, OrderStatus.CANCELLED),
+                OrderStatus.getAllowedSourceStatuses(OrderStatus.CANCELLED));
+
+        // Unprocessed is only reachable from itself
+        assertEquals(EnumSet.of(OrderStatus.UNPROCESSED),
+                OrderStatus.getAllowedSourceStatuses(OrderStatus.UNPROCESSED));
+    }
 }
@@ -0,0 +1,119 @@
+package org.lampis.common.money;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.util.BinaryFormats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testOfAndToBigDecimal_RoundTrip() {
+        assertEquals(1234L, Money.of(new BigDecimal("12.34")).getMinorUnits());
+        assertEquals(1000L, Money.of(new BigDecimal("10")).getMinorUnits());
+        assertEquals(new BigDecimal("12.30"), Money.of(new BigDecimal("12.3")).toBigDecimal());
+        assertEquals(Money.ofMinor(1000), Money.of(new BigDecimal("10.000")));
+    }
+
+    @Test
+    void testOf_RejectsExtraFractionDigits() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.005")));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1E+30")));
+    }
+
+    @Test
+    void testArithmetic() {
+        Money price = Money.of(new BigDecimal("29.99"));
+
+        assertEquals(new BigDecimal("59.98"), price.times(2).toBigDecimal());
+        assertEquals(new BigDecimal("0.01"), price.plus(Money.ofMinor(2)).minus(Money.of(new BigDecimal("30.00"))).toBigDecimal());
+        assertEquals(Money.ofMinor(-2999), price.negate());
+    }
+
+    @Test
+    void testArithmetic_FailsOnOverflow() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void testDividedBy_MatchesBigDecimalRounding() {
+        long[] amounts = {0, 1, 5, 10, 15, 25, 99, 100, 1001, -1, -5, -15, -25, -1001};
+        long[] divisors = {1, 2, 3, 4, 7, 10, -2, -3};
+        RoundingMode[] modes = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+                RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+
+        for (long amount : amounts) {
+            for (long divisor : divisors) {
+                for (RoundingMode mode : modes) {
+                    BigDecimal expected = BigDecimal.valueOf(amount, 2).divide(BigDecimal.valueOf(divisor), 2, mode);
+                    assertEquals(expected, Money.ofMinor(amount).dividedBy(divisor, mode).toBigDecimal(),
+                            amount + " / " + divisor + " " + mode);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDividedBy_InvalidArguments() {
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(10).dividedBy(0, RoundingMode.HALF_UP));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(10).dividedBy(3, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void testCurrencyMismatch() {
+        Money euros = Money.ofMinor(100);
+        Money dollars = Money.ofMinor(100, Currency.getInstance("USD"));
+
+        assertNotEquals(euros, dollars);
+        assertThrows(IllegalArgumentException.class, () -> euros.plus(dollars));
+        assertThrows(IllegalArgumentException.class, () -> euros.compareTo(dollars));
+    }
+
+    @Test
+    void testJson_AmountIsAPlainNumber() throws Exception {
+        OrderLineDTO line = OrderLineDTO.builder().productId(100L).quantity(2).unitPrice(Money.ofMinor(2999)).build();
+        line.calculateLineTotal();
+
+        String json = objectMapper.writeValueAsString(line);
+        OrderLineDTO read = objectMapper.readValue(json, OrderLineDTO.class);
+
+        assertTrue(json.contains("\"unitPrice\":29.99"), json);
+        assertTrue(json.contains("\"lineTotal\":59.98"), json);
+        assertEquals(Money.ofMinor(5998), read.getLineTotal());
+        ObjectMapper cbor = BinaryFormats.cborMapper(objectMapper);
+        assertEquals(line, cbor.readValue(cbor.writeValueAsBytes(line), OrderLineDTO.class));
+    }
+
+    @Test
+    void testJson_RejectsExtraFractionDigitsAndOtherCurrencies() {
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue(
+                "{\"productId\":100,\"quantity\":1,\"unitPrice\":29.999}", OrderLineDTO.class));
+        OrderLineDTO dollars = OrderLineDTO.builder().unitPrice(Money.ofMinor(2999, Currency.getInstance("USD"))).build();
+        assertThrows(JsonMappingException.class, () -> objectMapper.writeValueAsString(dollars));
+    }
+
+    @Test
+    void testConverter_StoresDefaultCurrencyAtColumnScale() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(new BigDecimal("12.30"), converter.convertToDatabaseColumn(Money.ofMinor(1230)));
+        assertEquals(Money.ofMinor(1230), converter.convertToEntityAttribute(new BigDecimal("12.30")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> converter.convertToDatabaseColumn(Money.ofMinor(100, Currency.getInstance("USD"))));
+    }
+}
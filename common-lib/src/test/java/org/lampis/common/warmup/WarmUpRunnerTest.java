@@ -0,0 +1,54 @@
+package org.lampis.common.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmUpRunnerTest {
+
+    @Test
+    void run_Disabled_RunsNoTask() {
+        AtomicInteger calls = new AtomicInteger();
+        WarmUpRunner runner = new WarmUpRunner(new WarmUpProperties(), List.of(new WarmUpTask("count", calls::incrementAndGet)));
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void warmUp_FailingTask_IsSkippedAndTheOthersRun() {
+        WarmUpProperties properties = new WarmUpProperties();
+        properties.setIterations(10);
+        AtomicInteger calls = new AtomicInteger();
+        WarmUpRunner runner = new WarmUpRunner(properties, List.of(
+                new WarmUpTask("failing", () -> {
+                    throw new IllegalStateException("boom");
+                }),
+                new WarmUpTask("count", calls::incrementAndGet)));
+
+        assertEquals(10, runner.warmUp());
+        assertEquals(10, calls.get());
+    }
+
+    @Test
+    void warmUp_StopsAtMaxDuration() {
+        WarmUpProperties properties = new WarmUpProperties();
+        properties.setIterations(Integer.MAX_VALUE);
+        properties.setMaxDuration(Duration.ofMillis(50));
+        WarmUpRunner runner = new WarmUpRunner(properties, List.of(
+                new WarmUpTask("sleep", () -> {
+                    Thread.sleep(5);
+                    return null;
+                })));
+
+        long iterations = runner.warmUp();
+
+        assertTrue(iterations > 0 && iterations <= 11, "iterations: " + iterations);
+    }
+}
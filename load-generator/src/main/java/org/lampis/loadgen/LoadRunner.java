@@ -0,0 +1,234 @@
+package org.lampis.loadgen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.money.Money;
+import org.lampis.loadgen.client.OrderApiClient;
+import org.lampis.loadgen.config.LoadGeneratorProperties;
+import org.lampis.loadgen.report.LatencyStats;
+import org.lampis.loadgen.report.LoadReport;
+import org.lampis.loadgen.report.P99Timeline;
+import org.lampis.loadgen.workload.Operation;
+import org.lampis.loadgen.workload.OrderPool;
+import org.lampis.loadgen.workload.WorkloadMix;
+import org.lampis.loadgen.workload.ZipfianGenerator;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the order API with an open-loop arrival schedule
+ * <p>
+ * A single dispatcher thread computes when each request is due and hands it to a new virtual thread,
+ * whether or not earlier requests have completed, so a slow system builds up queueing delay instead
+ * of silently lowering the offered load. Latency is measured from the due time, which makes the
+ * histograms free of coordinated omission.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoadRunner implements ApplicationRunner {
+
+    private static final int ORDER_POOL_CAPACITY = 10_000;
+
+    private final LoadGeneratorProperties properties;
+    private final OrderApiClient client;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        WorkloadMix mix = new WorkloadMix(properties.getMix());
+        ZipfianGenerator products = new ZipfianGenerator(
+                properties.getProducts().getCount(), properties.getProducts().getZipfExponent());
+        OrderPool orders = new OrderPool(ORDER_POOL_CAPACITY);
+        LatencyStats stats = new LatencyStats();
+        Semaphore inFlight = new Semaphore(properties.getMaxInFlight());
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getRatePerSecond());
+        long startNanos = System.nanoTime();
+        long measureStartNanos = startNanos + properties.getWarmup().toNanos();
+        long endNanos = measureStartNanos + properties.getDuration().toNanos();
+        Instant startedAt = Instant.now();
+        AtomicLong sent = new AtomicLong();
+
+        log.info("Starting load: {} req/s ({}) against {} - warm-up {}s, measured {}s",
+                properties.getRatePerSecond(), properties.getArrival(), properties.getBaseUrl(),
+                properties.getWarmup().toSeconds(), properties.getDuration().toSeconds());
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        long progressMillis = properties.getReport().getProgressInterval().toMillis();
+        P99Timeline timeline = new P99Timeline(progressMillis);
+        progress.scheduleAtFixedRate(() -> logProgress(stats, timeline, progressMillis),
+                properties.getWarmup().toMillis() + progressMillis, progressMillis, TimeUnit.MILLISECONDS);
+
+        ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+        long dueNanos = startNanos;
+        while (dueNanos < endNanos) {
+            waitUntil(dueNanos);
+            boolean measured = dueNanos >= measureStartNanos;
+            if (inFlight.tryAcquire()) {
+                long intendedStart = dueNanos;
+                Operation operation = mix.next(ThreadLocalRandom.current());
+                requests.execute(() -> {
+                    try {
+                        execute(operation, intendedStart, measured, orders, products, stats);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                if (measured) {
+                    sent.incrementAndGet();
+                }
+            } else if (measured) {
+                stats.recordDropped();
+            }
+            dueNanos += nextGap(intervalNanos);
+        }
+
+        requests.shutdown();
+        if (!requests.awaitTermination(properties.getRequestTimeout().toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+            log.warn("Requests still in flight after the timeout, reporting without them");
+            requests.shutdownNow();
+        }
+        progress.shutdownNow();
+        progress.awaitTermination(1, TimeUnit.SECONDS);
+        stats.collectInterval();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - measureStartNanos);
+
+        String report = LoadReport.render(properties, stats, timeline, startedAt, sent.get(), elapsed);
+        Path reportFile = Path.of(properties.getReport().getFile());
+        LoadReport.write(reportFile, report);
+        int distributions = report.indexOf("\nPercentile distribution");
+        log.info("Load test finished, report written to {}\n{}", reportFile.toAbsolutePath(),
+                distributions < 0 ? report : report.substring(0, distributions));
+    }
+
+    private void execute(Operation operation, long intendedStart, boolean measured,
+                         OrderPool orders, ZipfianGenerator products, LatencyStats stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OrderPool.TrackedOrder target = null;
+        if (operation == Operation.READ || operation == Operation.STATUS_UPDATE) {
+            target = orders.pick(random);
+            if (target == null || (operation == Operation.STATUS_UPDATE && target.status().isTerminal())) {
+                // nothing to read or advance yet; keep the arrival and create an order instead
+                operation = target == null ? Operation.CREATE : Operation.READ;
+            }
+        }
+
+        String failure;
+        try {
+            HttpResponse<byte[]> response = switch (operation) {
+                case CREATE -> client.createOrder(randomOrder(random, products));
+                case READ -> client.getOrder(target.orderId());
+                case LIST -> client.listCustomerOrders(randomCustomer(random));
+                case STATUS_UPDATE -> client.updateStatus(target.orderId(), target.status().getNextStatus());
+            };
+            if (response.statusCode() < 400) {
+                failure = null;
+                track(operation, target, response, orders);
+            } else {
+                failure = "HTTP " + response.statusCode();
+            }
+        } catch (HttpTimeoutException e) {
+            failure = "timeout";
+        } catch (IOException e) {
+            failure = e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (measured) {
+            long latency = System.nanoTime() - intendedStart;
+            if (failure == null) {
+                stats.recordSuccess(operation, latency);
+            } else {
+                stats.recordError(operation, latency, failure);
+            }
+        }
+    }
+
+    private void track(Operation operation, OrderPool.TrackedOrder target,
+                       HttpResponse<byte[]> response, OrderPool orders) throws IOException {
+        if (operation == Operation.CREATE) {
+            OrderResponse created = client.readOrder(response);
+            orders.add(created.getOrderId(), created.getStatus());
+        } else if (operation == Operation.STATUS_UPDATE) {
+            orders.updateStatus(target, target.status().getNextStatus());
+        }
+    }
+
+    private CreateOrderRequest randomOrder(ThreadLocalRandom random, ZipfianGenerator products) {
+        LoadGeneratorProperties.Products catalog = properties.getProducts();
+        int lineCount = random.nextInt(1, catalog.getMaxLinesPerOrder() + 1);
+        List<OrderLineDTO> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            long productId = catalog.getFirstId() + products.next(random);
+            lines.add(OrderLineDTO.builder()
+                    .productId(productId)
+                    .quantity(random.nextInt(1, catalog.getMaxQuantity() + 1))
+                    .unitPrice(priceOf(productId))
+                    .build());
+        }
+        return CreateOrderRequest.builder()
+                .customerId(randomCustomer(random))
+                .orderLines(lines)
+                .build();
+    }
+
+    /**
+     * Stable price per product, between 1.99 and 100.99
+     */
+    private static Money priceOf(long productId) {
+        return Money.ofMinor(199 + (productId * 37) % 9_901);
+    }
+
+    private long randomCustomer(ThreadLocalRandom random) {
+        return properties.getCustomers().getFirstId() + random.nextInt(properties.getCustomers().getCount());
+    }
+
+    private long nextGap(long intervalNanos) {
+        if (properties.getArrival() == LoadGeneratorProperties.ArrivalProcess.CONSTANT) {
+            return intervalNanos;
+        }
+        // exponential inter-arrival times give a Poisson arrival process
+        return (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * intervalNanos);
+    }
+
+    private static void waitUntil(long dueNanos) {
+        long remaining;
+        while ((remaining = dueNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static void logProgress(LatencyStats stats, P99Timeline timeline, long intervalMillis) {
+        Histogram interval = stats.collectInterval();
+        timeline.add(interval);
+        log.info("{} req/s, p50 {} ms, p99 {} ms, max {} ms",
+                String.format("%.1f", interval.getTotalCount() * 1000.0 / intervalMillis),
+                interval.getValueAtPercentile(50) / 1000.0,
+                interval.getValueAtPercentile(99) / 1000.0,
+                interval.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,92 @@
+package org.lampis.loadgen.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.dto.order.UpdateOrderStatusRequest;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.loadgen.config.LoadGeneratorProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Blocking client of the order API, meant to be called from virtual threads
+ */
+@Component
+public class OrderApiClient {
+
+    private static final String ORDERS_PATH = "/api/v1/orders";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String ordersUrl;
+    private final String authorization;
+    private final Duration requestTimeout;
+
+    public OrderApiClient(LoadGeneratorProperties properties, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getRequestTimeout())
+                .build();
+        this.objectMapper = objectMapper;
+        this.ordersUrl = stripTrailingSlash(properties.getBaseUrl()) + ORDERS_PATH;
+        this.authorization = properties.getBearerToken().isBlank() ? null : "Bearer " + properties.getBearerToken();
+        this.requestTimeout = properties.getRequestTimeout();
+    }
+
+    public HttpResponse<byte[]> createOrder(CreateOrderRequest request) throws IOException, InterruptedException {
+        return send(request(ordersUrl).POST(jsonBody(request)));
+    }
+
+    public HttpResponse<byte[]> getOrder(long orderId) throws IOException, InterruptedException {
+        return send(request(ordersUrl + "/" + orderId).GET());
+    }
+
+    public HttpResponse<byte[]> listCustomerOrders(long customerId) throws IOException, InterruptedException {
+        return send(request(ordersUrl + "?customerId=" + customerId).GET());
+    }
+
+    public HttpResponse<byte[]> updateStatus(long orderId, OrderStatus status) throws IOException, InterruptedException {
+        UpdateOrderStatusRequest body = new UpdateOrderStatusRequest();
+        body.setStatus(status);
+        return send(request(ordersUrl + "/" + orderId + "/status").method("PATCH", jsonBody(body)));
+    }
+
+    public OrderResponse readOrder(HttpResponse<byte[]> response) throws IOException {
+        return objectMapper.readValue(response.body(), OrderResponse.class);
+    }
+
+    private HttpRequest.Builder request(String url) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.header("Content-Type", "application/json").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,171 @@
+package org.lampis.loadgen.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.lampis.loadgen.workload.Operation;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for a load generator run
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "load")
+public class LoadGeneratorProperties {
+
+    /**
+     * Base URL requests are sent to, normally the API gateway
+     */
+    @NotBlank
+    private String baseUrl = "http://localhost:8090";
+
+    /**
+     * Bearer token sent with every request; empty sends none (direct order-service runs)
+     */
+    private String bearerToken = "";
+
+    /**
+     * Target arrival rate in requests per second, independent of response times (open loop)
+     */
+    @DecimalMin("0.1")
+    private double ratePerSecond = 50;
+
+    /**
+     * How inter-arrival gaps are drawn
+     */
+    @NotNull
+    private ArrivalProcess arrival = ArrivalProcess.POISSON;
+
+    /**
+     * Warm-up period whose requests are sent but not recorded
+     */
+    @NotNull
+    private Duration warmup = Duration.ofSeconds(10);
+
+    /**
+     * Measured period after the warm-up
+     */
+    @NotNull
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * Per-request timeout; timed out requests count as errors
+     */
+    @NotNull
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Requests allowed in flight; arrivals beyond it are dropped and counted, never delayed,
+     * so a stalled system cannot slow the arrival schedule down
+     */
+    @Min(1)
+    private int maxInFlight = 2000;
+
+    /**
+     * Relative weight of each operation in the workload mix
+     */
+    @NotNull
+    private Map<Operation, Integer> mix = defaultMix();
+
+    @Valid
+    private Products products = new Products();
+
+    @Valid
+    private Customers customers = new Customers();
+
+    @Valid
+    private Report report = new Report();
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.CREATE, 20);
+        mix.put(Operation.READ, 50);
+        mix.put(Operation.LIST, 20);
+        mix.put(Operation.STATUS_UPDATE, 10);
+        return mix;
+    }
+
+    public enum ArrivalProcess {
+        /**
+         * Fixed gap of 1 / rate between arrivals
+         */
+        CONSTANT,
+        /**
+         * Exponentially distributed gaps averaging 1 / rate
+         */
+        POISSON
+    }
+
+    /**
+     * Product catalog the generated orders draw from; the products must exist in inventory
+     */
+    @Data
+    public static class Products {
+
+        @Min(1)
+        private long firstId = 1;
+
+        @Min(1)
+        private int count = 1000;
+
+        /**
+         * Zipfian skew; 0 is uniform, values towards 1 concentrate orders on the lowest IDs (hot SKUs)
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("0.9999")
+        private double zipfExponent = 0.99;
+
+        @Min(1)
+        private int maxLinesPerOrder = 5;
+
+        @Min(1)
+        private int maxQuantity = 3;
+    }
+
+    /**
+     * Customer population orders are created for and listed by, drawn uniformly
+     */
+    @Data
+    public static class Customers {
+
+        @Min(1)
+        private long firstId = 1;
+
+        @Min(1)
+        private int count = 10000;
+    }
+
+    @Data
+    public static class Report {
+
+        /**
+         * File the final report is written to
+         */
+        @NotBlank
+        private String file = "load-report.txt";
+
+        /**
+         * Interval of the progress lines logged during the run
+         */
+        @NotNull
+        private Duration progressInterval = Duration.ofSeconds(5);
+
+        /**
+         * How far above the steady-state p99 an interval's p99 may be and still count as stable
+         */
+        @DecimalMin("0.0")
+        private double stableTolerance = 0.2;
+    }
+}
@@ -0,0 +1,96 @@
+package org.lampis.loadgen.report;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.lampis.loadgen.workload.Operation;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and outcome counters of the measured period
+ * <p>
+ * Request threads record into lock-free {@link Recorder}s; a single reporting thread
+ * drains them with {@link #collectInterval()} into interval and cumulative histograms.
+ * Latencies are in microseconds.
+ */
+public class LatencyStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    public LatencyStats() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            totals.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void recordSuccess(Operation operation, long latencyNanos) {
+        recorders.get(operation).recordValue(toMicros(latencyNanos));
+    }
+
+    /**
+     * Failed requests count towards latency too, so a fast-failing system does not look fast
+     *
+     * @param cause HTTP status code or failure kind, e.g. {@code "HTTP 409"} or {@code "timeout"}
+     */
+    public void recordError(Operation operation, long latencyNanos, String cause) {
+        recorders.get(operation).recordValue(toMicros(latencyNanos));
+        errors.get(operation).increment();
+        errorsByCause.computeIfAbsent(operation + " " + cause, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * An arrival that was not sent because too many requests were in flight
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Drain the recorders: returns the latencies recorded since the previous call, all operations
+     * combined, and adds them to the cumulative per-operation histograms. Single reporting thread only.
+     */
+    public Histogram collectInterval() {
+        Histogram interval = new Histogram(SIGNIFICANT_DIGITS);
+        for (Operation operation : Operation.values()) {
+            Histogram operationInterval = recorders.get(operation).getIntervalHistogram();
+            totals.get(operation).add(operationInterval);
+            interval.add(operationInterval);
+        }
+        return interval;
+    }
+
+    public Histogram getTotal(Operation operation) {
+        return totals.get(operation);
+    }
+
+    public long getErrors(Operation operation) {
+        return errors.get(operation).sum();
+    }
+
+    public Map<String, Long> getErrorsByCause() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        errorsByCause.forEach((cause, count) -> snapshot.put(cause, count.sum()));
+        return snapshot;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+}
@@ -0,0 +1,135 @@
+package org.lampis.loadgen.report;
+
+import org.HdrHistogram.Histogram;
+import org.lampis.loadgen.config.LoadGeneratorProperties;
+import org.lampis.loadgen.workload.Operation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Final report of a run: summary table per operation, error breakdown and
+ * the full HdrHistogram percentile distribution of each operation (plottable as .hgrm)
+ */
+public final class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadReport() {
+    }
+
+    /**
+     * @param sent    requests sent during the measured period
+     * @param elapsed time from the start of the measured period until its last response
+     */
+    public static String render(LoadGeneratorProperties properties, LatencyStats stats, P99Timeline timeline,
+                                Instant startedAt, long sent, Duration elapsed) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8);
+        double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+
+        out.println("Order API load test");
+        out.println("===================");
+        out.printf("Started:            %s%n", startedAt);
+        out.printf("Target:             %s%n", properties.getBaseUrl());
+        out.printf("Arrivals:           %s, %.1f req/s target (open loop)%n",
+                properties.getArrival(), properties.getRatePerSecond());
+        out.printf("Warm-up / measured: %ss / %ss%n",
+                properties.getWarmup().toSeconds(), properties.getDuration().toSeconds());
+        out.printf("Mix:                %s%n", properties.getMix());
+        out.printf("Products:           %d from ID %d, Zipf exponent %.2f%n",
+                properties.getProducts().getCount(), properties.getProducts().getFirstId(),
+                properties.getProducts().getZipfExponent());
+        out.printf("Customers:          %d from ID %d%n",
+                properties.getCustomers().getCount(), properties.getCustomers().getFirstId());
+        out.println();
+
+        long completed = 0;
+        long errors = 0;
+        for (Operation operation : Operation.values()) {
+            completed += stats.getTotal(operation).getTotalCount();
+            errors += stats.getErrors(operation);
+        }
+        out.printf("Sent:               %d (%.1f req/s)%n", sent, sent / seconds);
+        out.printf("Completed:          %d (%.1f req/s achieved)%n", completed, completed / seconds);
+        out.printf("Errors:             %d (%.2f%%)%n", errors, percent(errors, completed));
+        out.printf("Dropped:            %d (arrivals over max in flight %d)%n", stats.getDropped(), properties.getMaxInFlight());
+        out.println();
+
+        out.println("Latency in ms, measured from the intended send time (corrected for coordinated omission)");
+        out.printf("%-14s %10s %9s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "req/s", "errors", "p50", "p90", "p99", "p999", "max");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = stats.getTotal(operation);
+            long count = histogram.getTotalCount();
+            out.printf("%-14s %10d %9.1f %7.2f%% %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation, count, count / seconds, percent(stats.getErrors(operation), count),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI);
+        }
+
+        renderTimeline(out, timeline, properties.getReport().getStableTolerance());
+
+        Map<String, Long> errorsByCause = stats.getErrorsByCause();
+        if (!errorsByCause.isEmpty()) {
+            out.println();
+            out.println("Errors by cause");
+            errorsByCause.forEach((cause, count) -> out.printf("  %-40s %d%n", cause, count));
+        }
+
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = stats.getTotal(operation);
+            if (histogram.getTotalCount() > 0) {
+                out.println();
+                out.printf("Percentile distribution: %s (ms)%n", operation);
+                histogram.outputPercentileDistribution(out, 5, MICROS_PER_MILLI);
+            }
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void renderTimeline(PrintStream out, P99Timeline timeline, double tolerance) {
+        List<Long> p99s = timeline.getP99s();
+        if (p99s.isEmpty()) {
+            return;
+        }
+        out.println();
+        out.printf("p99 per %.1fs interval, all operations (ms, - = no responses)%n", timeline.getIntervalMillis() / 1000.0);
+        out.println("  " + p99s.stream()
+                .map(p99 -> p99 < 0 ? "-" : String.format("%.2f", p99 / MICROS_PER_MILLI))
+                .collect(Collectors.joining(" ")));
+        long steady = timeline.getSteadyP99();
+        long stableMillis = timeline.timeToStableMillis(tolerance);
+        if (stableMillis < 0) {
+            out.println("Time to stable p99: not reached");
+        } else {
+            out.printf("Time to stable p99: %.1fs (within %.0f%% of the steady-state %.2f ms from then on)%n",
+                    stableMillis / 1000.0, tolerance * 100, steady / MICROS_PER_MILLI);
+        }
+    }
+
+    public static void write(Path file, String report) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, report, StandardCharsets.UTF_8);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+}
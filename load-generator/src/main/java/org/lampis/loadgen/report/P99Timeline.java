@@ -0,0 +1,77 @@
+package org.lampis.loadgen.report;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * p99 latency of each progress interval of the measured period, and how long it took to settle
+ * <p>
+ * The steady-state p99 is the median interval p99 of the last third of the run. The p99 counts as
+ * stable from the start of the first interval after which no interval exceeds the steady state by
+ * more than the tolerance; an interval without completed requests counts as unstable. Started with
+ * no warm-up right after a service has become ready, this is the service's time to a stable p99.
+ * Latencies are in microseconds.
+ */
+public class P99Timeline {
+
+    private static final long NO_REQUESTS = -1;
+
+    private final long intervalMillis;
+    private final List<Long> p99s = new ArrayList<>();
+
+    public P99Timeline(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    public synchronized void add(Histogram interval) {
+        p99s.add(interval.getTotalCount() == 0 ? NO_REQUESTS : interval.getValueAtPercentile(99));
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * @return p99 of each interval in order, -1 for an interval without completed requests
+     */
+    public synchronized List<Long> getP99s() {
+        return List.copyOf(p99s);
+    }
+
+    /**
+     * @return median interval p99 of the last third of the run, -1 if it completed no requests
+     */
+    public synchronized long getSteadyP99() {
+        int from = p99s.size() - Math.max(1, p99s.size() / 3);
+        List<Long> tail = new ArrayList<>(p99s.subList(Math.max(0, from), p99s.size()));
+        tail.removeIf(p99 -> p99 == NO_REQUESTS);
+        if (tail.isEmpty()) {
+            return NO_REQUESTS;
+        }
+        tail.sort(null);
+        return tail.get(tail.size() / 2);
+    }
+
+    /**
+     * @param tolerance allowed excess over the steady-state p99, e.g. 0.2 for 20%
+     * @return time from the start of the measured period until the p99 was stable, -1 if it never settled
+     */
+    public synchronized long timeToStableMillis(double tolerance) {
+        long steady = getSteadyP99();
+        if (steady == NO_REQUESTS) {
+            return NO_REQUESTS;
+        }
+        double limit = steady * (1 + tolerance);
+        int stableFrom = p99s.size();
+        while (stableFrom > 0) {
+            long p99 = p99s.get(stableFrom - 1);
+            if (p99 == NO_REQUESTS || p99 > limit) {
+                break;
+            }
+            stableFrom--;
+        }
+        return stableFrom == p99s.size() ? NO_REQUESTS : stableFrom * intervalMillis;
+    }
+}
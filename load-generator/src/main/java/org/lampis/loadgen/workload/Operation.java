@@ -0,0 +1,23 @@
+package org.lampis.loadgen.workload;
+
+/**
+ * Request types in the workload mix
+ */
+public enum Operation {
+    /**
+     * POST /api/v1/orders
+     */
+    CREATE,
+    /**
+     * GET /api/v1/orders/{id} of a previously created order
+     */
+    READ,
+    /**
+     * GET /api/v1/orders?customerId= for a customer of the population
+     */
+    LIST,
+    /**
+     * PATCH /api/v1/orders/{id}/status to the next status of a previously created order
+     */
+    STATUS_UPDATE
+}
@@ -0,0 +1,48 @@
+package org.lampis.loadgen.workload;
+
+import org.lampis.common.enums.OrderStatus;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Bounded pool of orders created during the run, with their last known status
+ * <p>
+ * Reads and status updates target these orders; once full, new orders overwrite the oldest slots.
+ */
+public class OrderPool {
+
+    private final AtomicReferenceArray<TrackedOrder> slots;
+    private final AtomicLong added = new AtomicLong();
+
+    public OrderPool(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(long orderId, OrderStatus status) {
+        int slot = (int) (added.getAndIncrement() % slots.length());
+        slots.set(slot, new TrackedOrder(slot, orderId, status));
+    }
+
+    /**
+     * @return a random tracked order, or null while the pool is still empty
+     */
+    public TrackedOrder pick(RandomGenerator random) {
+        long filled = Math.min(added.get(), slots.length());
+        if (filled == 0) {
+            return null;
+        }
+        return slots.get(random.nextInt((int) filled));
+    }
+
+    /**
+     * Record a status change unless the slot has meanwhile been reused or updated
+     */
+    public void updateStatus(TrackedOrder order, OrderStatus status) {
+        slots.compareAndSet(order.slot(), order, new TrackedOrder(order.slot(), order.orderId(), status));
+    }
+
+    public record TrackedOrder(int slot, long orderId, OrderStatus status) {
+    }
+}
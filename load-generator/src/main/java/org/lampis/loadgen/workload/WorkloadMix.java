@@ -0,0 +1,47 @@
+package org.lampis.loadgen.workload;
+
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice of the next operation
+ */
+public class WorkloadMix {
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public WorkloadMix(Map<Operation, Integer> weights) {
+        Operation[] all = Operation.values();
+        this.operations = new Operation[all.length];
+        this.cumulativeWeights = new int[all.length];
+        int total = 0;
+        int size = 0;
+        for (Operation operation : all) {
+            int weight = weights.getOrDefault(operation, 0);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + operation + ": " + weight);
+            }
+            if (weight > 0) {
+                total += weight;
+                operations[size] = operation;
+                cumulativeWeights[size] = total;
+                size++;
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Workload mix has no operation with a positive weight");
+        }
+        this.totalWeight = total;
+    }
+
+    public Operation next(RandomGenerator random) {
+        int point = random.nextInt(totalWeight);
+        for (int i = 0; ; i++) {
+            if (point < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+    }
+}
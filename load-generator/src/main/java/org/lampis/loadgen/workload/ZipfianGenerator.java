@@ -0,0 +1,56 @@
+package org.lampis.loadgen.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipfian ranks in {@code [0, itemCount)}, rank 0 being the most popular
+ * <p>
+ * Uses the rejection-free method of Gray et al., "Quickly Generating Billion-Record Synthetic
+ * Databases" (the one YCSB uses): zeta(n) is computed once, each draw costs one {@code pow}.
+ */
+public class ZipfianGenerator {
+
+    private final int itemCount;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+    private final double halfPowExponent;
+
+    /**
+     * @param exponent skew in {@code [0, 1)}; 0 draws uniformly
+     */
+    public ZipfianGenerator(int itemCount, double exponent) {
+        if (itemCount < 1) {
+            throw new IllegalArgumentException("Item count must be positive: " + itemCount);
+        }
+        if (exponent < 0 || exponent >= 1) {
+            throw new IllegalArgumentException("Zipfian exponent must be in [0, 1): " + exponent);
+        }
+        this.itemCount = itemCount;
+        this.zetaN = zeta(itemCount, exponent);
+        this.alpha = 1.0 / (1.0 - exponent);
+        this.eta = (1 - Math.pow(2.0 / itemCount, 1 - exponent)) / (1 - zeta(2, exponent) / zetaN);
+        this.halfPowExponent = 1 + Math.pow(0.5, exponent);
+    }
+
+    public int next(RandomGenerator random) {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < halfPowExponent) {
+            return Math.min(1, itemCount - 1);
+        }
+        int rank = (int) (itemCount * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(rank, itemCount - 1);
+    }
+
+    private static double zeta(int n, double exponent) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, exponent);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,49 @@
+package org.lampis.loadgen.report;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class P99TimelineTest {
+
+    @Test
+    void testTimeToStable_AfterColdStartIntervals() {
+        // cold JIT: an empty interval and slow ones first, then a steady ~1 ms with noise inside the tolerance
+        P99Timeline timeline = timeline(0, 40_000, 9_000, 3_000, 1_000, 1_100, 900, 1_000, 1_050, 1_000);
+
+        assertEquals(1_000, timeline.getSteadyP99());
+        assertEquals(4_000, timeline.timeToStableMillis(0.2));
+        // a stricter tolerance moves the stable point past the 1.1 ms interval
+        assertEquals(6_000, timeline.timeToStableMillis(0.05));
+    }
+
+    @Test
+    void testTimeToStable_StableFromTheStart() {
+        P99Timeline timeline = timeline(1_000, 1_000, 1_000);
+
+        assertEquals(0, timeline.timeToStableMillis(0.2));
+    }
+
+    @Test
+    void testTimeToStable_NotReached() {
+        assertEquals(-1, timeline(1_000, 1_000, 0).timeToStableMillis(0.2));
+        assertEquals(-1, timeline(1_000, 1_000, 1_000, 1_000, 1_000, 1_000, 1_000, 1_000, 9_000).timeToStableMillis(0.2));
+        assertEquals(-1, new P99Timeline(1000).timeToStableMillis(0.2));
+    }
+
+    /**
+     * One-second intervals with the given p99s in microseconds; 0 is an interval without responses
+     */
+    private static P99Timeline timeline(long... p99s) {
+        P99Timeline timeline = new P99Timeline(1000);
+        for (long p99 : p99s) {
+            Histogram interval = new Histogram(3);
+            if (p99 > 0) {
+                interval.recordValueWithCount(p99, 100);
+            }
+            timeline.add(interval);
+        }
+        return timeline;
+    }
+}
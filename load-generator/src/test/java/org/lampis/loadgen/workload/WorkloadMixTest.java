@@ -0,0 +1,36 @@
+package org.lampis.loadgen.workload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadMixTest {
+
+    private static final int DRAWS = 100_000;
+
+    @Test
+    void testNext_FollowsWeights() {
+        WorkloadMix mix = new WorkloadMix(Map.of(Operation.CREATE, 1, Operation.READ, 3));
+        SplittableRandom random = new SplittableRandom(42);
+        int reads = 0;
+
+        for (int i = 0; i < DRAWS; i++) {
+            Operation operation = mix.next(random);
+            assertTrue(operation == Operation.CREATE || operation == Operation.READ);
+            if (operation == Operation.READ) {
+                reads++;
+            }
+        }
+
+        assertEquals(DRAWS * 0.75, reads, DRAWS * 0.01);
+    }
+
+    @Test
+    void testConstructor_RejectsEmptyMix() {
+        assertThrows(IllegalArgumentException.class, () -> new WorkloadMix(Map.of(Operation.CREATE, 0)));
+        assertThrows(IllegalArgumentException.class, () -> new WorkloadMix(Map.of(Operation.CREATE, -1)));
+    }
+}
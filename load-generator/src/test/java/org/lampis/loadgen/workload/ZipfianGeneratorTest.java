@@ -0,0 +1,59 @@
+package org.lampis.loadgen.workload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfianGeneratorTest {
+
+    private static final int DRAWS = 200_000;
+
+    @Test
+    void testNext_StaysInRangeAndFavoursLowRanks() {
+        ZipfianGenerator generator = new ZipfianGenerator(1000, 0.99);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[1000];
+
+        for (int i = 0; i < DRAWS; i++) {
+            counts[generator.next(random)]++;
+        }
+
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[10] && counts[10] > counts[500]);
+        // with exponent 0.99 over 1000 items the top 1% of ranks takes roughly 40% of draws
+        int top10 = 0;
+        for (int i = 0; i < 10; i++) {
+            top10 += counts[i];
+        }
+        assertTrue(top10 > DRAWS * 0.3 && top10 < DRAWS * 0.5, "top 10 share: " + top10);
+    }
+
+    @Test
+    void testNext_ZeroExponentIsUniform() {
+        ZipfianGenerator generator = new ZipfianGenerator(10, 0.0);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[10];
+
+        for (int i = 0; i < DRAWS; i++) {
+            counts[generator.next(random)]++;
+        }
+
+        for (int count : counts) {
+            assertEquals(DRAWS / 10.0, count, DRAWS * 0.01);
+        }
+    }
+
+    @Test
+    void testNext_SingleItem() {
+        ZipfianGenerator generator = new ZipfianGenerator(1, 0.99);
+        assertEquals(0, generator.next(new SplittableRandom(42)));
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(0, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(10, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(10, -0.1));
+    }
+}
@@ -0,0 +1,87 @@
+#!/bin/bash
+
+# eCommerce Order Management System - start-up measurement
+#
+# Restarts each service of the running Docker Compose stack on its own and measures
+#   - cold start: from container start until /actuator/health/readiness answers 200,
+#     which includes the warm-up phase, plus the JVM's own "Started ... in" time
+#   - time to a stable p99: the load generator is started as soon as the service is ready,
+#     with no warm-up of its own, and reports when the per-second p99 settled
+#     (order-service directly; api-gateway when LOAD_BEARER_TOKEN is set)
+#
+# Usage: ./measure-startup.sh [service ...]    (default: every service)
+# Needs the stack running (./start-system.sh) and the load generator jar built.
+
+set -e
+
+declare -A PORTS=(
+    [authorization-server]=9000
+    [api-gateway]=8090
+    [order-service]=8080
+    [order-query-service]=8083
+    [analytics-service]=8082
+    [notification-service]=8081
+)
+SERVICES=("$@")
+if [ ${#SERVICES[@]} -eq 0 ]; then
+    SERVICES=(authorization-server order-service order-query-service analytics-service notification-service api-gateway)
+fi
+
+LOAD_GENERATOR_JAR=load-generator/target/load-generator-1.0.0-SNAPSHOT.jar
+P99_RUN=${P99_RUN:-60s}
+REPORTS=reports/startup
+mkdir -p "$REPORTS"
+
+now_ms() {
+    date +%s%3N
+}
+
+measure_p99() {
+    local service=$1 base_url=$2
+    if [ ! -f "$LOAD_GENERATOR_JAR" ]; then
+        echo "  time to stable p99: skipped, build $LOAD_GENERATOR_JAR first"
+        return
+    fi
+    java -jar "$LOAD_GENERATOR_JAR" --load.base-url="$base_url" --load.warmup=0s --load.duration="$P99_RUN" \
+        --load.report.progress-interval=1s --load.report.file="$REPORTS/$service-p99.txt" > /dev/null
+    echo "  $(grep 'Time to stable p99' "$REPORTS/$service-p99.txt") (report: $REPORTS/$service-p99.txt)"
+}
+
+for service in "${SERVICES[@]}"; do
+    port=${PORTS[$service]}
+    if [ -z "$port" ]; then
+        echo "Unknown service: $service"
+        exit 1
+    fi
+
+    echo "$service"
+    docker-compose stop "$service" > /dev/null 2>&1
+    start=$(now_ms)
+    docker-compose start "$service" > /dev/null 2>&1
+    until curl -fs -o /dev/null "http://localhost:$port/actuator/health/readiness"; do
+        if [ $(( $(now_ms) - start )) -gt 300000 ]; then
+            echo "  not ready after 300s"
+            continue 2
+        fi
+        sleep 0.1
+    done
+    ready=$(( $(now_ms) - start ))
+
+    logs=$(docker-compose logs --no-log-prefix --since "$(( ready / 1000 + 5 ))s" "$service" 2>/dev/null)
+    echo "  ready after ${ready} ms"
+    echo "  $(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' <<< "$logs" | tail -1)"
+    echo "  $(grep -o 'Warm-up finished in [0-9]* ms' <<< "$logs" | tail -1)"
+
+    case $service in
+        order-service)
+            measure_p99 "$service" "http://localhost:$port"
+            ;;
+        api-gateway)
+            if [ -n "$LOAD_BEARER_TOKEN" ]; then
+                measure_p99 "$service" "http://localhost:$port"
+            else
+                echo "  time to stable p99: skipped, set LOAD_BEARER_TOKEN"
+            fi
+            ;;
+    esac
+done
@@ -47,7 +47,7 @@ public class OrderEventListener {
                     .recipient("+1234567890" + event.getCustomerId())
                     .message(String.format("Order #%d confirmed! Total: $%.2f",
                             event.getOrderId(),
-                            event.getTotalAmount()))
+                            event.getTotalAmount().toDecimal()))
                     .status(NotificationLog.NotificationStatus.PENDING)
                     .attemptCount(0)
                     .createdAt(java.time.LocalDateTime.now())
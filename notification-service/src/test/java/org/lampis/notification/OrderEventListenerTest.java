@@ -3,6 +3,7 @@ package org.lampis.notification;
 import org.lampis.common.enums.OrderStatus;
 import org.lampis.common.event.order.OrderCreatedEvent;
 import org.lampis.common.event.order.OrderStatusChangedEvent;
+import org.lampis.common.money.Money;
 import org.lampis.notification.listener.OrderEventListener;
 import org.lampis.notification.model.NotificationLog;
 import org.lampis.notification.service.NotificationService;
@@ -13,7 +14,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -42,7 +42,7 @@ class OrderEventListenerTest {
                 1L,
                 100L,
                 OrderStatus.UNPROCESSED,
-                new BigDecimal("99.99"),
+                Money.ofMinor(9999),
                 LocalDateTime.now(),
                 java.util.Collections.emptyList() // Empty order lines for test
         );
@@ -0,0 +1,18 @@
+package org.lampis.orderquery;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Order Query Service Application
+ * <p>
+ * Serves the order read endpoints of order-service on a non-blocking stack (WebFlux + R2DBC),
+ * reading the same database; order-service keeps all writes.
+ */
+@SpringBootApplication
+public class OrderQueryServiceApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(OrderQueryServiceApplication.class, args);
+    }
+}
@@ -0,0 +1,68 @@
+package org.lampis.orderquery.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.lampis.common.util.BinaryFormats;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * CBOR and Smile representations of every endpoint, selected with the Accept header
+ * ({@value BinaryFormats#APPLICATION_CBOR_VALUE}, {@value BinaryFormats#APPLICATION_SMILE_VALUE});
+ * JSON remains the default
+ */
+@Configuration
+public class BinaryContentConfiguration {
+
+    private static final MimeType SMILE = MimeType.valueOf(BinaryFormats.APPLICATION_SMILE_VALUE);
+
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer(ObjectMapper objectMapper) {
+        ObjectMapper cborMapper = BinaryFormats.cborMapper(objectMapper);
+        ObjectMapper smileMapper = BinaryFormats.smileMapper(objectMapper);
+        // the codecs' mapper-only constructors fall back to the JSON mime types, so the binary ones are passed explicitly
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE));
+            // custom writers are consulted before the default ones and the first producible type answers
+            // Accept: */*, so JSON is registered again ahead of CBOR to stay the default
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new SingleValueCborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    /**
+     * Jackson2CborEncoder rejects every publisher, including the single-value Mono a ResponseEntity body is written from
+     */
+    static class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (!(inputStream instanceof Mono<?> mono)) {
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+            return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.lampis.orderquery.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for the order read API, matching the limits of order-service
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.query")
+public class OrderQueryProperties {
+
+    /**
+     * Maximum page size of list and search requests
+     */
+    @Min(1)
+    private int maxPageSize = 100;
+
+    /**
+     * Maximum order IDs per multi-get request
+     */
+    @Min(1)
+    private int maxLookupIds = 200;
+}
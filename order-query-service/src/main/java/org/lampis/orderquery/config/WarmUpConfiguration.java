@@ -0,0 +1,54 @@
+package org.lampis.orderquery.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.lampis.common.dto.order.OrderETag;
+import org.lampis.common.dto.order.OrderFieldSelection;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.util.BinaryFormats;
+import org.lampis.common.warmup.WarmUpProperties;
+import org.lampis.common.warmup.WarmUpRunner;
+import org.lampis.common.warmup.WarmUpSamples;
+import org.lampis.common.warmup.WarmUpTask;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+/**
+ * Warm-up of the order read path before the service reports ready: field selection, ETags and
+ * response mapping in JSON, CBOR and Smile
+ */
+@Configuration
+public class WarmUpConfiguration {
+
+    @Bean
+    @Validated
+    @ConfigurationProperties(prefix = "warmup")
+    public WarmUpProperties warmUpProperties() {
+        return new WarmUpProperties();
+    }
+
+    @Bean
+    public WarmUpRunner warmUpRunner(WarmUpProperties properties, ObjectMapper objectMapper) {
+        OrderResponse order = WarmUpSamples.order();
+        // copies configured as the codecs' mappers in BinaryContentConfiguration
+        List<ObjectMapper> responseMappers = List.of(objectMapper,
+                BinaryFormats.cborMapper(objectMapper), BinaryFormats.smileMapper(objectMapper));
+
+        return new WarmUpRunner(properties, List.of(
+                new WarmUpTask("order-etag", () -> {
+                    OrderFieldSelection fields = OrderFieldSelection.parse("orderId,status,totalAmount", "lines");
+                    return OrderETag.of(order.getOrderId(), order.getUpdatedAt(), fields, MediaType.APPLICATION_JSON_VALUE);
+                }),
+                new WarmUpTask("order-response", () -> {
+                    int size = 0;
+                    for (ObjectMapper mapper : responseMappers) {
+                        size += mapper.writeValueAsBytes(order).length;
+                    }
+                    return size;
+                })));
+    }
+}
@@ -0,0 +1,157 @@
+package org.lampis.orderquery.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.common.dto.order.OrderETag;
+import org.lampis.common.dto.order.OrderFieldSelection;
+import org.lampis.common.dto.order.OrderLookupResponse;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.dto.order.OrderSearchCriteria;
+import org.lampis.common.dto.order.OrderSearchResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.exception.BusinessException;
+import org.lampis.orderquery.service.OrderQueryService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Non-blocking REST controller for order reads; same paths and parameters as the
+ * read endpoints of order-service's OrderController
+ */
+@RestController
+@RequestMapping("/api/v1/orders")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderQueryController {
+
+    private static final Set<String> SORT_PROPERTIES =
+            Set.of("id", "customerId", "status", "orderDate", "totalAmount", "createdAt", "updatedAt");
+
+    private final OrderQueryService orderQueryService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OrderResponse>> getOrderById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            ServerWebExchange exchange) {
+        log.debug("REST request to get order: {}", id);
+        String accept = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT);
+        boolean conditional = exchange.getRequest().getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH);
+        return Mono.fromCallable(() -> OrderFieldSelection.parse(fields, include))
+                .flatMap(selection -> {
+                    OrderFieldSelection versioned = selection.with(EnumSet.of(OrderFieldSelection.Field.UPDATED_AT));
+                    Mono<ResponseEntity<OrderResponse>> load = orderQueryService.getOrderById(id, versioned)
+                            .map(order -> withETag(id, order, selection, accept));
+                    if (!conditional) {
+                        return load;
+                    }
+                    // Version-only lookup first: an unchanged order is answered without loading it
+                    return orderQueryService.getOrderLastModified(id)
+                            .flatMap(lastModified -> {
+                                if (exchange.checkNotModified(OrderETag.of(id, lastModified, selection, accept))) {
+                                    exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT));
+                                    return Mono.empty();
+                                }
+                                return load;
+                            });
+                });
+    }
+
+    /**
+     * Tag the response with the loaded order's version, then drop updatedAt again unless it was selected
+     */
+    private static ResponseEntity<OrderResponse> withETag(Long id, OrderResponse order, OrderFieldSelection selection,
+                                                          String accept) {
+        String eTag = OrderETag.of(id, order.getUpdatedAt(), selection, accept);
+        if (!selection.includes(OrderFieldSelection.Field.UPDATED_AT)) {
+            order.setUpdatedAt(null);
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(order);
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<OrderLookupResponse>> getOrdersByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        log.debug("REST request to get {} orders by ID", ids.size());
+        return Mono.fromCallable(() -> OrderFieldSelection.parse(fields, include))
+                .flatMap(selection -> orderQueryService.getOrdersByIds(ids, selection))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<OrderResponse>>> getAllOrders(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        log.debug("REST request to get all orders - page: {}, size: {}, customerId: {}, status: {}",
+                page, size, customerId, status);
+
+        if (!SORT_PROPERTIES.contains(sortBy)) {
+            return Mono.error(new BusinessException("INVALID_SORT", "Unknown sort property: " + sortBy));
+        }
+        Sort sort = sortDir.equalsIgnoreCase("ASC")
+                ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+
+        return Mono.fromCallable(() -> OrderFieldSelection.parse(fields, include))
+                .flatMap(selection -> {
+                    Pageable pageable = PageRequest.of(page, size, sort);
+                    return orderQueryService.getOrders(customerId, status, pageable, selection);
+                })
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<OrderSearchResponse>> searchOrders(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime orderDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime orderDateTo,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .customerId(customerId)
+                .statuses(status)
+                .orderDateFrom(orderDateFrom)
+                .orderDateTo(orderDateTo)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .build();
+        log.debug("REST request to search orders: {}", criteria);
+
+        return Mono.fromCallable(() -> OrderFieldSelection.parse(fields, include))
+                .flatMap(selection -> orderQueryService.searchOrders(criteria, cursor, size, selection))
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,40 @@
+package org.lampis.orderquery.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only row of the order_lines table owned by order-service
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("order_lines")
+public class OrderLineRow {
+
+    @Id
+    private Long id;
+
+    @Column("order_id")
+    private Long orderId;
+
+    @Column("product_id")
+    private Long productId;
+
+    @Column("quantity")
+    private Integer quantity;
+
+    @Column("unit_price")
+    private BigDecimal unitPrice;
+
+    @Column("line_total")
+    private BigDecimal lineTotal;
+}
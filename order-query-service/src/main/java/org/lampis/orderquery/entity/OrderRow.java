@@ -0,0 +1,48 @@
+package org.lampis.orderquery.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.enums.OrderStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the orders table owned by order-service
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("orders")
+public class OrderRow {
+
+    @Id
+    private Long id;
+
+    @Column("customer_id")
+    private Long customerId;
+
+    @Column("status")
+    private OrderStatus status;
+
+    @Column("order_date")
+    private LocalDateTime orderDate;
+
+    @Column("total_amount")
+    private BigDecimal totalAmount;
+
+    @Column("deleted")
+    private Boolean deleted;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+}
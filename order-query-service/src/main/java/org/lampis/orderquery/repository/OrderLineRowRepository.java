@@ -0,0 +1,20 @@
+package org.lampis.orderquery.repository;
+
+import org.lampis.orderquery.entity.OrderLineRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * Reactive repository for order lines
+ */
+@Repository
+public interface OrderLineRowRepository extends R2dbcRepository<OrderLineRow, Long> {
+
+    /**
+     * Lines of many orders in one query
+     */
+    Flux<OrderLineRow> findByOrderIdInOrderByIdAsc(Collection<Long> orderIds);
+}
@@ -0,0 +1,42 @@
+package org.lampis.orderquery.repository;
+
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.orderquery.entity.OrderRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reactive repository for non-deleted orders
+ */
+@Repository
+public interface OrderRowRepository extends R2dbcRepository<OrderRow, Long>, OrderRowRepositoryCustom {
+
+    Mono<OrderRow> findByIdAndDeletedFalse(Long id);
+
+    /**
+     * Version of a non-deleted order for conditional reads: its last modification time
+     */
+    @Query("SELECT updated_at FROM orders WHERE id = :id AND deleted = false")
+    Mono<LocalDateTime> findUpdatedAtById(Long id);
+
+    Flux<OrderRow> findByIdInAndDeletedFalse(Collection<Long> ids);
+
+    Flux<OrderRow> findByDeletedFalse(Pageable pageable);
+
+    Mono<Long> countByDeletedFalse();
+
+    Flux<OrderRow> findByCustomerIdAndDeletedFalse(Long customerId, Pageable pageable);
+
+    Mono<Long> countByCustomerIdAndDeletedFalse(Long customerId);
+
+    Flux<OrderRow> findByStatusAndDeletedFalse(OrderStatus status, Pageable pageable);
+
+    Mono<Long> countByStatusAndDeletedFalse(OrderStatus status);
+}
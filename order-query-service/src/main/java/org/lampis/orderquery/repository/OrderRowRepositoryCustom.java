@@ -0,0 +1,18 @@
+package org.lampis.orderquery.repository;
+
+import org.lampis.common.dto.order.OrderSearchCriteria;
+import org.lampis.common.dto.order.OrderSearchKeyset;
+import org.lampis.orderquery.entity.OrderRow;
+import reactor.core.publisher.Flux;
+
+/**
+ * Dynamically built order queries
+ */
+public interface OrderRowRepositoryCustom {
+
+    /**
+     * Non-deleted orders matching every filter present in the criteria, newest first,
+     * starting after the keyset when one is given
+     */
+    Flux<OrderRow> search(OrderSearchCriteria criteria, OrderSearchKeyset after, int limit);
+}
@@ -0,0 +1,54 @@
+package org.lampis.orderquery.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.lampis.common.dto.order.OrderSearchCriteria;
+import org.lampis.common.dto.order.OrderSearchKeyset;
+import org.lampis.orderquery.entity.OrderRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+
+/**
+ * R2dbcEntityTemplate implementation of OrderRowRepositoryCustom, mirroring OrderSpecifications
+ * and the keyset scrolling of order-service
+ */
+@RequiredArgsConstructor
+public class OrderRowRepositoryCustomImpl implements OrderRowRepositoryCustom {
+
+    private static final Sort SEARCH_SORT = Sort.by(Sort.Direction.DESC, "orderDate", "id");
+
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Flux<OrderRow> search(OrderSearchCriteria criteria, OrderSearchKeyset after, int limit) {
+        Criteria where = Criteria.where("deleted").isFalse();
+
+        if (criteria.getCustomerId() != null) {
+            where = where.and("customerId").is(criteria.getCustomerId());
+        }
+        if (criteria.getStatuses() != null && !criteria.getStatuses().isEmpty()) {
+            where = where.and("status").in(criteria.getStatuses());
+        }
+        if (criteria.getOrderDateFrom() != null) {
+            where = where.and("orderDate").greaterThanOrEquals(criteria.getOrderDateFrom());
+        }
+        if (criteria.getOrderDateTo() != null) {
+            where = where.and("orderDate").lessThan(criteria.getOrderDateTo());
+        }
+        if (criteria.getMinAmount() != null) {
+            where = where.and("totalAmount").greaterThanOrEquals(criteria.getMinAmount());
+        }
+        if (criteria.getMaxAmount() != null) {
+            where = where.and("totalAmount").lessThanOrEquals(criteria.getMaxAmount());
+        }
+        if (after != null) {
+            // (orderDate, id) < (after.orderDate, after.orderId)
+            where = where.and(Criteria.where("orderDate").lessThan(after.getOrderDate())
+                    .or(Criteria.where("orderDate").is(after.getOrderDate()).and("id").lessThan(after.getOrderId())));
+        }
+
+        return template.select(Query.query(where).sort(SEARCH_SORT).limit(limit), OrderRow.class);
+    }
+}
@@ -0,0 +1,47 @@
+package org.lampis.orderquery.service;
+
+import org.lampis.common.dto.order.OrderFieldSelection;
+import org.lampis.common.dto.order.OrderLookupResponse;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.dto.order.OrderSearchCriteria;
+import org.lampis.common.dto.order.OrderSearchResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking order reads, with the semantics of the matching OrderService methods
+ */
+public interface OrderQueryService {
+
+    /**
+     * Get an order by ID
+     */
+    Mono<OrderResponse> getOrderById(Long orderId, OrderFieldSelection fields);
+
+    /**
+     * Get the last modification time of an order, its version for conditional reads
+     */
+    Mono<LocalDateTime> getOrderLastModified(Long orderId);
+
+    /**
+     * Get several orders in one request, in request order with misses reported
+     */
+    Mono<OrderLookupResponse> getOrdersByIds(List<Long> orderIds, OrderFieldSelection fields);
+
+    /**
+     * Get a page of orders, filtered by customer or else by status when given
+     */
+    Mono<Page<OrderResponse>> getOrders(Long customerId, OrderStatus status, Pageable pageable,
+                                        OrderFieldSelection fields);
+
+    /**
+     * Search orders newest first with keyset pagination
+     */
+    Mono<OrderSearchResponse> searchOrders(OrderSearchCriteria criteria, String cursor, int size,
+                                           OrderFieldSelection fields);
+}
@@ -0,0 +1,218 @@
+package org.lampis.orderquery.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.common.dto.order.OrderFieldSelection;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.OrderLookupResponse;
+import org.lampis.common.dto.order.OrderLookupResult;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.dto.order.OrderSearchCriteria;
+import org.lampis.common.dto.order.OrderSearchKeyset;
+import org.lampis.common.dto.order.OrderSearchResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.exception.BusinessException;
+import org.lampis.common.exception.ResourceNotFoundException;
+import org.lampis.common.money.Money;
+import org.lampis.orderquery.config.OrderQueryProperties;
+import org.lampis.orderquery.entity.OrderLineRow;
+import org.lampis.orderquery.entity.OrderRow;
+import org.lampis.orderquery.repository.OrderLineRowRepository;
+import org.lampis.orderquery.repository.OrderRowRepository;
+import org.lampis.orderquery.service.OrderQueryService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of OrderQueryService
+ * <p>
+ * Like order-service, line-less selections never touch order_lines, and the lines of a
+ * page or lookup are read with a single query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderQueryServiceImpl implements OrderQueryService {
+
+    private final OrderRowRepository orderRepository;
+    private final OrderLineRowRepository orderLineRepository;
+    private final OrderQueryProperties properties;
+
+    @Override
+    public Mono<OrderResponse> getOrderById(Long orderId, OrderFieldSelection fields) {
+        log.debug("Fetching order with ID: {}", orderId);
+        return orderRepository.findByIdAndDeletedFalse(orderId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order", "id", orderId)))
+                .flatMap(order -> withLines(List.of(order), fields))
+                .map(responses -> responses.get(0));
+    }
+
+    @Override
+    public Mono<LocalDateTime> getOrderLastModified(Long orderId) {
+        return orderRepository.findUpdatedAtById(orderId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order", "id", orderId)));
+    }
+
+    @Override
+    public Mono<OrderLookupResponse> getOrdersByIds(List<Long> orderIds, OrderFieldSelection fields) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        log.debug("Fetching {} orders by ID", distinctIds.size());
+        if (distinctIds.size() > properties.getMaxLookupIds()) {
+            return Mono.error(new BusinessException("LOOKUP_LIMIT_EXCEEDED",
+                    String.format("Lookup accepts at most %d order IDs", properties.getMaxLookupIds())));
+        }
+
+        return orderRepository.findByIdInAndDeletedFalse(distinctIds)
+                .collectList()
+                .flatMap(orders -> withLines(orders, fields).map(responses -> {
+                    // keyed by row, since the selection may leave orderId out of the responses
+                    Map<Long, OrderResponse> found = new HashMap<>();
+                    for (int i = 0; i < orders.size(); i++) {
+                        found.put(orders.get(i).getId(), responses.get(i));
+                    }
+                    List<OrderLookupResult> results = new ArrayList<>(distinctIds.size());
+                    for (Long orderId : distinctIds) {
+                        OrderResponse order = found.get(orderId);
+                        results.add(OrderLookupResult.builder()
+                                .orderId(orderId)
+                                .found(order != null)
+                                .order(order)
+                                .build());
+                    }
+                    return OrderLookupResponse.builder()
+                            .requested(distinctIds.size())
+                            .found(found.size())
+                            .results(results)
+                            .build();
+                }));
+    }
+
+    @Override
+    public Mono<Page<OrderResponse>> getOrders(Long customerId, OrderStatus status, Pageable pageable,
+                                               OrderFieldSelection fields) {
+        log.debug("Fetching orders - page: {}, size: {}, customerId: {}, status: {}",
+                pageable.getPageNumber(), pageable.getPageSize(), customerId, status);
+        if (pageable.getPageSize() > properties.getMaxPageSize()) {
+            return Mono.error(new BusinessException("INVALID_PAGE_SIZE",
+                    String.format("Page size must be between 1 and %d", properties.getMaxPageSize())));
+        }
+
+        Flux<OrderRow> content;
+        Mono<Long> total;
+        if (customerId != null) {
+            content = orderRepository.findByCustomerIdAndDeletedFalse(customerId, pageable);
+            total = orderRepository.countByCustomerIdAndDeletedFalse(customerId);
+        } else if (status != null) {
+            content = orderRepository.findByStatusAndDeletedFalse(status, pageable);
+            total = orderRepository.countByStatusAndDeletedFalse(status);
+        } else {
+            content = orderRepository.findByDeletedFalse(pageable);
+            total = orderRepository.countByDeletedFalse();
+        }
+
+        return Mono.zip(content.collectList().flatMap(orders -> withLines(orders, fields)), total)
+                .map(page -> new PageImpl<>(page.getT1(), pageable, page.getT2()));
+    }
+
+    @Override
+    public Mono<OrderSearchResponse> searchOrders(OrderSearchCriteria criteria, String cursor, int size,
+                                                  OrderFieldSelection fields) {
+        log.debug("Searching orders with {}, size: {}", criteria, size);
+        if (size < 1 || size > properties.getMaxPageSize()) {
+            return Mono.error(new BusinessException("INVALID_PAGE_SIZE",
+                    String.format("Page size must be between 1 and %d", properties.getMaxPageSize())));
+        }
+        OrderSearchKeyset after;
+        try {
+            after = OrderSearchKeyset.decode(cursor);
+        } catch (BusinessException e) {
+            return Mono.error(e);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        return orderRepository.search(criteria, after, size + 1)
+                .collectList()
+                .flatMap(rows -> {
+                    boolean hasNext = rows.size() > size;
+                    List<OrderRow> orders = hasNext ? rows.subList(0, size) : rows;
+                    OrderRow last = hasNext ? orders.get(orders.size() - 1) : null;
+                    return withLines(orders, fields).map(responses -> OrderSearchResponse.builder()
+                            .orders(responses)
+                            .size(responses.size())
+                            .hasNext(hasNext)
+                            .nextCursor(last != null
+                                    ? new OrderSearchKeyset(last.getOrderDate(), last.getId()).encode()
+                                    : null)
+                            .build());
+                });
+    }
+
+    /**
+     * Map orders in their given order, loading the lines of all of them with one query when selected
+     */
+    private Mono<List<OrderResponse>> withLines(List<OrderRow> orders, OrderFieldSelection fields) {
+        if (!fields.includesLines() || orders.isEmpty()) {
+            return Mono.just(orders.stream().map(order -> mapToResponse(order, null, fields)).toList());
+        }
+        List<Long> orderIds = orders.stream().map(OrderRow::getId).toList();
+        return findLinesByOrderId(orderIds).map(linesByOrderId -> orders.stream()
+                .map(order -> mapToResponse(order, linesByOrderId.getOrDefault(order.getId(), List.of()), fields))
+                .toList());
+    }
+
+    private Mono<Map<Long, List<OrderLineRow>>> findLinesByOrderId(Collection<Long> orderIds) {
+        return orderLineRepository.findByOrderIdInOrderByIdAsc(orderIds)
+                .collect(Collectors.groupingBy(OrderLineRow::getOrderId));
+    }
+
+    private OrderResponse mapToResponse(OrderRow order, List<OrderLineRow> orderLines, OrderFieldSelection fields) {
+        OrderResponse.OrderResponseBuilder response = OrderResponse.builder();
+        if (fields.includes(OrderFieldSelection.Field.ORDER_ID)) {
+            response.orderId(order.getId());
+        }
+        if (fields.includes(OrderFieldSelection.Field.CUSTOMER_ID)) {
+            response.customerId(order.getCustomerId());
+        }
+        if (fields.includes(OrderFieldSelection.Field.STATUS)) {
+            response.status(order.getStatus());
+        }
+        if (fields.includes(OrderFieldSelection.Field.ORDER_DATE)) {
+            response.orderDate(order.getOrderDate());
+        }
+        if (fields.includes(OrderFieldSelection.Field.TOTAL_AMOUNT)) {
+            response.totalAmount(Money.of(order.getTotalAmount()));
+        }
+        if (fields.includesLines()) {
+            List<OrderLineRow> lines = orderLines != null ? orderLines : List.of();
+            response.orderLines(lines.stream()
+                    .map(line -> OrderLineDTO.builder()
+                            .id(line.getId())
+                            .productId(line.getProductId())
+                            .quantity(line.getQuantity())
+                            .unitPrice(Money.of(line.getUnitPrice()))
+                            .lineTotal(Money.of(line.getLineTotal()))
+                            .build())
+                    .collect(Collectors.toList()));
+        }
+        if (fields.includes(OrderFieldSelection.Field.CREATED_AT)) {
+            response.createdAt(order.getCreatedAt());
+        }
+        if (fields.includes(OrderFieldSelection.Field.UPDATED_AT)) {
+            response.updatedAt(order.getUpdatedAt());
+        }
+        return response.build();
+    }
+}
@@ -0,0 +1,247 @@
+package org.lampis.orderquery.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lampis.common.dto.error.ErrorResponse;
+import org.lampis.common.dto.order.OrderLookupResponse;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.dto.order.OrderSearchResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.money.Money;
+import org.lampis.common.util.BinaryFormats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests of the reactive read API against an embedded H2 database over R2DBC
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///orderdb;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/schema.sql"
+})
+class OrderQueryControllerIntegrationTest {
+
+    private static final LocalDateTime JAN_1 = LocalDateTime.of(2026, 1, 1, 10, 0);
+    private static final LocalDateTime JAN_2 = JAN_1.plusDays(1);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        execute("DELETE FROM order_lines");
+        execute("DELETE FROM orders");
+        insertOrder(1, 10, OrderStatus.PROCESSING, JAN_1, "59.98", false);
+        insertOrder(2, 10, OrderStatus.UNPROCESSED, JAN_2, "10.00", false);
+        insertOrder(3, 20, OrderStatus.UNPROCESSED, JAN_2.plusDays(1), "5.00", false);
+        insertOrder(4, 10, OrderStatus.UNPROCESSED, JAN_2.plusDays(2), "7.00", true);
+        insertOrder(5, 10, OrderStatus.PROCESSED, JAN_2, "20.00", false);
+        insertLine(1, 1, 100, 2, "29.99", "59.98");
+        insertLine(2, 2, 101, 1, "10.00", "10.00");
+    }
+
+    @Test
+    void getOrderById_ReturnsOrderWithLines() {
+        OrderResponse order = webTestClient.get().uri("/api/v1/orders/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OrderResponse.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(order);
+        assertEquals(1L, order.getOrderId());
+        assertEquals(OrderStatus.PROCESSING, order.getStatus());
+        assertEquals(Money.ofMinor(5998), order.getTotalAmount());
+        assertEquals(1, order.getOrderLines().size());
+        assertEquals(100L, order.getOrderLines().get(0).getProductId());
+    }
+
+    @Test
+    void getOrderById_BinaryAcceptHeader_ReturnsCborOrSmile() throws Exception {
+        Map<String, ObjectMapper> formats = Map.of(
+                BinaryFormats.APPLICATION_CBOR_VALUE, BinaryFormats.cborMapper(objectMapper),
+                BinaryFormats.APPLICATION_SMILE_VALUE, BinaryFormats.smileMapper(objectMapper));
+
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            byte[] body = webTestClient.get().uri("/api/v1/orders/1")
+                    .accept(MediaType.parseMediaType(format.getKey()))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(format.getKey())
+                    .expectBody(byte[].class)
+                    .returnResult().getResponseBody();
+
+            OrderResponse order = format.getValue().readValue(body, OrderResponse.class);
+            assertEquals(1L, order.getOrderId());
+            assertEquals(JAN_1, order.getOrderDate());
+            assertEquals(Money.ofMinor(5998), order.getTotalAmount());
+            assertEquals(1, order.getOrderLines().size());
+        }
+    }
+
+    @Test
+    void getOrderById_IfNoneMatch_ReturnsNotModifiedUntilOrderChanges() {
+        String eTag = webTestClient.get().uri("/api/v1/orders/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .returnResult(OrderResponse.class).getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        webTestClient.get().uri("/api/v1/orders/1").ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .expectBody().isEmpty();
+
+        // another fieldset is another representation
+        webTestClient.get().uri("/api/v1/orders/1?fields=status").ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk();
+
+        execute("UPDATE orders SET status = 'PROCESSED', updated_at = TIMESTAMP '2026-01-05 10:00:00' WHERE id = 1");
+        webTestClient.get().uri("/api/v1/orders/1").ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, value -> assertNotEquals(eTag, value))
+                .expectBody(OrderResponse.class)
+                .value(order -> assertEquals(OrderStatus.PROCESSED, order.getStatus()));
+    }
+
+    @Test
+    void getOrderById_DeletedOrMissing_ReturnsNotFound() {
+        for (String id : List.of("4", "99")) {
+            ErrorResponse error = webTestClient.get().uri("/api/v1/orders/" + id)
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectBody(ErrorResponse.class)
+                    .returnResult().getResponseBody();
+            assertNotNull(error);
+            assertEquals("/api/v1/orders/" + id, error.getPath());
+        }
+    }
+
+    @Test
+    void getOrdersByIds_SparseFields_ReportsMissesInRequestOrder() {
+        OrderLookupResponse response = webTestClient.get().uri("/api/v1/orders?ids=3,99,1&fields=status")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OrderLookupResponse.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(response);
+        assertEquals(3, response.getRequested());
+        assertEquals(2, response.getFound());
+        assertEquals(List.of(3L, 99L, 1L), response.getResults().stream().map(r -> r.getOrderId()).toList());
+        assertFalse(response.getResults().get(1).isFound());
+        OrderResponse first = response.getResults().get(0).getOrder();
+        assertEquals(OrderStatus.UNPROCESSED, first.getStatus());
+        assertNull(first.getOrderId());
+        assertNull(first.getOrderLines());
+    }
+
+    @Test
+    void getAllOrders_ByCustomer_ReturnsPage() {
+        webTestClient.get().uri("/api/v1/orders?customerId=10&size=2&sortBy=totalAmount&sortDir=ASC")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(3)
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].orderId").isEqualTo(2)
+                .jsonPath("$.content[1].orderId").isEqualTo(5);
+    }
+
+    @Test
+    void getAllOrders_UnknownSortProperty_ReturnsBadRequest() {
+        webTestClient.get().uri("/api/v1/orders?sortBy=deleted")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void searchOrders_FollowsCursorAcrossPages() {
+        OrderSearchResponse first = search("/api/v1/orders/search?customerId=10&size=2");
+        assertEquals(List.of(5L, 2L), orderIds(first));
+        assertTrue(first.isHasNext());
+
+        OrderSearchResponse second = search("/api/v1/orders/search?customerId=10&size=2&cursor=" + first.getNextCursor());
+        assertEquals(List.of(1L), orderIds(second));
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void searchOrders_InvalidCursor_ReturnsBadRequest() {
+        webTestClient.get().uri("/api/v1/orders/search?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private OrderSearchResponse search(String uri) {
+        OrderSearchResponse response = webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(OrderSearchResponse.class)
+                .returnResult().getResponseBody();
+        assertNotNull(response);
+        return response;
+    }
+
+    private List<Long> orderIds(OrderSearchResponse response) {
+        return response.getOrders().stream().map(OrderResponse::getOrderId).toList();
+    }
+
+    private void insertOrder(long id, long customerId, OrderStatus status, LocalDateTime orderDate,
+                             String totalAmount, boolean deleted) {
+        databaseClient.sql("INSERT INTO orders (id, customer_id, status, order_date, total_amount, deleted, created_at, updated_at) "
+                        + "VALUES (:id, :customerId, :status, :orderDate, :totalAmount, :deleted, :orderDate, :orderDate)")
+                .bind("id", id)
+                .bind("customerId", customerId)
+                .bind("status", status.name())
+                .bind("orderDate", orderDate)
+                .bind("totalAmount", new BigDecimal(totalAmount))
+                .bind("deleted", deleted)
+                .then()
+                .block();
+    }
+
+    private void insertLine(long id, long orderId, long productId, int quantity, String unitPrice, String lineTotal) {
+        databaseClient.sql("INSERT INTO order_lines (id, order_id, product_id, quantity, unit_price, line_total) "
+                        + "VALUES (:id, :orderId, :productId, :quantity, :unitPrice, :lineTotal)")
+                .bind("id", id)
+                .bind("orderId", orderId)
+                .bind("productId", productId)
+                .bind("quantity", quantity)
+                .bind("unitPrice", new BigDecimal(unitPrice))
+                .bind("lineTotal", new BigDecimal(lineTotal))
+                .then()
+                .block();
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
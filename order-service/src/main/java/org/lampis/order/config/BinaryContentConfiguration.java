@@ -0,0 +1,27 @@
+package org.lampis.order.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.lampis.common.util.BinaryFormats;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR and Smile representations of every endpoint, selected with the Accept header
+ * ({@value BinaryFormats#APPLICATION_CBOR_VALUE}, {@value BinaryFormats#APPLICATION_SMILE_VALUE});
+ * JSON remains the default
+ */
+@Configuration
+public class BinaryContentConfiguration {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(BinaryFormats.cborMapper(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(BinaryFormats.smileMapper(objectMapper));
+    }
+}
@@ -0,0 +1,36 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for bulk order operations
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.bulk")
+public class BulkOperationProperties {
+
+    /**
+     * Number of orders updated per set-wise statement
+     * Bounds IN-list size and the rows locked per round trip; each chunk commits in its own transaction
+     */
+    @Min(1)
+    private int chunkSize = 500;
+
+    /**
+     * Maximum number of orders a single bulk request may select
+     */
+    @Min(1)
+    private int maxOrders = 10000;
+
+    /**
+     * Maximum number of order IDs accepted by a multi-get lookup
+     */
+    @Min(1)
+    private int maxLookupIds = 200;
+}
@@ -0,0 +1,50 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for connection bulkheads
+ * The permits apply to each pool (primary, replica, each shard) separately; keep their sum
+ * at or below the pool's maximum-pool-size so that every workload class always has
+ * connections of its own
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.datasource.bulkhead")
+public class ConnectionBulkheadProperties {
+
+    /**
+     * Enable/disable bulkheads
+     * When disabled every workload draws from the pool without limits
+     */
+    private boolean enabled = true;
+
+    /**
+     * Concurrent connections for interactive writes (create, update, cancel)
+     */
+    @Min(1)
+    private int writePermits = 5;
+
+    /**
+     * Concurrent connections for interactive reads (readOnly transactions)
+     */
+    @Min(1)
+    private int readPermits = 3;
+
+    /**
+     * Concurrent connections for background work (scheduler, exports, archival)
+     */
+    @Min(1)
+    private int backgroundPermits = 2;
+
+    /**
+     * How long a checkout waits for a permit before failing, in milliseconds
+     */
+    @Min(0)
+    private long acquireTimeoutMs = 100;
+}
@@ -0,0 +1,75 @@
+package org.lampis.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.lampis.order.datasource.ConnectionBulkheads;
+import org.lampis.order.datasource.ConnectionBulkheadMetrics;
+import org.lampis.order.datasource.ReadReplicaRoutingDataSource;
+import org.lampis.order.datasource.ShardRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * DataSource configuration for order service
+ * JPA uses: lazy proxy -> replica or shard routing (when enabled) -> bulkheads of each pool -> Hikari pools
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+    /**
+     * Primary (read-write) pool, configured from spring.datasource.*
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("order-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ConnectionBulkheads connectionBulkheads(ConnectionBulkheadProperties bulkheadProperties) {
+        return new ConnectionBulkheads(bulkheadProperties);
+    }
+
+    @Bean
+    public ConnectionBulkheadMetrics connectionBulkheadMetrics(ConnectionBulkheads connectionBulkheads) {
+        return new ConnectionBulkheadMetrics(connectionBulkheads);
+    }
+
+    /**
+     * DataSource used by JPA: the lazy proxy defers fetching a connection until
+     * the first statement, by which point the transaction's read-only flag is set
+     * and the bulkhead and the replica or shard router can classify the work
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 ObjectProvider<ReadReplicaRoutingDataSource> replicaRoutingDataSource,
+                                 ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource,
+                                 ConnectionBulkheads connectionBulkheads) {
+        DataSource target;
+        ReadReplicaRoutingDataSource replicaRouting = replicaRoutingDataSource.getIfAvailable();
+        ShardRoutingDataSource shardRouting = shardRoutingDataSource.getIfAvailable();
+        if (replicaRouting != null && shardRouting != null) {
+            throw new IllegalStateException("Read replica routing is not supported together with sharding");
+        }
+        if (replicaRouting != null) {
+            target = replicaRouting;
+        } else if (shardRouting != null) {
+            target = shardRouting;
+        } else {
+            target = connectionBulkheads.guard(primaryDataSource);
+        }
+        return new LazyConnectionDataSourceProxy(target);
+    }
+}
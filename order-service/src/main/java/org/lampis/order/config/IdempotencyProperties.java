@@ -0,0 +1,51 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for Idempotency-Key handling of order creation
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a key and its response are kept; replays after that create a new order
+     */
+    @NotNull
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Completed keys cached per instance, least recently used evicted first
+     */
+    @Min(0)
+    private int cacheSize = 10000;
+
+    /**
+     * Age after which the claim of a request that never finished, e.g. on a crashed instance, is taken over
+     * Keep it above the longest order creation
+     */
+    @NotNull
+    private Duration lease = Duration.ofSeconds(30);
+
+    /**
+     * How long a duplicate waits for the request holding the key before giving up with 409
+     */
+    @NotNull
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Interval in milliseconds between purges of expired keys, read by IdempotencyKeyScheduler
+     */
+    @Min(1000)
+    private long purgeInterval = 600000;
+}
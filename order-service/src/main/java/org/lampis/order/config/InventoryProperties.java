@@ -0,0 +1,34 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for taking and returning inventory stock
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.inventory")
+public class InventoryProperties {
+
+    /**
+     * How createOrder, updateOrder and deleteOrder change stock; large orders always use CONDITIONAL_UPDATE
+     */
+    @NotNull
+    private Reservation reservation = Reservation.ROW_LOCK;
+
+    public enum Reservation {
+        /**
+         * Lock each inventory row (SELECT ... FOR UPDATE), check the stock and write it back
+         */
+        ROW_LOCK,
+        /**
+         * One conditional update per product that checks and changes the stock, with no read
+         */
+        CONDITIONAL_UPDATE
+    }
+}
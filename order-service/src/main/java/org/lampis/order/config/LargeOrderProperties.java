@@ -0,0 +1,35 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for orders with many lines
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.large-orders")
+public class LargeOrderProperties {
+
+    /**
+     * Orders with more lines are created through the chunked path and answered with a summary
+     */
+    @Min(1)
+    private int lineThreshold = 500;
+
+    /**
+     * Products reserved and lines inserted per JDBC batch
+     */
+    @Min(1)
+    private int chunkSize = 1000;
+
+    /**
+     * Maximum number of lines a single order may have
+     */
+    @Min(1)
+    private int maxLines = 20000;
+}
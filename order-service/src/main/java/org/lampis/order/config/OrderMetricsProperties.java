@@ -0,0 +1,30 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for order service metrics
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.metrics")
+public class OrderMetricsProperties {
+
+    /**
+     * Distinct product IDs that get their own tag on per-product meters
+     * Further products share the "other" tag, keeping the series count bounded
+     */
+    @Min(0)
+    private int maxProductTags = 100;
+
+    /**
+     * Products tracked by the inventory lock contention sketch (served at /actuator/inventorylocks)
+     */
+    @Min(1)
+    private int lockContentionTopK = 50;
+}
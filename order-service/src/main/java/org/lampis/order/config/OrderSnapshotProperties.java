@@ -0,0 +1,70 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the columnar order snapshots read by offline analytics
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.snapshot")
+public class OrderSnapshotProperties {
+
+    /**
+     * Whether OrderSnapshotScheduler writes snapshots; checked when the job runs, so it also works in AOT builds
+     */
+    private boolean enabled = false;
+
+    /**
+     * Local directory the snapshot directories are written to
+     */
+    @NotBlank
+    private String directory = "snapshots";
+
+    /**
+     * Rows per Arrow record batch; the customer dictionary is rebuilt for every batch
+     */
+    @Min(1)
+    private int batchSize = 65536;
+
+    /**
+     * Rows the JDBC cursor fetches per round trip
+     */
+    @Min(1)
+    private int fetchSize = 5000;
+
+    /**
+     * Cron expression of the full snapshot, read by OrderSnapshotScheduler
+     */
+    @NotBlank
+    private String fullCron = "0 0 2 * * *";
+
+    /**
+     * Interval in milliseconds between incremental snapshots, read by OrderSnapshotScheduler
+     */
+    @Min(1000)
+    private long incrementalInterval = 3600000;
+
+    /**
+     * How far behind now a snapshot's upper updated_at bound is kept, so transactions still running
+     * when it is taken cannot later commit rows below it
+     * Keep it above the longest order transaction
+     */
+    @NotNull
+    private Duration settleTime = Duration.ofMinutes(1);
+
+    /**
+     * Full snapshots kept; older snapshots, full and incremental, are deleted after a full snapshot
+     */
+    @Min(1)
+    private int retainFull = 7;
+}
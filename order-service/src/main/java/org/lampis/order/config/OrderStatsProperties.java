@@ -0,0 +1,25 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for order statistics
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.stats")
+public class OrderStatsProperties {
+
+    /**
+     * Number of counter rows per status
+     * Each transaction adds its deltas to one random stripe, so more stripes mean less row lock contention
+     * Reads always sum every stored stripe, so the value can be changed between restarts
+     */
+    @Min(1)
+    private int counterStripes = 8;
+}
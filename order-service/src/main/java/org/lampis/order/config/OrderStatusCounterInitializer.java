@@ -0,0 +1,35 @@
+package org.lampis.order.config;
+
+import lombok.RequiredArgsConstructor;
+import org.lampis.order.datasource.WorkloadContext;
+import org.lampis.order.service.OrderStatusCounterService;
+import org.lampis.order.sharding.ShardRouter;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes sure every status has its counter stripes on every shard
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusCounterInitializer implements ApplicationRunner {
+
+    private final OrderStatusCounterService counterService;
+    private final ShardRouter shardRouter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        shardRouter.forEachShard(shard -> WorkloadContext.runAsBackground(this::initializeCounters));
+    }
+
+    private void initializeCounters() {
+        try {
+            counterService.initializeCounters();
+        } catch (DataIntegrityViolationException e) {
+            // another instance starting at the same time inserted rows first; add the ones it did not
+            counterService.initializeCounters();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the order status event streams (SSE)
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.stream")
+public class OrderStreamProperties {
+
+    /**
+     * Open streams per instance; further subscriptions are refused with 503
+     */
+    @Min(1)
+    private int maxSubscribers = 10000;
+
+    /**
+     * Events buffered per subscriber; a subscriber whose buffer is full is disconnected
+     */
+    @Min(1)
+    private int bufferSize = 16;
+
+    /**
+     * Lifetime of a stream, after which the client reconnects
+     */
+    @NotNull
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Interval of the keep-alive comments, which also detect disconnected clients
+     */
+    @NotNull
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
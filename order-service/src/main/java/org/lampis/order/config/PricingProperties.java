@@ -0,0 +1,39 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory product price catalog
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.pricing")
+public class PricingProperties {
+
+    /**
+     * Interval in milliseconds between incremental catalog refreshes, read by PriceCatalogScheduler
+     */
+    @Min(100)
+    private long refreshInterval = 5000;
+
+    /**
+     * Versions below the catalog's version that every incremental refresh reads again,
+     * to pick up changes committed out of version order
+     */
+    @Min(0)
+    private long versionLookback = 1000;
+
+    /**
+     * Interval between full catalog reloads, which pick up changes committed out of order beyond the lookback
+     */
+    @NotNull
+    private Duration fullReloadInterval = Duration.ofMinutes(10);
+}
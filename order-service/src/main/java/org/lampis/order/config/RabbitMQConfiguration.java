@@ -81,6 +81,15 @@ public class RabbitMQConfiguration {
                 .build();
     }
 
+    /**
+     * Status changes for the SSE streams of this instance
+     * Every instance declares its own exclusive, auto-deleted queue, so each one sees every change
+     */
+    @Bean
+    public AnonymousQueue orderStatusStreamQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("order.status.stream."));
+    }
+
     /**
      * Dead letter queue
      */
@@ -121,6 +130,13 @@ public class RabbitMQConfiguration {
                 .with(RabbitMQConfig.ORDER_STATUS_CHANGED_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding orderStatusStreamBinding() {
+        return BindingBuilder.bind(orderStatusStreamQueue())
+                .to(orderExchange())
+                .with(RabbitMQConfig.ORDER_STATUS_CHANGED_ROUTING_KEY);
+    }
+
     @Bean
     public Binding orderCancelledBinding() {
         return BindingBuilder.bind(orderCancelledQueue())
@@ -0,0 +1,79 @@
+package org.lampis.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.lampis.order.datasource.ConnectionBulkheads;
+import org.lampis.order.datasource.ReadReplicaRoutingDataSource;
+import org.lampis.order.datasource.ReadYourWritesFilter;
+import org.lampis.order.datasource.ReadYourWritesTracker;
+import org.lampis.order.datasource.ReplicaLagMonitor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary/replica datasource routing for order service
+ * Active only when order.datasource.replica.enabled=true, otherwise all
+ * transactions use the primary pool
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "order.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    /**
+     * Replica (read-only) pool, configured from order.datasource.replica.*
+     */
+    @Bean
+    @ConfigurationProperties("order.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaRoutingProperties replicaProperties,
+                                              DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaProperties.getUrl())
+                .username(StringUtils.hasText(replicaProperties.getUsername())
+                        ? replicaProperties.getUsername() : dataSourceProperties.determineUsername())
+                .password(StringUtils.hasText(replicaProperties.getPassword())
+                        ? replicaProperties.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        dataSource.setPoolName("order-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               ReplicaRoutingProperties replicaProperties) {
+        return new ReplicaLagMonitor(replicaDataSource, replicaProperties);
+    }
+
+    /**
+     * Sends read-only transactions to the replica while it is available
+     * The primary and the replica each have bulkheads of their own
+     */
+    @Bean
+    public ReadReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            ConnectionBulkheads connectionBulkheads) {
+        return new ReadReplicaRoutingDataSource(connectionBulkheads.guard(primaryDataSource),
+                connectionBulkheads.guard(replicaDataSource), replicaLagMonitor::isAvailable);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaRoutingProperties replicaProperties) {
+        return new ReadYourWritesTracker(replicaProperties);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        return new ReadYourWritesFilter(readYourWritesTracker);
+    }
+}
@@ -0,0 +1,59 @@
+package org.lampis.order.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for routing read-only transactions to a replica
+ * Pool settings for the replica live under order.datasource.replica.hikari
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.datasource.replica")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Enable/disable replica routing
+     * When disabled all transactions use the primary datasource
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URL of the replica
+     */
+    private String url;
+
+    /**
+     * Replica credentials (default to the primary credentials when blank)
+     */
+    private String username;
+    private String password;
+
+    /**
+     * Maximum replication lag before reads fall back to the primary
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the replica lag is sampled, in milliseconds
+     */
+    @Min(100)
+    private long lagCheckIntervalMs = 1000;
+
+    /**
+     * How long a client's reads stay on the primary after it performed a write
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    /**
+     * Upper bound on clients tracked for read-your-writes stickiness
+     */
+    @Min(1)
+    private int maxStickyClients = 100000;
+}
@@ -0,0 +1,75 @@
+package org.lampis.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.lampis.order.datasource.ConnectionBulkheads;
+import org.lampis.order.datasource.ShardRoutingDataSource;
+import org.lampis.order.service.OrderService;
+import org.lampis.order.sharding.ShardRouter;
+import org.lampis.order.sharding.ShardedOrderService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharding of orders by customer across several databases
+ * Active only when order.sharding.enabled=true
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "order.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    /**
+     * One pool per shard, each with bulkheads of its own, behind a datasource routing on the selected shard
+     */
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties shardingProperties,
+                                                         DataSourceProperties dataSourceProperties,
+                                                         ObjectProvider<MeterRegistry> meterRegistry,
+                                                         ConnectionBulkheads connectionBulkheads) {
+        if (!shardingProperties.isPerShardInventory()) {
+            throw new IllegalStateException("Every shard keeps its own inventory, so sharding splits each product's "
+                    + "stock across the shards; set order.sharding.per-shard-inventory=true only when each shard's "
+                    + "inventory holds the stock allocated to it");
+        }
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(shard.getUrl())
+                    .username(StringUtils.hasText(shard.getUsername())
+                            ? shard.getUsername() : dataSourceProperties.determineUsername())
+                    .password(StringUtils.hasText(shard.getPassword())
+                            ? shard.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            dataSource.setPoolName("order-shard-" + shards.size());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            // shard pools are not beans, so Boot's Hikari metrics binding does not see them
+            meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards, connectionBulkheads::guard);
+    }
+
+    /**
+     * Shard-aware OrderService used by controllers and the scheduler
+     */
+    @Bean
+    @Primary
+    public OrderService shardedOrderService(@Qualifier("orderServiceImpl") OrderService orderService,
+                                            ShardRouter shardRouter,
+                                            ShardingProperties shardingProperties,
+                                            BulkOperationProperties bulkProperties) {
+        return new ShardedOrderService(orderService, shardRouter, shardingProperties, bulkProperties);
+    }
+}
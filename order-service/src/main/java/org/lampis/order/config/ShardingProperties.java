@@ -0,0 +1,70 @@
+package org.lampis.order.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for sharding orders by customer across databases
+ */
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "order.sharding")
+public class ShardingProperties {
+
+    /**
+     * Enable/disable sharding
+     * When disabled the single spring.datasource database holds every order
+     */
+    private boolean enabled = false;
+
+    /**
+     * Shard databases, in shard order
+     * The order must never change: customers and order IDs map to shards by position
+     */
+    @Valid
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Maximum rows a scatter-gather page query may read from each shard (offset + page size)
+     */
+    @Min(1)
+    private int maxScatterRows = 10000;
+
+    /**
+     * Create a missing order_id_seq, interleaving order IDs across shards
+     * Applies to the single database as well when sharding is disabled
+     */
+    private boolean configureIdSequences = true;
+
+    /**
+     * Acknowledge that every shard reserves stock from its own inventory table
+     * Stock is not routed to a single authority, so sharding refuses to start unless this is set
+     */
+    private boolean perShardInventory = false;
+
+    /**
+     * Connection settings of one shard
+     */
+    @Data
+    public static class Shard {
+
+        @NotBlank
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        @Min(1)
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,61 @@
+package org.lampis.order.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.warmup.WarmUpProperties;
+import org.lampis.common.warmup.WarmUpRunner;
+import org.lampis.common.warmup.WarmUpSamples;
+import org.lampis.common.warmup.WarmUpTask;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+/**
+ * Warm-up of the order request path before the service reports ready: request binding and validation,
+ * response mapping in every representation, and event serialisation
+ */
+@Configuration
+public class WarmUpConfiguration {
+
+    @Bean
+    @Validated
+    @ConfigurationProperties(prefix = "warmup")
+    public WarmUpProperties warmUpProperties() {
+        return new WarmUpProperties();
+    }
+
+    @Bean
+    public WarmUpRunner warmUpRunner(WarmUpProperties properties, ObjectMapper objectMapper, Validator validator,
+                                     List<AbstractJackson2HttpMessageConverter> httpConverters,
+                                     MessageConverter jsonMessageConverter) throws Exception {
+        byte[] createRequest = objectMapper.writeValueAsBytes(WarmUpSamples.createOrderRequest());
+        OrderResponse order = WarmUpSamples.order();
+        // the mappers of the JSON, CBOR and Smile converters the responses are written with
+        List<ObjectMapper> responseMappers = httpConverters.stream()
+                .map(AbstractJackson2HttpMessageConverter::getObjectMapper)
+                .toList();
+
+        return new WarmUpRunner(properties, List.of(
+                new WarmUpTask("order-request", () -> {
+                    CreateOrderRequest request = objectMapper.readValue(createRequest, CreateOrderRequest.class);
+                    return validator.validate(request).size() + request.getOrderLines().size();
+                }),
+                new WarmUpTask("order-response", () -> {
+                    int size = 0;
+                    for (ObjectMapper mapper : responseMappers) {
+                        size += mapper.writeValueAsBytes(order).length;
+                    }
+                    return size;
+                }),
+                new WarmUpTask("order-event", () -> jsonMessageConverter.toMessage(
+                        WarmUpSamples.orderCreatedEvent(), new MessageProperties()).getBody().length)));
+    }
+}
@@ -2,7 +2,10 @@ package org.lampis.order.controller;
 
 import org.lampis.common.dto.order.*;
 import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.exception.BusinessException;
+import org.lampis.order.service.IdempotencyService;
 import org.lampis.order.service.OrderService;
+import org.lampis.order.stream.OrderStatusStreamHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -12,11 +15,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * REST controller for order operations
@@ -28,21 +40,99 @@ import java.util.List;
 @Tag(name = "Orders", description = "Order management APIs")
 public class OrderController {
 
+    private static final OrderFieldSelection STATUS_FIELDS =
+            OrderFieldSelection.parse("orderId,customerId,status,updatedAt", null);
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 200;
+    private static final int MAX_LINES_PAGE_SIZE = 1000;
+
     private final OrderService orderService;
+    private final OrderStatusStreamHub statusStreamHub;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    @Operation(summary = "Create a new order", description = "Create a new order with order lines")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    @Operation(summary = "Create a new order",
+            description = "Create a new order with order lines. With an Idempotency-Key header, a retry of the same "
+                    + "request returns the original response (Idempotent-Replayed: true) instead of creating another order. "
+                    + "Orders above the large-order line threshold are answered with a summary carrying lineCount")
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
         log.info("REST request to create order for customer: {}", request.getCustomerId());
-        OrderResponse response = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        if (idempotencyKey == null) {
+            OrderResponse response = orderService.createOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BusinessException("INVALID_IDEMPOTENCY_KEY",
+                    "Idempotency-Key must have 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        // keys are scoped to the caller, so two users cannot collide on the same key
+        String scopedKey = (userId != null ? userId : "") + ":" + idempotencyKey;
+        IdempotencyService.Result result =
+                idempotencyService.createOrderOnce(scopedKey, request, () -> orderService.createOrder(request));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.isReplayed()))
+                .body(result.getResponse());
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get order by ID", description = "Retrieve order details by order ID")
-    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
+    @Operation(summary = "Get order by ID",
+            description = "Retrieve order details by order ID; fields= selects a sparse fieldset, include=lines adds lines. "
+                    + "Responses carry an ETag; If-None-Match with the current one is answered 304 Not Modified")
+    public ResponseEntity<OrderResponse> getOrderById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include,
+            WebRequest webRequest) {
         log.info("REST request to get order: {}", id);
-        OrderResponse response = orderService.getOrderById(id);
+        OrderFieldSelection selection = OrderFieldSelection.parse(fields, include);
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            // Version-only lookup first: an unchanged order is answered without loading it
+            String eTag = OrderETag.of(id, orderService.getOrderLastModified(id), selection, accept);
+            if (webRequest.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+        // Without a tag to compare, the version comes from the loaded order
+        OrderFieldSelection versioned = selection.with(EnumSet.of(OrderFieldSelection.Field.UPDATED_AT));
+        OrderResponse response = orderService.getOrderById(id, versioned);
+        String eTag = OrderETag.of(id, response.getUpdatedAt(), selection, accept);
+        if (!selection.includes(OrderFieldSelection.Field.UPDATED_AT)) {
+            response.setUpdatedAt(null);
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(response);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream order status",
+            description = "Server-sent events named 'status': the current status on connect, then every status change")
+    public SseEmitter streamOrderStatus(@PathVariable Long id) {
+        log.info("REST request to stream status of order: {}", id);
+        return statusStreamHub.subscribeToOrder(id, () -> currentStatus(id));
+    }
+
+    @GetMapping(value = "/events", params = "customerId", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream order statuses of a customer",
+            description = "Server-sent events named 'status' for every status change of the customer's orders")
+    public SseEmitter streamCustomerOrderStatuses(@RequestParam Long customerId) {
+        log.info("REST request to stream order statuses of customer: {}", customerId);
+        return statusStreamHub.subscribeToCustomer(customerId);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get orders by IDs",
+            description = "Retrieve several orders in one request; results follow request order and report misses")
+    public ResponseEntity<OrderLookupResponse> getOrdersByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+        log.info("REST request to get {} orders by ID", ids.size());
+        OrderLookupResponse response = orderService.getOrdersByIds(ids, OrderFieldSelection.parse(fields, include));
         return ResponseEntity.ok(response);
     }
 
@@ -54,7 +144,9 @@ public class OrderController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) {
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
 
         log.info("REST request to get all orders - page: {}, size: {}, customerId: {}, status: {}",
                 page, size, customerId, status);
@@ -64,19 +156,60 @@ public class OrderController {
                 : Sort.by(sortBy).descending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
+        OrderFieldSelection selection = OrderFieldSelection.parse(fields, include);
 
         Page<OrderResponse> response;
         if (customerId != null) {
-            response = orderService.getOrdersByCustomerId(customerId, pageable);
+            response = orderService.getOrdersByCustomerId(customerId, pageable, selection);
         } else if (status != null) {
-            response = orderService.getOrdersByStatus(status, pageable);
+            response = orderService.getOrdersByStatus(status, pageable, selection);
         } else {
-            response = orderService.getAllOrders(pageable);
+            response = orderService.getAllOrders(pageable, selection);
         }
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/stats")
+    @Operation(summary = "Get order counts per status",
+            description = "Counts of non-deleted orders per status, served from maintained counters")
+    public ResponseEntity<OrderStatsResponse> getOrderStats() {
+        log.info("REST request to get order stats");
+        OrderStatsResponse response = orderService.getOrderStats();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search orders",
+            description = "Combine customer, status set, order date range and amount range filters; "
+                    + "newest first with keyset pagination via the returned nextCursor")
+    public ResponseEntity<OrderSearchResponse> searchOrders(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime orderDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime orderDateTo,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String include) {
+
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .customerId(customerId)
+                .statuses(status)
+                .orderDateFrom(orderDateFrom)
+                .orderDateTo(orderDateTo)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .build();
+        log.info("REST request to search orders: {}", criteria);
+
+        OrderSearchResponse response = orderService.searchOrders(
+                criteria, cursor, size, OrderFieldSelection.parse(fields, include));
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update order", description = "Update order lines (only for UNPROCESSED orders)")
     public ResponseEntity<OrderResponse> updateOrder(
@@ -97,6 +230,16 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    @PatchMapping("/bulk/status")
+    @Operation(summary = "Bulk update order status",
+            description = "Update the status of many orders selected by ID list or filter; cancelling releases stock")
+    public ResponseEntity<BulkOrderStatusResponse> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkUpdateOrderStatusRequest request) {
+        log.info("REST request to bulk update order status to: {}", request.getStatus());
+        BulkOrderStatusResponse response = orderService.bulkUpdateOrderStatus(request);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete order", description = "Soft delete an order")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
@@ -105,6 +248,21 @@ public class OrderController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/lines")
+    @Operation(summary = "Get order lines",
+            description = "Retrieve the lines of an order page by page, in line order; used for large orders")
+    public ResponseEntity<Page<OrderLineDTO>> getOrderLines(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("REST request to get lines of order: {}, page: {}, size: {}", id, page, size);
+        if (page < 0 || size < 1 || size > MAX_LINES_PAGE_SIZE) {
+            throw new BusinessException("INVALID_PAGE_SIZE",
+                    String.format("Page must be at least 0 and size between 1 and %d", MAX_LINES_PAGE_SIZE));
+        }
+        return ResponseEntity.ok(orderService.getOrderLines(id, PageRequest.of(page, size)));
+    }
+
     @GetMapping("/{id}/history")
     @Operation(summary = "Get order audit history", description = "Retrieve the audit trail for an order")
     public ResponseEntity<List<OrderAuditResponse>> getOrderHistory(@PathVariable Long id) {
@@ -112,4 +270,14 @@ public class OrderController {
         List<OrderAuditResponse> history = orderService.getOrderHistory(id);
         return ResponseEntity.ok(history);
     }
+
+    private OrderStatusUpdate currentStatus(Long orderId) {
+        OrderResponse order = orderService.getOrderById(orderId, STATUS_FIELDS);
+        return OrderStatusUpdate.builder()
+                .orderId(order.getOrderId())
+                .customerId(order.getCustomerId())
+                .status(order.getStatus())
+                .changedAt(order.getUpdatedAt())
+                .build();
+    }
 }
\ No newline at end of file
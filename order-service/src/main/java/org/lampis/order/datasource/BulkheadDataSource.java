@@ -0,0 +1,95 @@
+package org.lampis.order.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Partitions the connections of one pool between workload classes
+ * A permit of the current workload's bulkhead is held from checkout until the
+ * connection is closed; checkout fails fast once the bulkhead is full
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Map<Workload, ConnectionBulkhead> bulkheads;
+    private final long acquireTimeoutMs;
+
+    public BulkheadDataSource(DataSource target, Map<Workload, ConnectionBulkhead> bulkheads, long acquireTimeoutMs) {
+        super(target);
+        this.bulkheads = bulkheads;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ConnectionBulkhead bulkhead = bulkheads.get(WorkloadContext.current());
+        bulkhead.acquire(acquireTimeoutMs);
+        try {
+            return withPermit(obtainTargetDataSource().getConnection(), bulkhead);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ConnectionBulkhead bulkhead = bulkheads.get(WorkloadContext.current());
+        bulkhead.acquire(acquireTimeoutMs);
+        try {
+            return withPermit(obtainTargetDataSource().getConnection(username, password), bulkhead);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Wrap the connection so that closing it returns the permit exactly once
+     */
+    private Connection withPermit(Connection target, ConnectionBulkhead bulkhead) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            try {
+                                target.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    bulkhead.release();
+                                }
+                            }
+                            return null;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "unwrap" -> {
+                            return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                        }
+                        case "isWrapperFor" -> {
+                            return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                        }
+                        default -> {
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,27 @@
+package org.lampis.order.datasource;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown when a connection bulkhead has no free permit within the acquire timeout
+ */
+public class BulkheadFullException extends SQLTransientConnectionException {
+
+    private final Workload workload;
+    private final String pool;
+
+    public BulkheadFullException(Workload workload, String pool, int maxConcurrent) {
+        super(String.format("Connection bulkhead '%s' of pool '%s' is full (%d connections in use)",
+                workload.getTag(), pool, maxConcurrent));
+        this.workload = workload;
+        this.pool = pool;
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    public String getPool() {
+        return pool;
+    }
+}
@@ -0,0 +1,69 @@
+package org.lampis.order.datasource;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded number of concurrently checked-out connections of one pool for one workload class
+ */
+public class ConnectionBulkhead {
+
+    private final Workload workload;
+    private final String pool;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConnectionBulkhead(Workload workload, String pool, int maxConcurrent) {
+        this.workload = workload;
+        this.pool = pool;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Take a permit, waiting at most timeoutMs, or fail fast
+     */
+    public void acquire(long timeoutMs) throws BulkheadFullException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException(workload, pool, maxConcurrent);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
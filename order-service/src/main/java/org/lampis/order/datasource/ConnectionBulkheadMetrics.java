@@ -0,0 +1,47 @@
+package org.lampis.order.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes saturation metrics for each connection bulkhead, tagged by workload and pool
+ */
+public class ConnectionBulkheadMetrics implements MeterBinder {
+
+    private final ConnectionBulkheads bulkheads;
+
+    public ConnectionBulkheadMetrics(ConnectionBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ConnectionBulkhead bulkhead : bulkheads.all()) {
+            Tags tags = Tags.of("bulkhead", bulkhead.getWorkload().getTag(), "pool", bulkhead.getPool());
+            Gauge.builder("order.db.bulkhead.active", bulkhead, ConnectionBulkhead::getActive)
+                    .tags(tags)
+                    .description("Connections currently checked out")
+                    .register(registry);
+            Gauge.builder("order.db.bulkhead.max", bulkhead, ConnectionBulkhead::getMaxConcurrent)
+                    .tags(tags)
+                    .description("Maximum concurrent connections")
+                    .register(registry);
+            Gauge.builder("order.db.bulkhead.waiting", bulkhead, ConnectionBulkhead::getWaiting)
+                    .tags(tags)
+                    .description("Threads waiting for a permit")
+                    .register(registry);
+            Gauge.builder("order.db.bulkhead.saturation", bulkhead,
+                            b -> (double) b.getActive() / b.getMaxConcurrent())
+                    .tags(tags)
+                    .description("Share of permits in use (0-1)")
+                    .register(registry);
+            FunctionCounter.builder("order.db.bulkhead.rejected", bulkhead, ConnectionBulkhead::getRejected)
+                    .tags(tags)
+                    .description("Checkouts rejected because the bulkhead was full")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.lampis.order.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.lampis.order.config.ConnectionBulkheadProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The connection bulkheads of the service, one per workload class and connection pool
+ * Every pool (primary, replica, each shard) gets the configured permits of its own, so a
+ * scatter over the shards takes one permit from each shard's bulkhead rather than
+ * shard-count permits from a single one
+ */
+public class ConnectionBulkheads {
+
+    private final ConnectionBulkheadProperties properties;
+    private final Map<String, Map<Workload, ConnectionBulkhead>> pools = new ConcurrentHashMap<>();
+
+    public ConnectionBulkheads(ConnectionBulkheadProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Put the pool behind bulkheads of its own, or return it unchanged when bulkheads are disabled
+     */
+    public DataSource guard(HikariDataSource pool) {
+        if (!properties.isEnabled()) {
+            return pool;
+        }
+        String name = pool.getPoolName();
+        Map<Workload, ConnectionBulkhead> bulkheads = new EnumMap<>(Workload.class);
+        bulkheads.put(Workload.WRITE, new ConnectionBulkhead(Workload.WRITE, name, properties.getWritePermits()));
+        bulkheads.put(Workload.READ, new ConnectionBulkhead(Workload.READ, name, properties.getReadPermits()));
+        bulkheads.put(Workload.BACKGROUND,
+                new ConnectionBulkhead(Workload.BACKGROUND, name, properties.getBackgroundPermits()));
+        if (pools.putIfAbsent(name, bulkheads) != null) {
+            throw new IllegalStateException("Connection pool '" + name + "' already has bulkheads");
+        }
+        return new BulkheadDataSource(pool, bulkheads, properties.getAcquireTimeoutMs());
+    }
+
+    public Collection<ConnectionBulkhead> all() {
+        List<ConnectionBulkhead> all = new ArrayList<>();
+        pools.values().forEach(bulkheads -> all.addAll(bulkheads.values()));
+        return all;
+    }
+}
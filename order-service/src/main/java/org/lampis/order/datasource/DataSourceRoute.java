@@ -0,0 +1,9 @@
+package org.lampis.order.datasource;
+
+/**
+ * Lookup keys of the routing datasource
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,44 @@
+package org.lampis.order.datasource;
+
+import org.lampis.order.config.ReplicaRoutingProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers clients that recently wrote so their reads go to the primary
+ * until the replica has had time to catch up
+ */
+public class ReadYourWritesTracker {
+
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final ReplicaRoutingProperties properties;
+
+    public ReadYourWritesTracker(ReplicaRoutingProperties properties) {
+        this.properties = properties;
+    }
+
+    public void recordWrite(String clientKey) {
+        if (stickyUntil.size() >= properties.getMaxStickyClients()) {
+            evictExpired();
+        }
+        stickyUntil.put(clientKey, System.currentTimeMillis() + properties.getStickyWindow().toMillis());
+    }
+
+    public boolean isSticky(String clientKey) {
+        Long until = stickyUntil.get(clientKey);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            stickyUntil.remove(clientKey, until);
+            return false;
+        }
+        return true;
+    }
+
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until < now);
+    }
+}
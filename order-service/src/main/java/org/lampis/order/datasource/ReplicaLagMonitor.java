@@ -0,0 +1,71 @@
+package org.lampis.order.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.order.config.ReplicaRoutingProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Samples replication lag on the replica and marks it unavailable when
+ * the lag exceeds the configured bound or the replica cannot be reached
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Zero when the replica has replayed everything it received, otherwise
+     * the age of the last replayed transaction (zero when not in recovery)
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)
+            END
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ReplicaRoutingProperties properties;
+
+    private volatile boolean available = false;
+    private volatile long lastLagMs = -1;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaRoutingProperties properties) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout(1);
+        this.properties = properties;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${order.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        boolean wasAvailable = available;
+        try {
+            Number lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Number.class);
+            lastLagMs = lag == null ? 0 : lag.longValue();
+            available = Duration.ofMillis(lastLagMs).compareTo(properties.getMaxLag()) <= 0;
+        } catch (Exception e) {
+            lastLagMs = -1;
+            available = false;
+            if (wasAvailable) {
+                log.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+            }
+            return;
+        }
+
+        if (wasAvailable != available) {
+            log.info("Replica {} (lag {} ms, max {} ms)", available ? "available" : "lagging, routing reads to primary",
+                    lastLagMs, properties.getMaxLag().toMillis());
+        }
+    }
+}
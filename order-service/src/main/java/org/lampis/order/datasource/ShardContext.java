@@ -0,0 +1,27 @@
+package org.lampis.order.datasource;
+
+/**
+ * Per-thread shard selection used by the shard routing datasource
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Selected shard, or null when none was selected
+     */
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+    }
+}
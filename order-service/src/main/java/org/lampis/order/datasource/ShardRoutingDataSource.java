@@ -0,0 +1,56 @@
+package org.lampis.order.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Routes connections to the shard selected in ShardContext
+ * Without a selection (startup, schema checks) connections go to shard 0
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the shard can be
+ * selected after the transaction has begun
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<HikariDataSource> shards;
+
+    /**
+     * @param guard puts a shard's pool behind its connection bulkheads
+     */
+    public ShardRoutingDataSource(List<HikariDataSource> shards, Function<HikariDataSource, DataSource> guard) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, guard.apply(shards.get(shard)));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(targets.get(0));
+        setLenientFallback(false);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * The shard's pool itself, bypassing its bulkheads
+     */
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,20 @@
+package org.lampis.order.datasource;
+
+/**
+ * Workload classes with their own connection bulkhead
+ */
+public enum Workload {
+    WRITE("write"),
+    READ("read"),
+    BACKGROUND("background");
+
+    private final String tag;
+
+    Workload(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
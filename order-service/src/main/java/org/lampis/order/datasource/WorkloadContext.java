@@ -0,0 +1,48 @@
+package org.lampis.order.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Resolves the workload class of the current thread
+ * Background work (scheduler, exports, archival) is marked explicitly,
+ * interactive work is classified by the transaction's read-only flag
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Boolean> BACKGROUND = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        if (Boolean.TRUE.equals(BACKGROUND.get())) {
+            return Workload.BACKGROUND;
+        }
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly ? Workload.READ : Workload.WRITE;
+    }
+
+    public static void runAsBackground(Runnable task) {
+        runAsBackground(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T runAsBackground(Supplier<T> task) {
+        Boolean previous = BACKGROUND.get();
+        BACKGROUND.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                BACKGROUND.remove();
+            } else {
+                BACKGROUND.set(previous);
+            }
+        }
+    }
+}
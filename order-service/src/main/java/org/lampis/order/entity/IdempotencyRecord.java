@@ -0,0 +1,57 @@
+package org.lampis.order.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An Idempotency-Key of an order creation: claimed while the request runs, then holding its response
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        // Purge of expired keys
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    /**
+     * Client key, prefixed with the user it belongs to
+     */
+    @Id
+    @Column(name = "idempotency_key", nullable = false)
+    private String key;
+
+    /**
+     * SHA-256 of the request body; the key may only be replayed with the same body
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * When the running request claimed the key; a claim older than the lease may be taken over
+     */
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    /**
+     * The OrderResponse as JSON, null while the request runs
+     */
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isCompleted() {
+        return responseBody != null;
+    }
+}
@@ -5,8 +5,9 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.money.Money;
+import org.lampis.common.money.MoneyConverter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +16,14 @@ import java.util.List;
  * Order entity representing a customer order
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Customer order history and customer + date/status/amount searches
+        @Index(name = "idx_orders_customer_date", columnList = "customer_id, order_date DESC, id DESC"),
+        // Status lists, scheduler progression and status + date searches
+        @Index(name = "idx_orders_status_date", columnList = "status, order_date DESC, id DESC"),
+        // Date-range searches and the default keyset order
+        @Index(name = "idx_orders_date", columnList = "order_date DESC, id DESC")
+})
 @Getter
 @Setter
 @Builder
@@ -23,8 +31,12 @@ import java.util.List;
 @AllArgsConstructor
 public class Order {
 
+    /**
+     * Issued by the shard's order_id_seq, which interleaves IDs across shards
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id_seq")
+    @SequenceGenerator(name = "order_id_seq", sequenceName = "order_id_seq", allocationSize = 1)
     private Long id;
 
     @Column(name = "customer_id", nullable = false)
@@ -38,7 +50,8 @@ public class Order {
     private LocalDateTime orderDate;
 
     @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount;
+    @Convert(converter = MoneyConverter.class)
+    private Money totalAmount;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
@@ -76,9 +89,10 @@ public class Order {
      * Calculate total amount from order lines
      */
     public void calculateTotalAmount() {
+        orderLines.forEach(OrderLine::calculateLineTotal);
         this.totalAmount = orderLines.stream()
                 .map(OrderLine::getLineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                .reduce(Money.zero(), Money::plus);
     }
 
     /**
@@ -5,14 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
+import org.lampis.common.money.Money;
+import org.lampis.common.money.MoneyConverter;
 
 /**
  * OrderLine entity representing individual items in an order
  */
 @Entity
-@Table(name = "order_lines")
+@Table(name = "order_lines", indexes = {
+        // Loading lines for one or many orders
+        @Index(name = "idx_order_lines_order_id", columnList = "order_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -34,10 +37,12 @@ public class OrderLine {
     private Integer quantity;
 
     @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal unitPrice;
+    @Convert(converter = MoneyConverter.class)
+    private Money unitPrice;
 
     @Column(name = "line_total", nullable = false, precision = 10, scale = 2)
-    private BigDecimal lineTotal;
+    @Convert(converter = MoneyConverter.class)
+    private Money lineTotal;
 
     /**
      * Calculate line total before persisting
@@ -46,7 +51,7 @@ public class OrderLine {
     @PreUpdate
     public void calculateLineTotal() {
         if (quantity != null && unitPrice != null) {
-            this.lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            this.lineTotal = unitPrice.times(quantity);
         }
     }
 }
@@ -0,0 +1,47 @@
+package org.lampis.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.enums.OrderStatus;
+
+import java.io.Serializable;
+
+/**
+ * One stripe of the running count of non-deleted orders in a status
+ * The count for a status is the sum of its stripes
+ */
+@Entity
+@Table(name = "order_status_counters")
+@IdClass(OrderStatusCounter.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusCounter {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    @Id
+    @Column(name = "stripe", nullable = false)
+    private Integer stripe;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    /**
+     * Composite primary key (status, stripe)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private OrderStatus status;
+        private Integer stripe;
+    }
+}
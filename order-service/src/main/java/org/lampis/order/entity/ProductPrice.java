@@ -0,0 +1,46 @@
+package org.lampis.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.lampis.common.money.Money;
+import org.lampis.common.money.MoneyConverter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Catalog price of a product, the only source of order line unit prices
+ */
+@Entity
+@Table(name = "product_prices", indexes = {
+        // Incremental catalog refresh: rows changed since a version
+        @Index(name = "idx_product_prices_version", columnList = "version")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPrice {
+
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    /**
+     * Unit price; null withdraws the product from sale
+     */
+    @Column(name = "price", precision = 10, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money price;
+
+    /**
+     * Catalog version of the last change, from product_price_version_seq
+     */
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
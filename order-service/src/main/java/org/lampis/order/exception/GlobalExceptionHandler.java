@@ -2,12 +2,22 @@ package org.lampis.order.exception;
 
 import org.lampis.common.dto.error.ErrorResponse;
 import org.lampis.common.exception.BusinessException;
+import org.lampis.common.exception.IdempotencyKeyConflictException;
 import org.lampis.common.exception.InsufficientStockException;
 import org.lampis.common.exception.InvalidOrderStateException;
+import org.lampis.common.exception.OrderConflictException;
 import org.lampis.common.exception.ResourceNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.lampis.order.datasource.BulkheadFullException;
+import org.lampis.order.stream.SubscriberLimitExceededException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -42,7 +52,8 @@ public class GlobalExceptionHandler {
                 .path(request.getDescription(false).replace("uri=", ""))
                 .build();
 
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        // Preset: SSE clients accept only text/event-stream
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
     @ExceptionHandler(InvalidOrderStateException.class)
@@ -94,6 +105,46 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(OrderConflictException.class)
+    public ResponseEntity<ErrorResponse> handleOrderConflictException(
+            OrderConflictException ex,
+            WebRequest request) {
+
+        log.error("Order conflict: {}", ex.getMessage());
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("orderId", ex.getOrderId());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .details(details)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflictException(
+            IdempotencyKeyConflictException ex,
+            WebRequest request) {
+
+        log.warn("Idempotency-Key conflict: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ErrorResponse> handleBusinessException(
             BusinessException ex,
@@ -142,6 +193,81 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Unreadable bodies, including amounts with more decimal places than the currency has
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadableMessageException(
+            HttpMessageNotReadableException ex,
+            WebRequest request) {
+
+        log.error("Unreadable request: {}", ex.getMessage());
+
+        Throwable rootCause = NestedExceptionUtils.getMostSpecificCause(ex);
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Malformed Request")
+                .message(rootCause instanceof IllegalArgumentException
+                        ? rootCause.getMessage() : "Request body could not be read")
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler({DataAccessResourceFailureException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(
+            Exception ex,
+            WebRequest request) {
+
+        String message = "Database temporarily unavailable";
+        Map<String, Object> details = new HashMap<>();
+        Throwable rootCause = NestedExceptionUtils.getMostSpecificCause(ex);
+        if (rootCause instanceof BulkheadFullException bulkheadFull) {
+            message = rootCause.getMessage();
+            details.put("bulkhead", bulkheadFull.getWorkload().getTag());
+            details.put("pool", bulkheadFull.getPool());
+            log.warn("Connection bulkhead full: {}", message);
+        } else {
+            log.error("Database unavailable: ", ex);
+        }
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(message)
+                .path(request.getDescription(false).replace("uri=", ""))
+                .details(details)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleSubscriberLimitExceededException(
+            SubscriberLimitExceededException ex,
+            WebRequest request) {
+
+        log.warn("Order status stream refused: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(
             Exception ex,
@@ -0,0 +1,30 @@
+package org.lampis.order.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint serving the most contended inventory rows at {@code /actuator/inventorylocks}
+ * <p>
+ * DELETE resets the sketch.
+ */
+@Component
+@Endpoint(id = "inventorylocks")
+@RequiredArgsConstructor
+public class InventoryLockContentionEndpoint {
+
+    private final InventoryLockProfiler lockProfiler;
+
+    @ReadOperation
+    public InventoryLockProfiler.Snapshot contention() {
+        return lockProfiler.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        lockProfiler.reset();
+    }
+}
@@ -0,0 +1,260 @@
+package org.lampis.order.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Builder;
+import lombok.Value;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.lampis.order.config.OrderMetricsProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Measures how long inventory row locks take to acquire, per product
+ * <p>
+ * The most contended products are kept in a weighted Space-Saving sketch of
+ * {@code order.metrics.lock-contention-top-k} entries, weighted by wait time. Admission is lock-free
+ * and randomized: once the sketch is full, a sample of an untracked product is admitted with
+ * probability {@code wait / (wait + min)}, against the smallest tracked weight seen at the last
+ * eviction, so only admitted samples scan the entries for a victim. Heavy hitters are admitted
+ * after a few samples; a long tail of single samples rarely is. A product admitted by evicting the
+ * least contended entry inherits that entry's weight as its error, so {@code estimatedWait - error}
+ * is a lower bound of its true wait. Counts, wait totals and histograms of an entry are exact since
+ * its admission; the histogram is allocated on the entry's second sample.
+ */
+@Component
+public class InventoryLockProfiler {
+
+    static final String ACQUIRE_TIMER = "order.inventory.lock.acquire";
+
+    private static final int HISTOGRAM_DIGITS = 2;
+    private static final long NO_SAMPLE = -1;
+
+    private final int capacity;
+    private final Timer acquireTimer;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder totalAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private volatile Instant since = Instant.now();
+    private volatile long minWeightHint;
+
+    public InventoryLockProfiler(MeterRegistry registry, OrderMetricsProperties properties) {
+        this.capacity = properties.getLockContentionTopK();
+        this.acquireTimer = Timer.builder(ACQUIRE_TIMER)
+                .description("Time spent acquiring an inventory row lock, including the locking query")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    /**
+     * Run a locking inventory read and record its duration against the product
+     */
+    public <T> T timeAcquisition(Long productId, Supplier<T> acquire) {
+        long start = System.nanoTime();
+        try {
+            return acquire.get();
+        } finally {
+            record(productId, System.nanoTime() - start);
+        }
+    }
+
+    public void record(Long productId, long waitNanos) {
+        long weight = Math.max(waitNanos, 1);
+        acquireTimer.record(weight, TimeUnit.NANOSECONDS);
+        totalAcquisitions.increment();
+        totalWaitNanos.add(weight);
+
+        Entry entry = entries.get(productId);
+        if (entry != null) {
+            // a sample racing with the eviction of its entry is lost from the sketch, not from the totals
+            entry.record(weight);
+        } else {
+            admit(productId, weight);
+        }
+    }
+
+    /**
+     * Tracked products, most contended first
+     */
+    public Snapshot snapshot() {
+        List<ProductLockContention> products = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            products.add(entry.toContention());
+        }
+        products.sort(Comparator.comparingDouble(ProductLockContention::getEstimatedWaitMs).reversed());
+        return Snapshot.builder()
+                .since(since)
+                .capacity(capacity)
+                .acquisitions(totalAcquisitions.sum())
+                .waitMs(toMillis(totalWaitNanos.sum()))
+                .products(products)
+                .build();
+    }
+
+    /**
+     * Forget all samples, e.g. at the start of a sale
+     */
+    public void reset() {
+        entries.clear();
+        totalAcquisitions.reset();
+        totalWaitNanos.reset();
+        minWeightHint = 0;
+        since = Instant.now();
+    }
+
+    private void admit(Long productId, long weight) {
+        long inheritedWeight = 0;
+        if (entries.size() >= capacity) {
+            if (ThreadLocalRandom.current().nextLong(weight + minWeightHint) >= weight) {
+                return;
+            }
+            Entry victim = leastContended();
+            // another admission took the victim first; this sample stays untracked
+            if (victim == null || !entries.remove(victim.productId, victim)) {
+                return;
+            }
+            inheritedWeight = victim.weightNanos.sum();
+            minWeightHint = inheritedWeight;
+            // racing admissions into the last free slot overfilled the sketch, shrink it back
+            if (entries.size() >= capacity) {
+                return;
+            }
+        }
+        Entry admitted = new Entry(productId, inheritedWeight);
+        Entry existing = entries.putIfAbsent(productId, admitted);
+        (existing != null ? existing : admitted).record(weight);
+    }
+
+    private Entry leastContended() {
+        Entry victim = null;
+        long victimWeight = Long.MAX_VALUE;
+        for (Entry candidate : entries.values()) {
+            long candidateWeight = candidate.weightNanos.sum();
+            if (candidateWeight < victimWeight) {
+                victim = candidate;
+                victimWeight = candidateWeight;
+            }
+        }
+        return victim;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Entry {
+
+        private final Long productId;
+        private final long errorNanos;
+        private final Instant trackedSince = Instant.now();
+        private final LongAdder weightNanos = new LongAdder();
+        private final LongAdder acquisitions = new LongAdder();
+        private final AtomicLong firstWaitMicros = new AtomicLong(NO_SAMPLE);
+        private final AtomicReference<Histogram> waitMicros = new AtomicReference<>();
+
+        private Entry(Long productId, long errorNanos) {
+            this.productId = productId;
+            this.errorNanos = errorNanos;
+            this.weightNanos.add(errorNanos);
+        }
+
+        private void record(long waitNanos) {
+            weightNanos.add(waitNanos);
+            acquisitions.increment();
+            long micros = TimeUnit.NANOSECONDS.toMicros(waitNanos);
+            Histogram histogram = waitMicros.get();
+            if (histogram == null) {
+                if (firstWaitMicros.compareAndSet(NO_SAMPLE, micros)) {
+                    return;
+                }
+                histogram = histogram();
+            }
+            histogram.recordValue(micros);
+        }
+
+        private Histogram histogram() {
+            Histogram created = new ConcurrentHistogram(HISTOGRAM_DIGITS);
+            if (!waitMicros.compareAndSet(null, created)) {
+                return waitMicros.get();
+            }
+            created.recordValue(firstWaitMicros.get());
+            return created;
+        }
+
+        private ProductLockContention toContention() {
+            long weight = weightNanos.sum();
+            ProductLockContention.ProductLockContentionBuilder contention = ProductLockContention.builder()
+                    .productId(productId)
+                    .trackedSince(trackedSince)
+                    .acquisitions(acquisitions.sum())
+                    .waitMs(toMillis(weight - errorNanos))
+                    .estimatedWaitMs(toMillis(weight))
+                    .errorMs(toMillis(errorNanos));
+            Histogram histogram = waitMicros.get();
+            if (histogram == null) {
+                // a single sample is every percentile
+                double firstWaitMs = Math.max(firstWaitMicros.get(), 0) / 1000.0;
+                return contention.p50Ms(firstWaitMs).p99Ms(firstWaitMs).maxMs(firstWaitMs).build();
+            }
+            histogram = histogram.copy();
+            return contention
+                    .p50Ms(histogram.getValueAtPercentile(50) / 1000.0)
+                    .p99Ms(histogram.getValueAtPercentile(99) / 1000.0)
+                    .maxMs(histogram.getMaxValue() / 1000.0)
+                    .build();
+        }
+    }
+
+    /**
+     * Contention picture since the last reset
+     */
+    @Value
+    @Builder
+    public static class Snapshot {
+        Instant since;
+        int capacity;
+        /**
+         * Lock acquisitions over all products, tracked or not
+         */
+        long acquisitions;
+        double waitMs;
+        List<ProductLockContention> products;
+    }
+
+    /**
+     * Lock waits of one tracked product; all but {@code estimatedWaitMs} and {@code errorMs} cover
+     * only the period since {@code trackedSince}
+     */
+    @Value
+    @Builder
+    public static class ProductLockContention {
+        Long productId;
+        Instant trackedSince;
+        long acquisitions;
+        double waitMs;
+        /**
+         * Estimate of the product's wait since the last reset
+         */
+        double estimatedWaitMs;
+        double errorMs;
+        double p50Ms;
+        double p99Ms;
+        double maxMs;
+    }
+}
@@ -0,0 +1,128 @@
+package org.lampis.order.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.lampis.order.config.OrderMetricsProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Phase timers and business counters of the order write paths
+ * <p>
+ * Timers publish percentile histograms, so p95/p99 can be aggregated across instances in Prometheus.
+ * Per-product meters tag at most {@code order.metrics.max-product-tags} distinct products.
+ */
+@Component
+public class OrderMetrics {
+
+    static final String PHASE_TIMER = "order.service.phase";
+    static final String INSUFFICIENT_STOCK_COUNTER = "order.inventory.insufficient.stock";
+    static final String OTHER_PRODUCTS = "other";
+
+    private final MeterRegistry registry;
+    private final int maxProductTags;
+    private final Map<Operation, Map<Phase, Timer>> phaseTimers = new EnumMap<>(Operation.class);
+    private final Map<Long, Counter> insufficientStockByProduct = new ConcurrentHashMap<>();
+    private final Counter insufficientStockOther;
+
+    public OrderMetrics(MeterRegistry registry, OrderMetricsProperties properties) {
+        this.registry = registry;
+        this.maxProductTags = properties.getMaxProductTags();
+        for (Operation operation : Operation.values()) {
+            Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+            for (Phase phase : operation.phases) {
+                timers.put(phase, Timer.builder(PHASE_TIMER)
+                        .description("Time spent in one phase of an order write")
+                        .tag("operation", operation.tag)
+                        .tag("phase", phase.tag)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(registry));
+            }
+            phaseTimers.put(operation, timers);
+        }
+        this.insufficientStockOther = insufficientStockCounter(OTHER_PRODUCTS);
+    }
+
+    public <T> T time(Operation operation, Phase phase, Supplier<T> action) {
+        return timer(operation, phase).record(action);
+    }
+
+    public void time(Operation operation, Phase phase, Runnable action) {
+        timer(operation, phase).record(action);
+    }
+
+    public void recordInsufficientStock(Long productId) {
+        Counter counter = insufficientStockByProduct.get(productId);
+        if (counter == null) {
+            // the size check races with other threads, so the bound may be overshot by a few products
+            counter = insufficientStockByProduct.size() < maxProductTags
+                    ? insufficientStockByProduct.computeIfAbsent(productId,
+                            id -> insufficientStockCounter(String.valueOf(id)))
+                    : insufficientStockOther;
+        }
+        counter.increment();
+    }
+
+    private Timer timer(Operation operation, Phase phase) {
+        Timer timer = phaseTimers.get(operation).get(phase);
+        if (timer == null) {
+            throw new IllegalArgumentException("Phase " + phase + " is not part of " + operation);
+        }
+        return timer;
+    }
+
+    private Counter insufficientStockCounter(String product) {
+        return Counter.builder(INSUFFICIENT_STOCK_COUNTER)
+                .description("Order lines rejected for insufficient stock")
+                .tag("product", product)
+                .register(registry);
+    }
+
+    /**
+     * Instrumented order write operations with the phases they consist of
+     */
+    public enum Operation {
+        CREATE("create", Phase.VALIDATE_INVENTORY, Phase.RESERVE_INVENTORY, Phase.SAVE, Phase.SAVE_LINES, Phase.PUBLISH_EVENT),
+        UPDATE("update", Phase.RESERVE_INVENTORY, Phase.SAVE, Phase.AUDIT, Phase.PUBLISH_EVENT);
+
+        private final String tag;
+        private final Phase[] phases;
+
+        Operation(String tag, Phase... phases) {
+            this.tag = tag;
+            this.phases = phases;
+        }
+    }
+
+    public enum Phase {
+        VALIDATE_INVENTORY("validate_inventory"),
+        /**
+         * Includes waiting for the inventory row locks; for updates, the net change between old and new lines
+         */
+        RESERVE_INVENTORY("reserve_inventory"),
+        /**
+         * Repository save; changes to an already persisted order are flushed at commit, outside this phase
+         */
+        SAVE("save"),
+        /**
+         * JDBC batches of the lines of a large order
+         */
+        SAVE_LINES("save_lines"),
+        AUDIT("audit"),
+        PUBLISH_EVENT("publish_event");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.lampis.order.pricing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health of the price catalog, part of the readiness group: orders cannot be priced before it has loaded
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceCatalogHealthIndicator implements HealthIndicator {
+
+    private final ProductPriceCatalog priceCatalog;
+
+    @Override
+    public Health health() {
+        PriceSnapshot snapshot = priceCatalog.snapshot();
+        Health.Builder health = priceCatalog.isLoaded() ? Health.up() : Health.down();
+        return health
+                .withDetail("version", snapshot.getVersion())
+                .withDetail("products", snapshot.size())
+                .build();
+    }
+}
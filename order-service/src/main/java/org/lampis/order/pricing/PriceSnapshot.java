@@ -0,0 +1,92 @@
+package org.lampis.order.pricing;
+
+import org.lampis.common.money.Money;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable productId to unit price map of one catalog version
+ * <p>
+ * Open addressing over a primitive long[] of product IDs at most half full, so a lookup neither
+ * boxes the key nor allocates, and usually touches one slot.
+ */
+public final class PriceSnapshot {
+
+    public static final PriceSnapshot EMPTY = of(Map.of(), 0);
+
+    private static final long FREE = Long.MIN_VALUE;
+
+    private final long version;
+    private final int size;
+    private final long[] productIds;
+    private final Money[] prices;
+    private final int mask;
+
+    private PriceSnapshot(long version, int size, long[] productIds, Money[] prices) {
+        this.version = version;
+        this.size = size;
+        this.productIds = productIds;
+        this.prices = prices;
+        this.mask = productIds.length - 1;
+    }
+
+    public static PriceSnapshot of(Map<Long, Money> prices, long version) {
+        int capacity = Integer.highestOneBit(Math.max(2, prices.size() * 2 - 1)) << 1;
+        long[] productIds = new long[capacity];
+        Money[] values = new Money[capacity];
+        Arrays.fill(productIds, FREE);
+        int mask = capacity - 1;
+        prices.forEach((productId, price) -> {
+            int slot = slot(productId, mask);
+            while (productIds[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            productIds[slot] = productId;
+            values[slot] = price;
+        });
+        return new PriceSnapshot(version, prices.size(), productIds, values);
+    }
+
+    /**
+     * Unit price of a product, or null when it has none
+     */
+    public Money priceOf(long productId) {
+        int slot = slot(productId, mask);
+        long current;
+        while ((current = productIds[slot]) != FREE) {
+            if (current == productId) {
+                return prices[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Mutable copy of the prices, to build the next snapshot from
+     */
+    public Map<Long, Money> toMap() {
+        Map<Long, Money> copy = new HashMap<>(size * 2);
+        for (int slot = 0; slot < productIds.length; slot++) {
+            if (productIds[slot] != FREE) {
+                copy.put(productIds[slot], prices[slot]);
+            }
+        }
+        return copy;
+    }
+
+    private static int slot(long productId, int mask) {
+        long hash = productId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
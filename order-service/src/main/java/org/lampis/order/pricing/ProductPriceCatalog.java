@@ -0,0 +1,116 @@
+package org.lampis.order.pricing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.order.config.PricingProperties;
+import org.lampis.order.datasource.WorkloadContext;
+import org.lampis.order.repository.ProductPriceRepository;
+import org.lampis.order.repository.projection.ProductPriceView;
+import org.lampis.common.money.Money;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory product price catalog, so orders are priced without a query per line
+ * <p>
+ * Readers get the current {@link PriceSnapshot} from a volatile field and never wait. A refresh re-reads the
+ * product_prices rows of the last version-lookback versions and above, builds the next snapshot off to the side
+ * when any of them differs and swaps it in. Two transactions may commit their versions out of order; the
+ * lookback picks up a lower version committed late, and the periodic full reload anything older.
+ * Until the first full load succeeds every refresh retries it, and {@link #isLoaded()} keeps readiness down.
+ */
+@Component
+@Slf4j
+public class ProductPriceCatalog implements ApplicationRunner {
+
+    private final ProductPriceRepository priceRepository;
+    private final PricingProperties properties;
+    private volatile PriceSnapshot snapshot = PriceSnapshot.EMPTY;
+    private volatile boolean loaded;
+    private long lastFullReload;
+
+    public ProductPriceCatalog(ProductPriceRepository priceRepository, PricingProperties properties,
+                               MeterRegistry registry) {
+        this.priceRepository = priceRepository;
+        this.properties = properties;
+        Gauge.builder("order.pricing.catalog.version", this, catalog -> catalog.snapshot.getVersion())
+                .description("Version of the in-memory price catalog")
+                .register(registry);
+        Gauge.builder("order.pricing.catalog.products", this, catalog -> catalog.snapshot.size())
+                .description("Products priced by the in-memory price catalog")
+                .register(registry);
+    }
+
+    public PriceSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Whether a full load has succeeded; orders cannot be priced before
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Apply the price changes within the version lookback of the current version, or reload the whole catalog
+     * when it has not loaded yet or the last full reload is older than the full-reload-interval
+     */
+    public synchronized void refresh() {
+        PriceSnapshot current = snapshot;
+        boolean fullReload = !loaded
+                || System.nanoTime() - lastFullReload >= properties.getFullReloadInterval().toNanos();
+        List<ProductPriceView> changes;
+        if (fullReload) {
+            changes = priceRepository.findChangedSince(0);
+        } else {
+            long since = Math.max(0, current.getVersion() - properties.getVersionLookback());
+            // rows of the window the snapshot already holds are not changes
+            changes = priceRepository.findChangedSince(since).stream()
+                    .filter(row -> row.getVersion() > current.getVersion()
+                            || !Objects.equals(current.priceOf(row.getProductId()), row.getPrice()))
+                    .toList();
+            if (changes.isEmpty()) {
+                return;
+            }
+        }
+
+        Map<Long, Money> prices = fullReload ? new HashMap<>() : current.toMap();
+        long version = fullReload ? 0 : current.getVersion();
+        for (ProductPriceView change : changes) {
+            if (change.getPrice() != null) {
+                prices.put(change.getProductId(), change.getPrice());
+            } else {
+                prices.remove(change.getProductId());
+            }
+            version = Math.max(version, change.getVersion());
+        }
+        snapshot = PriceSnapshot.of(prices, version);
+        if (fullReload) {
+            lastFullReload = System.nanoTime();
+            loaded = true;
+        }
+        log.debug("Price catalog at version {} with {} products ({} rows read)", version, prices.size(), changes.size());
+    }
+
+    /**
+     * Load the catalog before the first order; after a failure the scheduled refresh retries the load
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            WorkloadContext.runAsBackground(this::refresh);
+            log.info("Price catalog loaded at version {} with {} products", snapshot.getVersion(), snapshot.size());
+        } catch (Exception e) {
+            log.error("Could not load the price catalog; retrying every {} ms, not ready until then",
+                    properties.getRefreshInterval(), e);
+        }
+    }
+}
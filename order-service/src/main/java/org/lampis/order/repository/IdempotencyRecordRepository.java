@@ -0,0 +1,60 @@
+package org.lampis.order.repository;
+
+import org.lampis.order.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for IdempotencyRecord entity
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claim a key; fails with a constraint violation when it already exists
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, locked_at, expires_at) " +
+            "VALUES (:key, :requestHash, :lockedAt, :expiresAt)", nativeQuery = true)
+    int insertClaim(@Param("key") String key,
+                    @Param("requestHash") String requestHash,
+                    @Param("lockedAt") LocalDateTime lockedAt,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Take over a claim whose lease expired, e.g. after its instance crashed before the order committed
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.lockedAt = :now " +
+            "WHERE r.key = :key AND r.responseBody IS NULL AND r.lockedAt < :staleBefore")
+    int takeOverStaleClaim(@Param("key") String key,
+                           @Param("now") LocalDateTime now,
+                           @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Store the response of a claimed key; updates nothing when the claim made at lockedAt was taken over
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.orderId = :orderId, r.responseBody = :responseBody " +
+            "WHERE r.key = :key AND r.responseBody IS NULL AND r.lockedAt = :lockedAt")
+    int complete(@Param("key") String key,
+                 @Param("lockedAt") LocalDateTime lockedAt,
+                 @Param("orderId") Long orderId,
+                 @Param("responseBody") String responseBody);
+
+    /**
+     * Release the claim made at lockedAt by a failed request, so a retry runs it again
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.responseBody IS NULL AND r.lockedAt = :lockedAt")
+    int releaseClaim(@Param("key") String key, @Param("lockedAt") LocalDateTime lockedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
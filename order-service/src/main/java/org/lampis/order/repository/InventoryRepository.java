@@ -3,6 +3,7 @@ package org.lampis.order.repository;
 import org.lampis.order.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,17 +15,30 @@ import java.util.Optional;
  * Repository for Inventory entity
  */
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
 
     /**
      * Find inventory by product ID
      */
     Optional<Inventory> findByProductId(Long productId);
 
+    /**
+     * Find the available stock of a product without loading the entity, so a later locked read is not stale
+     */
+    @Query("SELECT i.availableStock FROM Inventory i WHERE i.productId = :productId")
+    Optional<Integer> findAvailableStockByProductId(@Param("productId") Long productId);
+
     /**
      * Find inventory by product ID with pessimistic lock for stock updates
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT i FROM Inventory i WHERE i.productId = :productId")
     Optional<Inventory> findByProductIdWithLock(@Param("productId") Long productId);
+
+    /**
+     * Release stock for a product with a single in-place update
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.availableStock = i.availableStock + :quantity WHERE i.productId = :productId")
+    int releaseStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 }
@@ -0,0 +1,19 @@
+package org.lampis.order.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom operations for Inventory that bypass the persistence context
+ */
+public interface InventoryRepositoryCustom {
+
+    /**
+     * Take stock for many products with JDBC-batched conditional updates, in the map's iteration order
+     * <p>
+     * A negative quantity returns that much stock.
+     *
+     * @return the product IDs that were not reserved because they are unknown or short of stock
+     */
+    List<Long> batchReserveStock(Map<Long, Integer> quantitiesByProduct);
+}
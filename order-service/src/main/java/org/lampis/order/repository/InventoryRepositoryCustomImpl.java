@@ -0,0 +1,42 @@
+package org.lampis.order.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch implementation of InventoryRepositoryCustom.
+ * One conditional update per product both checks and takes the stock, so no row is read first.
+ */
+@RequiredArgsConstructor
+public class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private static final String RESERVE_SQL =
+            "UPDATE inventory SET available_stock = available_stock - ? WHERE product_id = ? AND available_stock >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> batchReserveStock(Map<Long, Integer> quantitiesByProduct) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantitiesByProduct.entrySet());
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        int[][] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+        });
+
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[0][i] == 0) {
+                rejected.add(entries.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+}
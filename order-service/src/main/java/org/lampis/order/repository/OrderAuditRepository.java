@@ -10,7 +10,7 @@ import java.util.List;
  * Repository for OrderAudit entity
  */
 @Repository
-public interface OrderAuditRepository extends JpaRepository<OrderAudit, Long> {
+public interface OrderAuditRepository extends JpaRepository<OrderAudit, Long>, OrderAuditRepositoryCustom {
 
     /**
      * Find all audit entries for an order
@@ -0,0 +1,16 @@
+package org.lampis.order.repository;
+
+import org.lampis.order.entity.OrderAudit;
+
+import java.util.List;
+
+/**
+ * Custom operations for OrderAudit that bypass the persistence context
+ */
+public interface OrderAuditRepositoryCustom {
+
+    /**
+     * Insert audit entries using JDBC batching
+     */
+    void batchInsert(List<OrderAudit> audits);
+}
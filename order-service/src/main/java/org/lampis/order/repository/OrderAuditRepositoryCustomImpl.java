@@ -0,0 +1,41 @@
+package org.lampis.order.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.lampis.order.entity.OrderAudit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch implementation of OrderAuditRepositoryCustom.
+ * OrderAudit uses IDENTITY ids, so Hibernate cannot batch its inserts.
+ */
+@RequiredArgsConstructor
+public class OrderAuditRepositoryCustomImpl implements OrderAuditRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_audit (order_id, field_name, old_value, new_value, changed_at, changed_by) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<OrderAudit> audits) {
+        if (audits.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, audits, BATCH_SIZE, (ps, audit) -> {
+            ps.setLong(1, audit.getOrderId());
+            ps.setString(2, audit.getFieldName());
+            ps.setString(3, audit.getOldValue());
+            ps.setString(4, audit.getNewValue());
+            ps.setTimestamp(5, audit.getChangedAt() != null ? Timestamp.valueOf(audit.getChangedAt()) : now);
+            ps.setString(6, audit.getChangedBy());
+        });
+    }
+}
@@ -3,13 +3,24 @@ package org.lampis.order.repository;
 
 import org.lampis.common.enums.OrderStatus;
 import org.lampis.order.entity.Order;
+import org.lampis.order.entity.OrderLine;
+import org.lampis.order.repository.projection.OrderStatusView;
+import org.lampis.order.repository.projection.OrderSummaryView;
+import org.lampis.order.repository.projection.ProductQuantityView;
+import org.lampis.order.repository.projection.StatusCountView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +28,14 @@ import java.util.Optional;
  * Repository for Order entity
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderRepositoryCustom {
+
+    /**
+     * Select list for OrderSummaryView projections
+     */
+    String SUMMARY_COLUMNS = "o.id AS id, o.customerId AS customerId, o.status AS status, " +
+            "o.orderDate AS orderDate, o.totalAmount AS totalAmount, " +
+            "o.createdAt AS createdAt, o.updatedAt AS updatedAt";
 
     /**
      * Find order by ID excluding soft deleted
@@ -25,6 +43,31 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.id = :id AND o.deleted = false")
     Optional<Order> findByIdAndNotDeleted(@Param("id") Long id);
 
+    /**
+     * Find order by ID excluding soft deleted, locking the row so writers of one order take turns
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id AND o.deleted = false")
+    Optional<Order> findByIdAndNotDeletedForUpdate(@Param("id") Long id);
+
+    /**
+     * Find non-deleted orders by IDs
+     */
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.deleted = false")
+    List<Order> findAllByIdInAndNotDeleted(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the order lines of several orders with a single query
+     */
+    @Query("SELECT ol FROM OrderLine ol WHERE ol.order.id IN :orderIds ORDER BY ol.id")
+    List<OrderLine> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Find one page of the lines of an order, for orders too large to return at once
+     */
+    @Query("SELECT ol FROM OrderLine ol WHERE ol.order.id = :orderId")
+    Page<OrderLine> findLinesByOrderId(@Param("orderId") Long orderId, Pageable pageable);
+
     /**
      * Find all non-deleted orders
      */
@@ -44,13 +87,112 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByStatus(@Param("status") OrderStatus status, Pageable pageable);
 
     /**
-     * Find orders by status for automatic progression
+     * Version of a non-deleted order for conditional reads: its last modification time
      */
-    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.deleted = false")
-    List<Order> findByStatusForProcessing(@Param("status") OrderStatus status);
+    @Query("SELECT o.updatedAt FROM Order o WHERE o.id = :id AND o.deleted = false")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Find the header of a non-deleted order without touching its lines
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Order o WHERE o.id = :id AND o.deleted = false")
+    Optional<OrderSummaryView> findSummaryById(@Param("id") Long id);
+
+    /**
+     * Find headers of non-deleted orders by IDs
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM Order o WHERE o.id IN :ids AND o.deleted = false")
+    List<OrderSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find headers of all non-deleted orders
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Order o WHERE o.deleted = false",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.deleted = false")
+    Page<OrderSummaryView> findAllSummariesNotDeleted(Pageable pageable);
+
+    /**
+     * Find headers of orders by customer ID
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Order o " +
+            "WHERE o.customerId = :customerId AND o.deleted = false",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.customerId = :customerId AND o.deleted = false")
+    Page<OrderSummaryView> findSummariesByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    /**
+     * Find headers of orders by status
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM Order o WHERE o.status = :status AND o.deleted = false",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.status = :status AND o.deleted = false")
+    Page<OrderSummaryView> findSummariesByStatus(@Param("status") OrderStatus status, Pageable pageable);
+
+    /**
+     * Find status views of orders by status for automatic progression
+     */
+    @Query("SELECT o.id AS id, o.customerId AS customerId, o.status AS status " +
+            "FROM Order o WHERE o.status = :status AND o.deleted = false ORDER BY o.id")
+    List<OrderStatusView> findStatusViewsByStatus(@Param("status") OrderStatus status);
+
+    /**
+     * Compare-and-set status transition in a single statement.
+     * Returns the number of affected rows: 0 means the order is missing, deleted
+     * or no longer in one of the allowed source statuses.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.updatedAt = :updatedAt " +
+            "WHERE o.id = :id AND o.status IN :allowedFrom AND o.deleted = false")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("newStatus") OrderStatus newStatus,
+                         @Param("allowedFrom") Collection<OrderStatus> allowedFrom,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Find status views of non-deleted orders by IDs, locking the rows in ID order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id AS id, o.customerId AS customerId, o.status AS status " +
+            "FROM Order o WHERE o.id IN :ids AND o.deleted = false ORDER BY o.id")
+    List<OrderStatusView> findStatusViewsByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find IDs of non-deleted orders matching the optional customer and status filters
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.deleted = false " +
+            "AND (:customerId IS NULL OR o.customerId = :customerId) " +
+            "AND (:status IS NULL OR o.status = :status) ORDER BY o.id")
+    List<Long> findIdsByFilter(@Param("customerId") Long customerId,
+                               @Param("status") OrderStatus status,
+                               Pageable pageable);
+
+    /**
+     * Set-wise status transition for orders currently in the given source status.
+     * Returns the number of affected rows.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :newStatus, o.updatedAt = :updatedAt " +
+            "WHERE o.id IN :ids AND o.status = :fromStatus AND o.deleted = false")
+    int transitionStatusForIds(@Param("ids") Collection<Long> ids,
+                               @Param("newStatus") OrderStatus newStatus,
+                               @Param("fromStatus") OrderStatus fromStatus,
+                               @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Sum line quantities per product for a set of orders, in product ID order
+     */
+    @Query("SELECT ol.productId AS productId, SUM(ol.quantity) AS quantity " +
+            "FROM OrderLine ol WHERE ol.order.id IN :orderIds " +
+            "GROUP BY ol.productId ORDER BY ol.productId")
+    List<ProductQuantityView> sumLineQuantitiesByProduct(@Param("orderIds") Collection<Long> orderIds);
 
     /**
      * Count orders by status
      */
     long countByStatusAndDeletedFalse(OrderStatus status);
+
+    /**
+     * Count non-deleted orders per status with one scan
+     * Used to seed the status counters
+     */
+    @Query("SELECT o.status AS status, COUNT(o) AS count FROM Order o WHERE o.deleted = false GROUP BY o.status")
+    List<StatusCountView> countNotDeletedGroupByStatus();
 }
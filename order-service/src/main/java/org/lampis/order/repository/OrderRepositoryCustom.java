@@ -0,0 +1,16 @@
+package org.lampis.order.repository;
+
+import org.lampis.common.dto.order.OrderLineDTO;
+
+import java.util.List;
+
+/**
+ * Custom operations for Order that bypass the persistence context
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Insert priced lines of an order using JDBC batching
+     */
+    void batchInsertLines(Long orderId, List<OrderLineDTO> lines);
+}
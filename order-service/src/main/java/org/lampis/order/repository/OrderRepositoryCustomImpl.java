@@ -0,0 +1,34 @@
+package org.lampis.order.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * JDBC batch implementation of OrderRepositoryCustom.
+ * OrderLine uses IDENTITY ids, so Hibernate cannot batch its inserts.
+ */
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String INSERT_LINE_SQL =
+            "INSERT INTO order_lines (order_id, product_id, quantity, unit_price, line_total) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsertLines(Long orderId, List<OrderLineDTO> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setLong(1, orderId);
+            ps.setLong(2, line.getProductId());
+            ps.setInt(3, line.getQuantity());
+            ps.setBigDecimal(4, line.getUnitPrice().toDecimal());
+            ps.setBigDecimal(5, line.getLineTotal().toDecimal());
+        });
+    }
+}
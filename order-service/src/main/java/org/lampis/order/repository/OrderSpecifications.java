@@ -0,0 +1,56 @@
+package org.lampis.order.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.lampis.common.dto.order.OrderSearchCriteria;
+import org.lampis.common.money.Money;
+import org.lampis.order.entity.Order;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications for dynamically built order queries
+ */
+public final class OrderSpecifications {
+
+    private static final int AMOUNT_SCALE = Money.DEFAULT_CURRENCY.getDefaultFractionDigits();
+
+    private OrderSpecifications() {
+        // Utility class
+    }
+
+    /**
+     * Match non-deleted orders satisfying every filter present in the criteria
+     */
+    public static Specification<Order> matches(OrderSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isFalse(root.get("deleted")));
+
+            if (criteria.getCustomerId() != null) {
+                predicates.add(cb.equal(root.get("customerId"), criteria.getCustomerId()));
+            }
+            if (criteria.getStatuses() != null && !criteria.getStatuses().isEmpty()) {
+                predicates.add(root.get("status").in(criteria.getStatuses()));
+            }
+            if (criteria.getOrderDateFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("orderDate"), criteria.getOrderDateFrom()));
+            }
+            if (criteria.getOrderDateTo() != null) {
+                predicates.add(cb.lessThan(root.get("orderDate"), criteria.getOrderDateTo()));
+            }
+            // totals are whole cents, so a bound between two cents moves to the next one inside the range
+            if (criteria.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<Money>get("totalAmount"),
+                        Money.of(criteria.getMinAmount().setScale(AMOUNT_SCALE, RoundingMode.CEILING))));
+            }
+            if (criteria.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<Money>get("totalAmount"),
+                        Money.of(criteria.getMaxAmount().setScale(AMOUNT_SCALE, RoundingMode.FLOOR))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
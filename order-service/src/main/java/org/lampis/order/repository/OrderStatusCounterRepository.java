@@ -0,0 +1,45 @@
+package org.lampis.order.repository;
+
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.order.entity.OrderStatusCounter;
+import org.lampis.order.repository.projection.StatusCountView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for OrderStatusCounter entity
+ */
+@Repository
+public interface OrderStatusCounterRepository extends JpaRepository<OrderStatusCounter, OrderStatusCounter.Key> {
+
+    /**
+     * Add delta to one stripe of a status counter in place
+     */
+    @Modifying
+    @Query("UPDATE OrderStatusCounter c SET c.orderCount = c.orderCount + :delta " +
+            "WHERE c.status = :status AND c.stripe = :stripe")
+    int addToStripe(@Param("status") OrderStatus status,
+                    @Param("stripe") Integer stripe,
+                    @Param("delta") long delta);
+
+    /**
+     * Create one stripe of a status counter; fails with a constraint violation when it already exists
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_status_counters (status, stripe, order_count) VALUES (:status, :stripe, :orderCount)",
+            nativeQuery = true)
+    int insertStripe(@Param("status") String status,
+                     @Param("stripe") int stripe,
+                     @Param("orderCount") long orderCount);
+
+    /**
+     * Sum the stripes of every status
+     */
+    @Query("SELECT c.status AS status, SUM(c.orderCount) AS count FROM OrderStatusCounter c GROUP BY c.status")
+    List<StatusCountView> sumByStatus();
+}
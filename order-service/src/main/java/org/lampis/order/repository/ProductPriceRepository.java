@@ -0,0 +1,24 @@
+package org.lampis.order.repository;
+
+import org.lampis.order.entity.ProductPrice;
+import org.lampis.order.repository.projection.ProductPriceView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for ProductPrice entity
+ */
+@Repository
+public interface ProductPriceRepository extends JpaRepository<ProductPrice, Long> {
+
+    /**
+     * Prices changed after a catalog version, oldest change first; version 0 reads the whole catalog
+     */
+    @Query("SELECT p.productId AS productId, p.price AS price, p.version AS version FROM ProductPrice p " +
+            "WHERE p.version > :version ORDER BY p.version")
+    List<ProductPriceView> findChangedSince(@Param("version") long version);
+}
@@ -0,0 +1,15 @@
+package org.lampis.order.repository.projection;
+
+import org.lampis.common.enums.OrderStatus;
+
+/**
+ * Lightweight projection of an order's identity and status
+ */
+public interface OrderStatusView {
+
+    Long getId();
+
+    Long getCustomerId();
+
+    OrderStatus getStatus();
+}
@@ -0,0 +1,69 @@
+package org.lampis.order.repository.projection;
+
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.money.Money;
+import org.lampis.order.entity.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of an order's header columns, without its lines
+ */
+public interface OrderSummaryView {
+
+    Long getId();
+
+    Long getCustomerId();
+
+    OrderStatus getStatus();
+
+    LocalDateTime getOrderDate();
+
+    Money getTotalAmount();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    /**
+     * View an already loaded order entity through this projection
+     */
+    static OrderSummaryView of(Order order) {
+        return new OrderSummaryView() {
+            @Override
+            public Long getId() {
+                return order.getId();
+            }
+
+            @Override
+            public Long getCustomerId() {
+                return order.getCustomerId();
+            }
+
+            @Override
+            public OrderStatus getStatus() {
+                return order.getStatus();
+            }
+
+            @Override
+            public LocalDateTime getOrderDate() {
+                return order.getOrderDate();
+            }
+
+            @Override
+            public Money getTotalAmount() {
+                return order.getTotalAmount();
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return order.getCreatedAt();
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return order.getUpdatedAt();
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package org.lampis.order.repository.projection;
+
+import org.lampis.common.money.Money;
+
+/**
+ * Price of a product at a catalog version
+ */
+public interface ProductPriceView {
+
+    Long getProductId();
+
+    Money getPrice();
+
+    Long getVersion();
+}
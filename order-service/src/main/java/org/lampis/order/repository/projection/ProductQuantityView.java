@@ -0,0 +1,11 @@
+package org.lampis.order.repository.projection;
+
+/**
+ * Aggregated quantity per product across a set of order lines
+ */
+public interface ProductQuantityView {
+
+    Long getProductId();
+
+    Long getQuantity();
+}
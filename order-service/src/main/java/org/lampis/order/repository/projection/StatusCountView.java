@@ -0,0 +1,13 @@
+package org.lampis.order.repository.projection;
+
+import org.lampis.common.enums.OrderStatus;
+
+/**
+ * Order count for one status
+ */
+public interface StatusCountView {
+
+    OrderStatus getStatus();
+
+    Long getCount();
+}
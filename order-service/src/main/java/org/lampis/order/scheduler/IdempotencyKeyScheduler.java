@@ -0,0 +1,33 @@
+package org.lampis.order.scheduler;
+
+import org.lampis.order.datasource.WorkloadContext;
+import org.lampis.order.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled purge of Idempotency-Keys past their TTL, which keeps the table bounded
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyScheduler {
+
+    private final IdempotencyService idempotencyService;
+
+    /**
+     * Purge expired keys every 10 minutes
+     * Runs in the background connection bulkhead so it cannot starve API traffic
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval:600000}") // Default: 10 minutes
+    public void purgeExpiredKeys() {
+        try {
+            int purged = WorkloadContext.runAsBackground(idempotencyService::purgeExpired);
+            log.info("Purged {} expired idempotency keys", purged);
+        } catch (Exception e) {
+            log.error("Error during idempotency key purge", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.lampis.order.scheduler;
+
+import org.lampis.order.config.OrderSnapshotProperties;
+import org.lampis.order.datasource.WorkloadContext;
+import org.lampis.order.snapshot.OrderSnapshotExporter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled columnar snapshots of orders and order_lines for offline analytics
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSnapshotScheduler {
+
+    private final OrderSnapshotExporter snapshotExporter;
+    private final OrderSnapshotProperties properties;
+
+    /**
+     * Full snapshot every night at 02:00
+     * Runs in the background connection bulkhead so it cannot starve API traffic
+     */
+    @Scheduled(cron = "${order.snapshot.full-cron:0 0 2 * * *}")
+    public void exportFull() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            WorkloadContext.runAsBackground(snapshotExporter::exportFull);
+        } catch (Exception e) {
+            log.error("Error during full order snapshot", e);
+        }
+    }
+
+    /**
+     * Snapshot of the orders changed since the newest snapshot every hour
+     * Runs in the background connection bulkhead so it cannot starve API traffic
+     */
+    @Scheduled(fixedDelayString = "${order.snapshot.incremental-interval:3600000}") // Default: 1 hour
+    public void exportIncremental() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            WorkloadContext.runAsBackground(snapshotExporter::exportIncremental);
+        } catch (Exception e) {
+            log.error("Error during incremental order snapshot", e);
+        }
+    }
+}
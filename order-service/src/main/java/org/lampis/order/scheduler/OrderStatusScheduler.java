@@ -1,5 +1,6 @@
 package org.lampis.order.scheduler;
 
+import org.lampis.order.datasource.WorkloadContext;
 import org.lampis.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,12 +20,13 @@ public class OrderStatusScheduler {
     /**
      * Progress order statuses every 5 minutes
      * Can be configured via application.properties
+     * Runs in the background connection bulkhead so it cannot starve API traffic
      */
     @Scheduled(fixedDelayString = "${order.status.progression.interval:300000}") // Default: 5 minutes
     public void progressOrderStatuses() {
         log.info("Executing scheduled order status progression task");
         try {
-            orderService.progressOrderStatuses();
+            WorkloadContext.runAsBackground(orderService::progressOrderStatuses);
             log.info("Order status progression task completed successfully");
         } catch (Exception e) {
             log.error("Error during order status progression", e);
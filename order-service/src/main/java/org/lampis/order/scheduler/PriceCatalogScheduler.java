@@ -0,0 +1,32 @@
+package org.lampis.order.scheduler;
+
+import org.lampis.order.datasource.WorkloadContext;
+import org.lampis.order.pricing.ProductPriceCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled refresh of the in-memory price catalog from product_prices
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceCatalogScheduler {
+
+    private final ProductPriceCatalog priceCatalog;
+
+    /**
+     * Refresh the catalog every 5 seconds
+     * Runs in the background connection bulkhead so it cannot starve API traffic
+     */
+    @Scheduled(fixedDelayString = "${order.pricing.refresh-interval:5000}") // Default: 5 seconds
+    public void refreshPrices() {
+        try {
+            WorkloadContext.runAsBackground(priceCatalog::refresh);
+        } catch (Exception e) {
+            log.error("Error during price catalog refresh", e);
+        }
+    }
+}
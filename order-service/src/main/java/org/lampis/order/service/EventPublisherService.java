@@ -5,28 +5,35 @@ import org.lampis.common.event.order.OrderCreatedEvent;
 import org.lampis.common.event.order.OrderStatusChangedEvent;
 import org.lampis.common.event.order.OrderUpdatedEvent;
 
+import java.util.List;
+
 /**
  * Service for publishing order events to RabbitMQ
  */
 public interface EventPublisherService {
 
     /**
-     * Publish order created event
+     * Publish order created event once the current transaction commits
      */
     void publishOrderCreatedEvent(OrderCreatedEvent event);
 
     /**
-     * Publish order updated event
+     * Publish order updated event once the current transaction commits
      */
     void publishOrderUpdatedEvent(OrderUpdatedEvent event);
 
     /**
-     * Publish order status changed event
+     * Publish order status changed event once the current transaction commits
      */
     void publishOrderStatusChangedEvent(OrderStatusChangedEvent event);
 
     /**
-     * Publish order cancelled event
+     * Publish a batch of order status changed events over a single channel, once the current transaction commits
+     */
+    void publishOrderStatusChangedEvents(List<OrderStatusChangedEvent> events);
+
+    /**
+     * Publish order cancelled event once the current transaction commits
      */
     void publishOrderCancelledEvent(OrderCancelledEvent event);
 }
@@ -0,0 +1,33 @@
+package org.lampis.order.service;
+
+import lombok.Value;
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderResponse;
+
+import java.util.function.Supplier;
+
+/**
+ * Service interface for Idempotency-Key handling of order creation
+ */
+public interface IdempotencyService {
+
+    /**
+     * Create an order at most once per key: the first request runs create, and repeats of the same
+     * request get its response. A duplicate arriving while the first one runs waits for it.
+     */
+    Result createOrderOnce(String key, CreateOrderRequest request, Supplier<OrderResponse> create);
+
+    /**
+     * Delete keys past their TTL
+     */
+    int purgeExpired();
+
+    /**
+     * Response of an idempotent request; replayed when it is the stored response of an earlier request
+     */
+    @Value
+    class Result {
+        OrderResponse response;
+        boolean replayed;
+    }
+}
@@ -0,0 +1,28 @@
+package org.lampis.order.service;
+
+import org.lampis.common.dto.order.OrderSearchKeyset;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor of the order search: the (orderDate, id) of the last order of a page
+ */
+public final class OrderSearchCursor {
+
+    private OrderSearchCursor() {
+    }
+
+    public static String encode(LocalDateTime orderDate, Long orderId) {
+        return new OrderSearchKeyset(orderDate, orderId).encode();
+    }
+
+    public static ScrollPosition decode(String cursor) {
+        OrderSearchKeyset keyset = OrderSearchKeyset.decode(cursor);
+        if (keyset == null) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(Map.of("orderDate", keyset.getOrderDate(), "id", keyset.getOrderId()));
+    }
+}
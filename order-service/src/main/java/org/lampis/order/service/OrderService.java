@@ -1,13 +1,22 @@
 package org.lampis.order.service;
 
+import org.lampis.common.dto.order.BulkOrderStatusResponse;
+import org.lampis.common.dto.order.BulkUpdateOrderStatusRequest;
 import org.lampis.common.dto.order.CreateOrderRequest;
 import org.lampis.common.dto.order.OrderAuditResponse;
+import org.lampis.common.dto.order.OrderFieldSelection;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.OrderLookupResponse;
+import org.lampis.common.dto.order.OrderSearchCriteria;
+import org.lampis.common.dto.order.OrderSearchResponse;
+import org.lampis.common.dto.order.OrderStatsResponse;
 import org.lampis.common.dto.order.OrderResponse;
 import org.lampis.common.dto.order.UpdateOrderRequest;
 import org.lampis.common.enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,24 +30,39 @@ public interface OrderService {
     OrderResponse createOrder(CreateOrderRequest request);
 
     /**
-     * Get order by ID
+     * Get order by ID with only the selected fields
      */
-    OrderResponse getOrderById(Long orderId);
+    OrderResponse getOrderById(Long orderId, OrderFieldSelection fields);
+
+    /**
+     * Get the last modification time of an order, its version for conditional reads
+     */
+    LocalDateTime getOrderLastModified(Long orderId);
+
+    /**
+     * Get several orders by ID, in request order, with explicit misses
+     */
+    OrderLookupResponse getOrdersByIds(List<Long> orderIds, OrderFieldSelection fields);
 
     /**
      * Get all orders with pagination
      */
-    Page<OrderResponse> getAllOrders(Pageable pageable);
+    Page<OrderResponse> getAllOrders(Pageable pageable, OrderFieldSelection fields);
 
     /**
      * Get orders by customer ID
      */
-    Page<OrderResponse> getOrdersByCustomerId(Long customerId, Pageable pageable);
+    Page<OrderResponse> getOrdersByCustomerId(Long customerId, Pageable pageable, OrderFieldSelection fields);
 
     /**
      * Get orders by status
      */
-    Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable);
+    Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable, OrderFieldSelection fields);
+
+    /**
+     * Search orders combining all given filters, newest first, with keyset pagination
+     */
+    OrderSearchResponse searchOrders(OrderSearchCriteria criteria, String cursor, int size, OrderFieldSelection fields);
 
     /**
      * Update order
@@ -50,16 +74,31 @@ public interface OrderService {
      */
     OrderResponse updateOrderStatus(Long orderId, OrderStatus newStatus);
 
+    /**
+     * Update the status of many orders selected by ID list or filter
+     */
+    BulkOrderStatusResponse bulkUpdateOrderStatus(BulkUpdateOrderStatusRequest request);
+
     /**
      * Delete order (soft delete)
      */
     void deleteOrder(Long orderId);
 
+    /**
+     * Get order counts per status from the maintained counters
+     */
+    OrderStatsResponse getOrderStats();
+
     /**
      * Get order audit history
      */
     List<OrderAuditResponse> getOrderHistory(Long orderId);
 
+    /**
+     * Get one page of the lines of an order, in line ID order
+     */
+    Page<OrderLineDTO> getOrderLines(Long orderId, Pageable pageable);
+
     /**
      * Progress orders to next status (for scheduled task)
      */
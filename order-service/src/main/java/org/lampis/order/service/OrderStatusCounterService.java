@@ -0,0 +1,36 @@
+package org.lampis.order.service;
+
+import org.lampis.common.dto.order.OrderStatsResponse;
+import org.lampis.common.enums.OrderStatus;
+
+/**
+ * Service maintaining striped per-status order counters
+ * Record methods must run inside the transaction that changes the orders
+ */
+public interface OrderStatusCounterService {
+
+    /**
+     * Count newly created orders
+     */
+    void recordCreated(OrderStatus status, long count);
+
+    /**
+     * Move orders from one status counter to another
+     */
+    void recordTransition(OrderStatus fromStatus, OrderStatus toStatus, long count);
+
+    /**
+     * Stop counting deleted orders
+     */
+    void recordDeleted(OrderStatus status, long count);
+
+    /**
+     * Current counts, summed over the stripes
+     */
+    OrderStatsResponse getStatusCounts();
+
+    /**
+     * Create missing counter rows, seeding them from the orders table when empty
+     */
+    void initializeCounters();
+}
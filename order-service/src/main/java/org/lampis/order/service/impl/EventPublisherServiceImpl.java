@@ -9,10 +9,18 @@ import org.lampis.order.service.EventPublisherService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
 
 /**
  * Implementation of EventPublisherService
+ * <p>
+ * Events are held until the transaction that wrote their order commits and dropped if it rolls back,
+ * so consumers and the status streams never see an order or a status the database does not have.
+ * Outside a transaction they are sent right away.
  */
 @Service
 @RequiredArgsConstructor
@@ -20,45 +28,90 @@ import org.springframework.stereotype.Service;
 public class EventPublisherServiceImpl implements EventPublisherService {
 
     private final RabbitTemplate rabbitTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     public void publishOrderCreatedEvent(OrderCreatedEvent event) {
-        log.info("Publishing OrderCreatedEvent for order: {}", event.getOrderId());
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.ORDER_EXCHANGE,
-                RabbitMQConfig.ORDER_CREATED_ROUTING_KEY,
-                event
-        );
+        applicationEventPublisher.publishEvent(
+                new OrderMessage(RabbitMQConfig.ORDER_CREATED_ROUTING_KEY, event.getOrderId(), event));
     }
 
     @Override
     public void publishOrderUpdatedEvent(OrderUpdatedEvent event) {
-        log.info("Publishing OrderUpdatedEvent for order: {}", event.getOrderId());
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.ORDER_EXCHANGE,
-                RabbitMQConfig.ORDER_UPDATED_ROUTING_KEY,
-                event
-        );
+        applicationEventPublisher.publishEvent(
+                new OrderMessage(RabbitMQConfig.ORDER_UPDATED_ROUTING_KEY, event.getOrderId(), event));
     }
 
     @Override
     public void publishOrderStatusChangedEvent(OrderStatusChangedEvent event) {
-        log.info("Publishing OrderStatusChangedEvent for order: {} from {} to {}",
-                event.getOrderId(), event.getOldStatus(), event.getNewStatus());
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.ORDER_EXCHANGE,
-                RabbitMQConfig.ORDER_STATUS_CHANGED_ROUTING_KEY,
-                event
-        );
+        applicationEventPublisher.publishEvent(new StatusChanges(List.of(event)));
+    }
+
+    @Override
+    public void publishOrderStatusChangedEvents(List<OrderStatusChangedEvent> events) {
+        if (!events.isEmpty()) {
+            applicationEventPublisher.publishEvent(new StatusChanges(List.copyOf(events)));
+        }
+    }
+
+    /**
+     * Send status changes once their transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void sendStatusChanges(StatusChanges changes) {
+        List<OrderStatusChangedEvent> events = changes.events();
+        if (events.size() == 1) {
+            OrderStatusChangedEvent event = events.get(0);
+            log.info("Publishing OrderStatusChangedEvent for order: {} from {} to {}",
+                    event.getOrderId(), event.getOldStatus(), event.getNewStatus());
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.ORDER_EXCHANGE,
+                    RabbitMQConfig.ORDER_STATUS_CHANGED_ROUTING_KEY,
+                    event
+            );
+            return;
+        }
+        log.info("Publishing {} OrderStatusChangedEvents", events.size());
+        rabbitTemplate.invoke(operations -> {
+            for (OrderStatusChangedEvent event : events) {
+                operations.convertAndSend(
+                        RabbitMQConfig.ORDER_EXCHANGE,
+                        RabbitMQConfig.ORDER_STATUS_CHANGED_ROUTING_KEY,
+                        event
+                );
+            }
+            return null;
+        });
     }
 
     @Override
     public void publishOrderCancelledEvent(OrderCancelledEvent event) {
-        log.info("Publishing OrderCancelledEvent for order: {}", event.getOrderId());
+        applicationEventPublisher.publishEvent(
+                new OrderMessage(RabbitMQConfig.ORDER_CANCELLED_ROUTING_KEY, event.getOrderId(), event));
+    }
+
+    /**
+     * Send an order event once its transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void sendOrderMessage(OrderMessage message) {
+        log.info("Publishing {} for order: {}", message.event().getClass().getSimpleName(), message.orderId());
         rabbitTemplate.convertAndSend(
                 RabbitMQConfig.ORDER_EXCHANGE,
-                RabbitMQConfig.ORDER_CANCELLED_ROUTING_KEY,
-                event
+                message.routingKey(),
+                message.event()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * An order event and its routing key, waiting for its transaction
+     */
+    public record OrderMessage(String routingKey, Long orderId, Object event) {
+    }
+
+    /**
+     * Status changes written by one transaction, or by one bulk chunk
+     */
+    public record StatusChanges(List<OrderStatusChangedEvent> events) {
+    }
+}
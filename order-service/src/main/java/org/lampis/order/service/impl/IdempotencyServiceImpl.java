@@ -0,0 +1,285 @@
+package org.lampis.order.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.exception.BusinessException;
+import org.lampis.common.exception.IdempotencyKeyConflictException;
+import org.lampis.order.config.IdempotencyProperties;
+import org.lampis.order.entity.IdempotencyRecord;
+import org.lampis.order.repository.IdempotencyRecordRepository;
+import org.lampis.order.service.IdempotencyService;
+import org.lampis.order.sharding.ShardRouter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of IdempotencyService
+ * <p>
+ * Keys live in the idempotency_keys table on the shard of the order's customer. A request claims its
+ * key with an insert in its own short transaction, so other instances see the claim while the order is
+ * being created. The response is stored in the order's transaction, fenced on the claim time: an order
+ * is committed together with its key, and a request whose stale claim was taken over rolls back.
+ * Duplicates on the same instance wait on the running request directly; duplicates on other instances
+ * poll the table. Completed keys are also cached per instance, so most replays cost no query.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final long MIN_POLL_MILLIS = 20;
+    private static final long MAX_POLL_MILLIS = 500;
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate orderTransactionTemplate;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Completed> completed;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository repository,
+                                  IdempotencyProperties properties,
+                                  ObjectMapper objectMapper,
+                                  ShardRouter shardRouter,
+                                  PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.orderTransactionTemplate = new TransactionTemplate(transactionManager);
+        int cacheSize = properties.getCacheSize();
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    public Result createOrderOnce(String key, CreateOrderRequest request, Supplier<OrderResponse> create) {
+        String requestHash = hash(request);
+
+        Completed cached = completed.get(key);
+        if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+            checkSameRequest(key, cached.requestHash(), requestHash);
+            return new Result(cached.response(), true);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkSameRequest(key, running.requestHash(), requestHash);
+            log.info("Waiting for the running request with Idempotency-Key {}", key);
+            return new Result(await(key, running.response()), true);
+        }
+        try {
+            int shard = shardRouter.shardForCustomer(request.getCustomerId());
+            Result result = shardRouter.onShard(shard, () -> claimAndRun(key, requestHash, create));
+            mine.response().complete(result.getResponse());
+            return result;
+        } catch (RuntimeException e) {
+            mine.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        completed.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+        int[] deleted = new int[1];
+        shardRouter.forEachShard(shard -> {
+            Integer shardDeleted = transactionTemplate.execute(status -> repository.deleteExpired(now));
+            deleted[0] += shardDeleted != null ? shardDeleted : 0;
+        });
+        return deleted[0];
+    }
+
+    private Result claimAndRun(String key, String requestHash, Supplier<OrderResponse> create) {
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+        long pause = MIN_POLL_MILLIS;
+        while (true) {
+            Claim claim = claim(key, requestHash);
+            if (claim.acquired()) {
+                return new Result(run(key, requestHash, claim, create), false);
+            }
+            IdempotencyRecord holder = claim.holder();
+            if (holder == null) {
+                // released or expired between our insert and read
+                continue;
+            }
+            checkSameRequest(key, holder.getRequestHash(), requestHash);
+            if (holder.isCompleted()) {
+                return new Result(remember(key, holder), true);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyKeyConflictException(key, "A request with Idempotency-Key " + key + " is still in progress");
+            }
+            sleep(key, pause);
+            pause = Math.min(pause * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    /**
+     * Claim the key, or return the record of the request holding it
+     */
+    private Claim claim(String key, String requestHash) {
+        // the claim time fences the completion, so keep it at a precision every database stores exactly
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime expiresAt = now.plus(properties.getTtl());
+        IdempotencyRecord existing = find(key);
+
+        if (existing != null && existing.getExpiresAt().isBefore(now)) {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteById(key));
+            existing = null;
+        }
+        if (existing == null) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        repository.insertClaim(key, requestHash, now, expiresAt));
+                return new Claim(true, now, expiresAt, null);
+            } catch (DataIntegrityViolationException e) {
+                return new Claim(false, null, null, find(key));
+            }
+        }
+
+        if (!existing.isCompleted() && existing.getRequestHash().equals(requestHash)) {
+            LocalDateTime staleBefore = now.minus(properties.getLease());
+            Integer takenOver = transactionTemplate.execute(status ->
+                    repository.takeOverStaleClaim(key, now, staleBefore));
+            if (takenOver != null && takenOver == 1) {
+                log.warn("Took over the stale claim of Idempotency-Key {}", key);
+                return new Claim(true, now, existing.getExpiresAt(), null);
+            }
+        }
+        return new Claim(false, null, null, existing);
+    }
+
+    /**
+     * Create the order and store its response in one transaction, so a committed order always has a completed key
+     */
+    private OrderResponse run(String key, String requestHash, Claim claim, Supplier<OrderResponse> create) {
+        OrderResponse response;
+        try {
+            response = orderTransactionTemplate.execute(status -> {
+                OrderResponse created = create.get();
+                if (repository.complete(key, claim.lockedAt(), created.getOrderId(), toJson(created)) == 0) {
+                    // our lease ran out and a retry took the claim over; it creates the order instead
+                    throw new IdempotencyKeyConflictException(key, "The claim of Idempotency-Key " + key + " was taken over");
+                }
+                return created;
+            });
+        } catch (RuntimeException e) {
+            // a failed request stores nothing, so a retry with the key runs again
+            try {
+                transactionTemplate.executeWithoutResult(status -> repository.releaseClaim(key, claim.lockedAt()));
+            } catch (RuntimeException releaseFailure) {
+                log.warn("Could not release Idempotency-Key {}; it is retried after the lease", key, releaseFailure);
+            }
+            throw e;
+        }
+
+        completed.put(key, new Completed(requestHash, response, claim.expiresAt()));
+        return response;
+    }
+
+    private OrderResponse remember(String key, IdempotencyRecord record) {
+        try {
+            OrderResponse response = objectMapper.readValue(record.getResponseBody(), OrderResponse.class);
+            completed.put(key, new Completed(record.getRequestHash(), response, record.getExpiresAt()));
+            return response;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response of Idempotency-Key " + key, e);
+        }
+    }
+
+    private IdempotencyRecord find(String key) {
+        return transactionTemplate.execute(status -> repository.findById(key).orElse(null));
+    }
+
+    private OrderResponse await(String key, CompletableFuture<OrderResponse> response) {
+        try {
+            return response.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException(key, "A request with Idempotency-Key " + key + " is still in progress");
+        } catch (ExecutionException e) {
+            // the same outcome as the request we waited for
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException(key, "Interrupted while waiting for Idempotency-Key " + key);
+        }
+    }
+
+    private void checkSameRequest(String key, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new BusinessException("IDEMPOTENCY_KEY_REUSED",
+                    "Idempotency-Key " + key + " was already used with a different request");
+        }
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash order request", e);
+        }
+    }
+
+    private String toJson(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise order response", e);
+        }
+    }
+
+    private void sleep(String key, long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException(key, "Interrupted while waiting for Idempotency-Key " + key);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<OrderResponse> response) {
+    }
+
+    private record Completed(String requestHash, OrderResponse response, LocalDateTime expiresAt) {
+    }
+
+    private record Claim(boolean acquired, LocalDateTime lockedAt, LocalDateTime expiresAt, IdempotencyRecord holder) {
+    }
+}
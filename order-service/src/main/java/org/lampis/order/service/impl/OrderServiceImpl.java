@@ -5,28 +5,62 @@ import org.lampis.common.enums.OrderStatus;
 import org.lampis.common.event.order.OrderCreatedEvent;
 import org.lampis.common.event.order.OrderStatusChangedEvent;
 import org.lampis.common.event.order.OrderUpdatedEvent;
+import org.lampis.common.exception.BusinessException;
 import org.lampis.common.exception.InsufficientStockException;
 import org.lampis.common.exception.InvalidOrderStateException;
+import org.lampis.common.exception.OrderConflictException;
 import org.lampis.common.exception.ResourceNotFoundException;
+import org.lampis.order.config.BulkOperationProperties;
+import org.lampis.order.config.InventoryProperties;
+import org.lampis.order.config.LargeOrderProperties;
 import org.lampis.order.entity.Inventory;
 import org.lampis.order.entity.Order;
 import org.lampis.order.entity.OrderAudit;
 import org.lampis.order.entity.OrderLine;
+import org.lampis.order.metrics.InventoryLockProfiler;
+import org.lampis.order.metrics.OrderMetrics;
+import org.lampis.order.metrics.OrderMetrics.Operation;
+import org.lampis.order.metrics.OrderMetrics.Phase;
+import org.lampis.order.pricing.PriceSnapshot;
+import org.lampis.order.pricing.ProductPriceCatalog;
 import org.lampis.order.repository.InventoryRepository;
 import org.lampis.order.repository.OrderAuditRepository;
 import org.lampis.order.repository.OrderRepository;
+import org.lampis.order.repository.OrderSpecifications;
+import org.lampis.order.repository.projection.OrderStatusView;
+import org.lampis.order.repository.projection.ProductQuantityView;
+import org.lampis.order.repository.projection.OrderSummaryView;
 import org.lampis.order.service.EventPublisherService;
+import org.lampis.order.service.OrderSearchCursor;
 import org.lampis.order.service.OrderService;
+import org.lampis.order.service.OrderStatusCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.lampis.common.money.Money;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -37,29 +71,52 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final Sort SEARCH_SORT = Sort.by(Sort.Direction.DESC, "orderDate", "id");
+
     private final OrderRepository orderRepository;
     private final InventoryRepository inventoryRepository;
     private final OrderAuditRepository orderAuditRepository;
     private final EventPublisherService eventPublisher;
+    private final BulkOperationProperties bulkProperties;
+    private final OrderStatusCounterService statusCounterService;
+    private final OrderMetrics orderMetrics;
+    private final InventoryLockProfiler lockProfiler;
+    private final ProductPriceCatalog priceCatalog;
+    private final LargeOrderProperties largeOrderProperties;
+    private final InventoryProperties inventoryProperties;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
         log.info("Creating order for customer: {}", request.getCustomerId());
+        int lineCount = request.getOrderLines().size();
+        if (lineCount > largeOrderProperties.getMaxLines()) {
+            throw new BusinessException("ORDER_TOO_LARGE",
+                    String.format("An order may have at most %d lines", largeOrderProperties.getMaxLines()));
+        }
+
+        // Price lines from the catalog; client prices are ignored
+        List<OrderLineDTO> pricedLines = priceLines(request.getOrderLines());
+        if (lineCount > largeOrderProperties.getLineThreshold()) {
+            return createLargeOrder(request.getCustomerId(), pricedLines);
+        }
 
         // Validate inventory
-        validateInventory(request.getOrderLines());
+        SortedMap<Long, Integer> quantitiesByProduct = quantitiesByProduct(pricedLines);
+        orderMetrics.time(Operation.CREATE, Phase.VALIDATE_INVENTORY, () -> validateInventory(quantitiesByProduct));
 
         // Create order entity
         Order order = Order.builder()
                 .customerId(request.getCustomerId())
                 .status(OrderStatus.UNPROCESSED)
                 .orderDate(LocalDateTime.now())
-                .totalAmount(BigDecimal.ZERO)
+                .totalAmount(Money.zero())
                 .build();
 
         // Add order lines
-        for (OrderLineDTO lineDTO : request.getOrderLines()) {
+        for (OrderLineDTO lineDTO : pricedLines) {
             OrderLine orderLine = OrderLine.builder()
                     .productId(lineDTO.getProductId())
                     .quantity(lineDTO.getQuantity())
@@ -72,10 +129,12 @@ public class OrderServiceImpl implements OrderService {
         order.calculateTotalAmount();
 
         // Reserve inventory
-        reserveInventory(request.getOrderLines());
+        orderMetrics.time(Operation.CREATE, Phase.RESERVE_INVENTORY, () -> changeStock(quantitiesByProduct));
 
         // Save order
-        order = orderRepository.save(order);
+        Order unsaved = order;
+        order = orderMetrics.time(Operation.CREATE, Phase.SAVE, () -> orderRepository.save(unsaved));
+        statusCounterService.recordCreated(order.getStatus(), 1);
         log.info("Order created with ID: {}", order.getId());
 
         // Publish event with order lines
@@ -85,44 +144,133 @@ public class OrderServiceImpl implements OrderService {
                 order.getStatus(),
                 order.getTotalAmount(),
                 order.getOrderDate(),
-                request.getOrderLines()
+                pricedLines
         );
-        eventPublisher.publishOrderCreatedEvent(event);
+        orderMetrics.time(Operation.CREATE, Phase.PUBLISH_EVENT, () -> eventPublisher.publishOrderCreatedEvent(event));
 
         return mapToResponse(order);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public OrderResponse getOrderById(Long orderId) {
+    public OrderResponse getOrderById(Long orderId, OrderFieldSelection fields) {
         log.info("Fetching order with ID: {}", orderId);
+        if (!fields.includesLines()) {
+            OrderSummaryView summary = orderRepository.findSummaryById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+            return mapToResponse(summary, null, fields);
+        }
         Order order = orderRepository.findByIdAndNotDeleted(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-        return mapToResponse(order);
+        return mapToResponse(OrderSummaryView.of(order), order.getOrderLines(), fields);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getAllOrders(Pageable pageable) {
+    public LocalDateTime getOrderLastModified(Long orderId) {
+        return orderRepository.findUpdatedAtById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderLookupResponse getOrdersByIds(List<Long> orderIds, OrderFieldSelection fields) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        log.info("Fetching {} orders by ID", distinctIds.size());
+        if (distinctIds.size() > bulkProperties.getMaxLookupIds()) {
+            throw new BusinessException("LOOKUP_LIMIT_EXCEEDED",
+                    String.format("Lookup accepts at most %d order IDs", bulkProperties.getMaxLookupIds()));
+        }
+
+        // One query for the orders, one for all of their lines when selected
+        List<OrderSummaryView> found = fields.includesLines()
+                ? orderRepository.findAllByIdInAndNotDeleted(distinctIds).stream().map(OrderSummaryView::of).toList()
+                : orderRepository.findSummariesByIdIn(distinctIds);
+        Map<Long, OrderSummaryView> orders = found.stream()
+                .collect(Collectors.toMap(OrderSummaryView::getId, Function.identity()));
+        Map<Long, List<OrderLine>> linesByOrderId = fields.includesLines()
+                ? findLinesByOrderId(orders.keySet())
+                : Map.of();
+
+        List<OrderLookupResult> results = new ArrayList<>(distinctIds.size());
+        for (Long orderId : distinctIds) {
+            OrderSummaryView order = orders.get(orderId);
+            results.add(OrderLookupResult.builder()
+                    .orderId(orderId)
+                    .found(order != null)
+                    .order(order != null ? mapToResponse(order, linesByOrderId.get(orderId), fields) : null)
+                    .build());
+        }
+
+        return OrderLookupResponse.builder()
+                .requested(distinctIds.size())
+                .found(orders.size())
+                .results(results)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> getAllOrders(Pageable pageable, OrderFieldSelection fields) {
         log.info("Fetching all orders, page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return orderRepository.findAllNotDeleted(pageable)
-                .map(this::mapToResponse);
+        return fields.includesLines()
+                ? mapPageToResponse(orderRepository.findAllNotDeleted(pageable), fields)
+                : orderRepository.findAllSummariesNotDeleted(pageable)
+                        .map(order -> mapToResponse(order, null, fields));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getOrdersByCustomerId(Long customerId, Pageable pageable) {
+    public Page<OrderResponse> getOrdersByCustomerId(Long customerId, Pageable pageable, OrderFieldSelection fields) {
         log.info("Fetching orders for customer: {}", customerId);
-        return orderRepository.findByCustomerId(customerId, pageable)
-                .map(this::mapToResponse);
+        return fields.includesLines()
+                ? mapPageToResponse(orderRepository.findByCustomerId(customerId, pageable), fields)
+                : orderRepository.findSummariesByCustomerId(customerId, pageable)
+                        .map(order -> mapToResponse(order, null, fields));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable) {
+    public Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable, OrderFieldSelection fields) {
         log.info("Fetching orders with status: {}", status);
-        return orderRepository.findByStatus(status, pageable)
-                .map(this::mapToResponse);
+        return fields.includesLines()
+                ? mapPageToResponse(orderRepository.findByStatus(status, pageable), fields)
+                : orderRepository.findSummariesByStatus(status, pageable)
+                        .map(order -> mapToResponse(order, null, fields));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderSearchResponse searchOrders(OrderSearchCriteria criteria, String cursor, int size,
+                                            OrderFieldSelection fields) {
+        log.info("Searching orders with {}, size: {}", criteria, size);
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new BusinessException("INVALID_PAGE_SIZE",
+                    String.format("Page size must be between 1 and %d", MAX_SEARCH_PAGE_SIZE));
+        }
+
+        // Fetch one extra row to know whether another page exists
+        ScrollPosition position = OrderSearchCursor.decode(cursor);
+        Window<Order> window = orderRepository.findBy(OrderSpecifications.matches(criteria),
+                query -> query.sortBy(SEARCH_SORT).limit(size + 1).scroll(position));
+        boolean hasNext = window.size() > size;
+        List<Order> orders = hasNext ? window.getContent().subList(0, size) : window.getContent();
+
+        Map<Long, List<OrderLine>> linesByOrderId = fields.includesLines()
+                ? findLinesByOrderId(orders.stream().map(Order::getId).toList())
+                : Map.of();
+        List<OrderResponse> responses = orders.stream()
+                .map(order -> mapToResponse(OrderSummaryView.of(order),
+                        linesByOrderId.getOrDefault(order.getId(), List.of()), fields))
+                .toList();
+
+        Order last = hasNext ? orders.get(orders.size() - 1) : null;
+        return OrderSearchResponse.builder()
+                .orders(responses)
+                .size(responses.size())
+                .hasNext(hasNext)
+                .nextCursor(last != null ? OrderSearchCursor.encode(last.getOrderDate(), last.getId()) : null)
+                .build();
     }
 
     @Override
@@ -130,7 +278,8 @@ public class OrderServiceImpl implements OrderService {
     public OrderResponse updateOrder(Long orderId, UpdateOrderRequest request) {
         log.info("Updating order: {}", orderId);
 
-        Order order = orderRepository.findByIdAndNotDeleted(orderId)
+        // Lock the order so a concurrent update or delete cannot return or take its stock twice
+        Order order = orderRepository.findByIdAndNotDeletedForUpdate(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
         // Can only update UNPROCESSED orders
@@ -138,17 +287,19 @@ public class OrderServiceImpl implements OrderService {
             throw new InvalidOrderStateException("Cannot update order in " + order.getStatus() + " status");
         }
 
-        // Release old inventory
-        releaseInventory(order.getOrderLines());
+        List<OrderLineDTO> pricedLines = priceLines(request.getOrderLines());
 
-        // Validate new inventory
-        validateInventory(request.getOrderLines());
+        // Net stock change per product: new quantities less the ones the old lines hold
+        SortedMap<Long, Integer> stockChanges = quantitiesByProduct(pricedLines);
+        for (OrderLine line : order.getOrderLines()) {
+            stockChanges.merge(line.getProductId(), -line.getQuantity(), Integer::sum);
+        }
 
         // Clear existing order lines
         order.getOrderLines().clear();
 
         // Add new order lines
-        for (OrderLineDTO lineDTO : request.getOrderLines()) {
+        for (OrderLineDTO lineDTO : pricedLines) {
             OrderLine orderLine = OrderLine.builder()
                     .productId(lineDTO.getProductId())
                     .quantity(lineDTO.getQuantity())
@@ -159,16 +310,19 @@ public class OrderServiceImpl implements OrderService {
 
         // Recalculate total
         order.calculateTotalAmount();
+        // Move the version even when the new lines leave the header unchanged
+        order.setUpdatedAt(LocalDateTime.now());
 
-        // Reserve new inventory
-        reserveInventory(request.getOrderLines());
+        // Take or return the difference
+        orderMetrics.time(Operation.UPDATE, Phase.RESERVE_INVENTORY, () -> changeStock(stockChanges));
 
         // Save
-        order = orderRepository.save(order);
+        Order changed = order;
+        order = orderMetrics.time(Operation.UPDATE, Phase.SAVE, () -> orderRepository.save(changed));
         log.info("Order updated: {}", orderId);
 
         // Create audit trail
-        createAuditEntry(orderId, "ORDER_LINES", "updated", "updated");
+        orderMetrics.time(Operation.UPDATE, Phase.AUDIT, () -> createAuditEntry(orderId, "ORDER_LINES", "updated", "updated"));
 
         // Publish event
         OrderUpdatedEvent event = new OrderUpdatedEvent(
@@ -176,7 +330,7 @@ public class OrderServiceImpl implements OrderService {
                 order.getCustomerId(),
                 order.getTotalAmount()
         );
-        eventPublisher.publishOrderUpdatedEvent(event);
+        orderMetrics.time(Operation.UPDATE, Phase.PUBLISH_EVENT, () -> eventPublisher.publishOrderUpdatedEvent(event));
 
         return mapToResponse(order);
     }
@@ -186,34 +340,73 @@ public class OrderServiceImpl implements OrderService {
     public OrderResponse updateOrderStatus(Long orderId, OrderStatus newStatus) {
         log.info("Updating order {} status to: {}", orderId, newStatus);
 
-        Order order = orderRepository.findByIdAndNotDeleted(orderId)
+        OrderSummaryView order = orderRepository.findSummaryById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
         OrderStatus oldStatus = order.getStatus();
 
-        // Validate state transition
-        if (!oldStatus.canTransitionTo(newStatus)) {
+        if (!OrderStatus.getAllowedSourceStatuses(newStatus).contains(oldStatus)) {
             throw new InvalidOrderStateException(oldStatus, newStatus);
         }
 
-        // Update status
-        order.setStatus(newStatus);
-        order = orderRepository.save(order);
-        log.info("Order {} status changed from {} to {}", orderId, oldStatus, newStatus);
+        // Compare-and-set keyed on the status read, so the counters, audit and event record the real transition
+        LocalDateTime now = LocalDateTime.now();
+        if (orderRepository.transitionStatus(orderId, newStatus, EnumSet.of(oldStatus), now) == 0) {
+            throw new OrderConflictException(orderId,
+                    String.format("Order %d was modified concurrently, status is no longer %s", orderId, oldStatus));
+        }
+        recordStatusChange(orderId, order.getCustomerId(), oldStatus, newStatus);
+        if (newStatus == OrderStatus.CANCELLED && oldStatus == OrderStatus.UNPROCESSED) {
+            releaseInventoryAggregated(List.of(orderId));
+        }
 
-        // Create audit trail
-        createAuditEntry(orderId, "STATUS", oldStatus.name(), newStatus.name());
+        // The header read plus the new status, and the lines in one query; the Order aggregate is not loaded
+        return OrderResponse.builder()
+                .orderId(order.getId())
+                .customerId(order.getCustomerId())
+                .status(newStatus)
+                .orderDate(order.getOrderDate())
+                .totalAmount(order.getTotalAmount())
+                .orderLines(orderRepository.findLinesByOrderIds(List.of(orderId)).stream()
+                        .map(this::mapToLineDTO)
+                        .collect(Collectors.toList()))
+                .createdAt(order.getCreatedAt())
+                .updatedAt(now)
+                .build();
+    }
 
-        // Publish event
-        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
-                order.getId(),
-                order.getCustomerId(),
-                oldStatus,
-                newStatus
-        );
-        eventPublisher.publishOrderStatusChangedEvent(event);
+    /**
+     * Not transactional: each chunk commits in its own transaction and publishes its events after the commit,
+     * so a failing chunk rolls back only its own orders and no event announces a rolled-back change.
+     */
+    @Override
+    public BulkOrderStatusResponse bulkUpdateOrderStatus(BulkUpdateOrderStatusRequest request) {
+        OrderStatus newStatus = request.getStatus();
+        List<Long> orderIds = resolveBulkOrderIds(request);
+        log.info("Bulk updating {} orders to status: {}", orderIds.size(), newStatus);
+
+        List<BulkOrderStatusResult> results = new ArrayList<>(orderIds.size());
+        int chunkSize = bulkProperties.getChunkSize();
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+            results.addAll(applyBulkStatusChunkInTransaction(chunk, newStatus));
+        }
 
-        return mapToResponse(order);
+        Map<BulkOrderStatusResult.Outcome, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(BulkOrderStatusResult::getOutcome,
+                        () -> new EnumMap<>(BulkOrderStatusResult.Outcome.class), Collectors.counting()));
+        int updated = counts.getOrDefault(BulkOrderStatusResult.Outcome.UPDATED, 0L).intValue();
+        int unchanged = counts.getOrDefault(BulkOrderStatusResult.Outcome.UNCHANGED, 0L).intValue();
+        log.info("Bulk status update to {} completed: {} updated, {} unchanged, {} failed",
+                newStatus, updated, unchanged, results.size() - updated - unchanged);
+
+        return BulkOrderStatusResponse.builder()
+                .targetStatus(newStatus)
+                .requested(orderIds.size())
+                .updated(updated)
+                .unchanged(unchanged)
+                .failed(results.size() - updated - unchanged)
+                .results(results)
+                .build();
     }
 
     @Override
@@ -221,17 +414,23 @@ public class OrderServiceImpl implements OrderService {
     public void deleteOrder(Long orderId) {
         log.info("Deleting order: {}", orderId);
 
-        Order order = orderRepository.findByIdAndNotDeleted(orderId)
+        // Lock the order so a concurrent update or delete cannot return its stock twice
+        Order order = orderRepository.findByIdAndNotDeletedForUpdate(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
 
         // Release inventory if order is UNPROCESSED
         if (order.getStatus() == OrderStatus.UNPROCESSED) {
-            releaseInventory(order.getOrderLines());
+            SortedMap<Long, Integer> stockChanges = new TreeMap<>();
+            for (OrderLine line : order.getOrderLines()) {
+                stockChanges.merge(line.getProductId(), -line.getQuantity(), Integer::sum);
+            }
+            changeStock(stockChanges);
         }
 
         // Soft delete
         order.softDelete();
         orderRepository.save(order);
+        statusCounterService.recordDeleted(order.getStatus(), 1);
 
         // Create audit trail
         createAuditEntry(orderId, "DELETED", "false", "true");
@@ -239,6 +438,11 @@ public class OrderServiceImpl implements OrderService {
         log.info("Order {} deleted", orderId);
     }
 
+    @Override
+    public OrderStatsResponse getOrderStats() {
+        return statusCounterService.getStatusCounts();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<OrderAuditResponse> getOrderHistory(Long orderId) {
@@ -254,66 +458,371 @@ public class OrderServiceImpl implements OrderService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderLineDTO> getOrderLines(Long orderId, Pageable pageable) {
+        log.info("Fetching lines of order: {}, page: {}, size: {}", orderId, pageable.getPageNumber(), pageable.getPageSize());
+        orderRepository.findUpdatedAtById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+
+        Pageable byLineId = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"));
+        return orderRepository.findLinesByOrderId(orderId, byLineId).map(this::mapToLineDTO);
+    }
+
     @Override
     @Transactional
     public void progressOrderStatuses() {
         log.info("Starting automatic order status progression");
 
-        // Progress UNPROCESSED to PROCESSING
-        List<Order> unprocessedOrders = orderRepository.findByStatusForProcessing(OrderStatus.UNPROCESSED);
-        for (Order order : unprocessedOrders) {
-            updateOrderStatus(order.getId(), OrderStatus.PROCESSING);
+        // Progress UNPROCESSED to PROCESSING, PROCESSING to PROCESSED, PROCESSED to SHIPPED
+        for (OrderStatus status : List.of(OrderStatus.UNPROCESSED, OrderStatus.PROCESSING, OrderStatus.PROCESSED)) {
+            List<OrderStatusView> orders = orderRepository.findStatusViewsByStatus(status);
+            for (OrderStatusView view : orders) {
+                if (!applyStatusTransition(view, status.getNextStatus())) {
+                    log.warn("Skipping order {}: status changed concurrently from {}", view.getId(), status);
+                }
+            }
         }
 
-        // Progress PROCESSING to PROCESSED
-        List<Order> processingOrders = orderRepository.findByStatusForProcessing(OrderStatus.PROCESSING);
-        for (Order order : processingOrders) {
-            updateOrderStatus(order.getId(), OrderStatus.PROCESSED);
+        log.info("Order status progression completed");
+    }
+
+    // Helper methods
+
+    /**
+     * Transition status with a compare-and-set update keyed on the observed status,
+     * then write the audit entry and publish the event. Returns false on conflict.
+     */
+    private boolean applyStatusTransition(OrderStatusView view, OrderStatus newStatus) {
+        OrderStatus oldStatus = view.getStatus();
+
+        // Validate state transition
+        if (!OrderStatus.getAllowedSourceStatuses(newStatus).contains(oldStatus)) {
+            throw new InvalidOrderStateException(oldStatus, newStatus);
         }
 
-        // Progress PROCESSED to SHIPPED
-        List<Order> processedOrders = orderRepository.findByStatusForProcessing(OrderStatus.PROCESSED);
-        for (Order order : processedOrders) {
-            updateOrderStatus(order.getId(), OrderStatus.SHIPPED);
+        int updated = orderRepository.transitionStatus(
+                view.getId(), newStatus, EnumSet.of(oldStatus), LocalDateTime.now());
+        if (updated == 0) {
+            return false;
         }
+        recordStatusChange(view.getId(), view.getCustomerId(), oldStatus, newStatus);
+        return true;
+    }
 
-        log.info("Order status progression completed");
+    /**
+     * Count, audit and publish a status change already written to the order
+     */
+    private void recordStatusChange(Long orderId, Long customerId, OrderStatus oldStatus, OrderStatus newStatus) {
+        statusCounterService.recordTransition(oldStatus, newStatus, 1);
+        log.info("Order {} status changed from {} to {}", orderId, oldStatus, newStatus);
+
+        // Create audit trail
+        createAuditEntry(orderId, "STATUS", oldStatus.name(), newStatus.name());
+
+        // Publish event
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(
+                orderId,
+                customerId,
+                oldStatus,
+                newStatus
+        );
+        eventPublisher.publishOrderStatusChangedEvent(event);
     }
 
-    // Helper methods
+    /**
+     * Create an order with many lines without materialising them as entities
+     * <p>
+     * Stock is taken per product, summed over the lines and in product ID order like the aggregated release,
+     * with one JDBC batch of conditional updates per chunk; the lines are inserted in JDBC batches of the same
+     * size. The response is a summary; the lines are read page by page.
+     */
+    private OrderResponse createLargeOrder(Long customerId, List<OrderLineDTO> pricedLines) {
+        int chunkSize = largeOrderProperties.getChunkSize();
+
+        Map<Long, Integer> quantitiesByProduct = new TreeMap<>();
+        Money total = Money.zero();
+        for (OrderLineDTO line : pricedLines) {
+            quantitiesByProduct.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            total = total.plus(line.getLineTotal());
+        }
 
-    private void validateInventory(List<OrderLineDTO> orderLines) {
+        // Reserve inventory
+        orderMetrics.time(Operation.CREATE, Phase.RESERVE_INVENTORY, () -> {
+            List<Map.Entry<Long, Integer>> products = new ArrayList<>(quantitiesByProduct.entrySet());
+            for (int from = 0; from < products.size(); from += chunkSize) {
+                Map<Long, Integer> chunk = new LinkedHashMap<>();
+                products.subList(from, Math.min(from + chunkSize, products.size()))
+                        .forEach(entry -> chunk.put(entry.getKey(), entry.getValue()));
+                List<Long> rejected = inventoryRepository.batchReserveStock(chunk);
+                if (!rejected.isEmpty()) {
+                    // the transaction rolls back the chunks already reserved
+                    Long productId = rejected.get(0);
+                    throw stockRejection(productId, chunk.get(productId));
+                }
+            }
+        });
+
+        // Save the header, then the lines
+        Order unsaved = Order.builder()
+                .customerId(customerId)
+                .status(OrderStatus.UNPROCESSED)
+                .orderDate(LocalDateTime.now())
+                .totalAmount(total)
+                .build();
+        // flushed now: the JDBC line batches reference the header row
+        Order order = orderMetrics.time(Operation.CREATE, Phase.SAVE, () -> orderRepository.saveAndFlush(unsaved));
+        orderMetrics.time(Operation.CREATE, Phase.SAVE_LINES, () -> {
+            for (int from = 0; from < pricedLines.size(); from += chunkSize) {
+                orderRepository.batchInsertLines(order.getId(),
+                        pricedLines.subList(from, Math.min(from + chunkSize, pricedLines.size())));
+            }
+        });
+        statusCounterService.recordCreated(order.getStatus(), 1);
+        log.info("Large order created with ID: {} and {} lines", order.getId(), pricedLines.size());
+
+        OrderCreatedEvent event = new OrderCreatedEvent(
+                order.getId(),
+                order.getCustomerId(),
+                order.getStatus(),
+                order.getTotalAmount(),
+                order.getOrderDate(),
+                pricedLines
+        );
+        orderMetrics.time(Operation.CREATE, Phase.PUBLISH_EVENT, () -> eventPublisher.publishOrderCreatedEvent(event));
+
+        return OrderResponse.builder()
+                .orderId(order.getId())
+                .customerId(order.getCustomerId())
+                .status(order.getStatus())
+                .orderDate(order.getOrderDate())
+                .totalAmount(order.getTotalAmount())
+                .lineCount(pricedLines.size())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+
+    private RuntimeException stockRejection(Long productId, Integer requestedQuantity) {
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        orderMetrics.recordInsufficientStock(productId);
+        return new InsufficientStockException(productId, requestedQuantity, inventory.getAvailableStock());
+    }
+
+    /**
+     * Copy of the lines priced from one catalog snapshot, so all lines of an order see the same version
+     */
+    private List<OrderLineDTO> priceLines(List<OrderLineDTO> orderLines) {
+        PriceSnapshot prices = priceCatalog.snapshot();
+        List<OrderLineDTO> priced = new ArrayList<>(orderLines.size());
         for (OrderLineDTO line : orderLines) {
-            Inventory inventory = inventoryRepository.findByProductId(line.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", line.getProductId()));
-
-            if (!inventory.hasSufficientStock(line.getQuantity())) {
-                throw new InsufficientStockException(
-                        line.getProductId(),
-                        line.getQuantity(),
-                        inventory.getAvailableStock()
-                );
+            Money unitPrice = prices.priceOf(line.getProductId());
+            if (unitPrice == null) {
+                throw new BusinessException("PRICE_NOT_FOUND",
+                        String.format("Product %d has no price in the catalog", line.getProductId()));
             }
+            priced.add(OrderLineDTO.builder()
+                    .productId(line.getProductId())
+                    .quantity(line.getQuantity())
+                    .unitPrice(unitPrice)
+                    .lineTotal(unitPrice.times(line.getQuantity()))
+                    .build());
         }
+        return priced;
     }
 
-    private void reserveInventory(List<OrderLineDTO> orderLines) {
+    /**
+     * Line quantities summed per product, in product ID order so concurrent orders lock inventory rows in one order
+     */
+    private static SortedMap<Long, Integer> quantitiesByProduct(List<OrderLineDTO> orderLines) {
+        SortedMap<Long, Integer> quantitiesByProduct = new TreeMap<>();
         for (OrderLineDTO line : orderLines) {
-            Inventory inventory = inventoryRepository.findByProductIdWithLock(line.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", line.getProductId()));
+            quantitiesByProduct.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return quantitiesByProduct;
+    }
+
+    /**
+     * Fail fast before building the order; the stock is checked again when it is taken
+     */
+    private void validateInventory(SortedMap<Long, Integer> quantitiesByProduct) {
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            Integer availableStock = inventoryRepository.findAvailableStockByProductId(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+
+            if (availableStock < quantity) {
+                orderMetrics.recordInsufficientStock(productId);
+                throw new InsufficientStockException(productId, quantity, availableStock);
+            }
+        });
+    }
 
-            inventory.reserveStock(line.getQuantity());
+    /**
+     * Take stock for positive quantities and return it for negative ones, in product ID order
+     * <p>
+     * With {@link InventoryProperties.Reservation#ROW_LOCK} each row is locked, checked and written back;
+     * with {@link InventoryProperties.Reservation#CONDITIONAL_UPDATE} one JDBC batch of conditional updates
+     * checks and changes the stock. Either way a shortage throws and the transaction rolls back what was taken.
+     */
+    private void changeStock(SortedMap<Long, Integer> quantitiesByProduct) {
+        Map<Long, Integer> changes = new LinkedHashMap<>();
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            if (quantity != 0) {
+                changes.put(productId, quantity);
+            }
+        });
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        if (inventoryProperties.getReservation() == InventoryProperties.Reservation.CONDITIONAL_UPDATE) {
+            List<Long> rejected = inventoryRepository.batchReserveStock(changes);
+            if (!rejected.isEmpty()) {
+                Long productId = rejected.get(0);
+                throw stockRejection(productId, changes.get(productId));
+            }
+            return;
+        }
+
+        changes.forEach((productId, quantity) -> {
+            Inventory inventory = lockInventory(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+
+            if (quantity > 0) {
+                if (!inventory.hasSufficientStock(quantity)) {
+                    orderMetrics.recordInsufficientStock(productId);
+                    throw new InsufficientStockException(productId, quantity, inventory.getAvailableStock());
+                }
+                inventory.reserveStock(quantity);
+            } else {
+                inventory.releaseStock(-quantity);
+            }
             inventoryRepository.save(inventory);
+        });
+    }
+
+    private Optional<Inventory> lockInventory(Long productId) {
+        return lockProfiler.timeAcquisition(productId, () -> inventoryRepository.findByProductIdWithLock(productId));
+    }
+
+    private List<Long> resolveBulkOrderIds(BulkUpdateOrderStatusRequest request) {
+        int maxOrders = bulkProperties.getMaxOrders();
+        List<Long> orderIds;
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            orderIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+        } else {
+            orderIds = orderRepository.findIdsByFilter(
+                    request.getCustomerId(), request.getCurrentStatus(), PageRequest.of(0, maxOrders + 1));
+        }
+        if (orderIds.size() > maxOrders) {
+            throw new BusinessException("BULK_LIMIT_EXCEEDED",
+                    String.format("Bulk request selects more than %d orders", maxOrders));
         }
+        return orderIds;
     }
 
-    private void releaseInventory(List<OrderLine> orderLines) {
-        for (OrderLine line : orderLines) {
-            Inventory inventory = inventoryRepository.findByProductIdWithLock(line.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", line.getProductId()));
+    /**
+     * Commit one chunk, then publish its events. A chunk that fails is rolled back
+     * and its orders are reported as FAILED, without stopping the chunks after it.
+     */
+    private List<BulkOrderStatusResult> applyBulkStatusChunkInTransaction(List<Long> orderIds, OrderStatus newStatus) {
+        BulkStatusChunk chunk;
+        try {
+            chunk = transactionTemplate.execute(status -> applyBulkStatusChunk(orderIds, newStatus));
+        } catch (RuntimeException e) {
+            log.warn("Bulk status update of {} orders to {} rolled back: {}", orderIds.size(), newStatus, e.getMessage());
+            return orderIds.stream()
+                    .map(orderId -> BulkOrderStatusResult.builder()
+                            .orderId(orderId)
+                            .outcome(BulkOrderStatusResult.Outcome.FAILED)
+                            .message(e.getMessage())
+                            .build())
+                    .toList();
+        }
+        eventPublisher.publishOrderStatusChangedEvents(chunk.events());
+        return chunk.results();
+    }
 
-            inventory.releaseStock(line.getQuantity());
-            inventoryRepository.save(inventory);
+    /**
+     * Apply a status transition to one chunk of orders: lock and read their statuses in one query,
+     * update each source-status group with one statement, release stock aggregated per product
+     * for cancelled unprocessed orders, then batch the audit rows and collect the events.
+     */
+    private BulkStatusChunk applyBulkStatusChunk(List<Long> orderIds, OrderStatus newStatus) {
+        Map<Long, OrderStatusView> views = orderRepository.findStatusViewsByIdInForUpdate(orderIds).stream()
+                .collect(Collectors.toMap(OrderStatusView::getId, Function.identity()));
+        Map<OrderStatus, List<OrderStatusView>> bySourceStatus = new EnumMap<>(OrderStatus.class);
+        List<BulkOrderStatusResult> results = new ArrayList<>(orderIds.size());
+
+        for (Long orderId : orderIds) {
+            OrderStatusView view = views.get(orderId);
+            BulkOrderStatusResult.BulkOrderStatusResultBuilder result = BulkOrderStatusResult.builder().orderId(orderId);
+            if (view == null) {
+                results.add(result.outcome(BulkOrderStatusResult.Outcome.NOT_FOUND).build());
+                continue;
+            }
+            OrderStatus oldStatus = view.getStatus();
+            result.previousStatus(oldStatus);
+            if (oldStatus == newStatus) {
+                results.add(result.outcome(BulkOrderStatusResult.Outcome.UNCHANGED).build());
+            } else if (!oldStatus.canTransitionTo(newStatus)) {
+                results.add(result.outcome(BulkOrderStatusResult.Outcome.INVALID_TRANSITION)
+                        .message(String.format("Cannot transition order from %s to %s", oldStatus, newStatus))
+                        .build());
+            } else {
+                results.add(result.outcome(BulkOrderStatusResult.Outcome.UPDATED).build());
+                bySourceStatus.computeIfAbsent(oldStatus, status -> new ArrayList<>()).add(view);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> stockReleaseOrderIds = new ArrayList<>();
+        List<OrderAudit> audits = new ArrayList<>();
+        List<OrderStatusChangedEvent> events = new ArrayList<>();
+
+        for (Map.Entry<OrderStatus, List<OrderStatusView>> group : bySourceStatus.entrySet()) {
+            OrderStatus oldStatus = group.getKey();
+            List<Long> groupIds = group.getValue().stream().map(OrderStatusView::getId).toList();
+
+            // Rows are locked, so every order in the group is updated
+            orderRepository.transitionStatusForIds(groupIds, newStatus, oldStatus, now);
+            statusCounterService.recordTransition(oldStatus, newStatus, groupIds.size());
+
+            if (newStatus == OrderStatus.CANCELLED && oldStatus == OrderStatus.UNPROCESSED) {
+                stockReleaseOrderIds.addAll(groupIds);
+            }
+            for (OrderStatusView view : group.getValue()) {
+                audits.add(OrderAudit.builder()
+                        .orderId(view.getId())
+                        .fieldName("STATUS")
+                        .oldValue(oldStatus.name())
+                        .newValue(newStatus.name())
+                        .changedAt(now)
+                        .build());
+                events.add(new OrderStatusChangedEvent(view.getId(), view.getCustomerId(), oldStatus, newStatus));
+            }
+        }
+
+        if (!stockReleaseOrderIds.isEmpty()) {
+            releaseInventoryAggregated(stockReleaseOrderIds);
+        }
+        orderAuditRepository.batchInsert(audits);
+        return new BulkStatusChunk(results, events);
+    }
+
+    private record BulkStatusChunk(List<BulkOrderStatusResult> results, List<OrderStatusChangedEvent> events) {
+    }
+
+    /**
+     * Release stock for many orders with one update per product, in product ID order
+     */
+    private void releaseInventoryAggregated(List<Long> orderIds) {
+        for (ProductQuantityView line : orderRepository.sumLineQuantitiesByProduct(orderIds)) {
+            int updated = inventoryRepository.releaseStock(line.getProductId(), Math.toIntExact(line.getQuantity()));
+            if (updated == 0) {
+                throw new ResourceNotFoundException("Product", "id", line.getProductId());
+            }
         }
     }
 
@@ -327,29 +836,79 @@ public class OrderServiceImpl implements OrderService {
         orderAuditRepository.save(audit);
     }
 
-    private OrderResponse mapToResponse(Order order) {
-        List<OrderLineDTO> lineDTOs = order.getOrderLines().stream()
-                .map(line -> OrderLineDTO.builder()
-                        .id(line.getId())
-                        .productId(line.getProductId())
-                        .quantity(line.getQuantity())
-                        .unitPrice(line.getUnitPrice())
-                        .lineTotal(line.getLineTotal())
-                        .build())
-                .collect(Collectors.toList());
+    /**
+     * Package-private so the benchmarks module can measure mapping in isolation
+     */
+    OrderResponse mapToResponse(Order order) {
+        return mapToResponse(OrderSummaryView.of(order), order.getOrderLines(), OrderFieldSelection.ALL);
+    }
 
-        return OrderResponse.builder()
-                .orderId(order.getId())
-                .customerId(order.getCustomerId())
-                .status(order.getStatus())
-                .orderDate(order.getOrderDate())
-                .totalAmount(order.getTotalAmount())
-                .orderLines(lineDTOs)
-                .createdAt(order.getCreatedAt())
-                .updatedAt(order.getUpdatedAt())
+    /**
+     * Map a page of orders, loading the lines of the whole page with a single query
+     */
+    private Page<OrderResponse> mapPageToResponse(Page<Order> orders, OrderFieldSelection fields) {
+        Map<Long, List<OrderLine>> linesByOrderId = findLinesByOrderId(
+                orders.getContent().stream().map(Order::getId).toList());
+        return orders.map(order -> mapToResponse(OrderSummaryView.of(order),
+                linesByOrderId.getOrDefault(order.getId(), List.of()), fields));
+    }
+
+    private Map<Long, List<OrderLine>> findLinesByOrderId(Collection<Long> orderIds) {
+        Map<Long, List<OrderLine>> linesByOrderId = new HashMap<>();
+        if (!orderIds.isEmpty()) {
+            for (OrderLine line : orderRepository.findLinesByOrderIds(orderIds)) {
+                linesByOrderId.computeIfAbsent(line.getOrder().getId(), id -> new ArrayList<>()).add(line);
+            }
+        }
+        return linesByOrderId;
+    }
+
+    private OrderLineDTO mapToLineDTO(OrderLine line) {
+        return OrderLineDTO.builder()
+                .id(line.getId())
+                .productId(line.getProductId())
+                .quantity(line.getQuantity())
+                .unitPrice(line.getUnitPrice())
+                .lineTotal(line.getLineTotal())
                 .build();
     }
 
+    /**
+     * Map an order header and its lines to a response holding only the selected fields.
+     * Lines are mapped only when selected; null lines with lines selected mean none were found.
+     */
+    private OrderResponse mapToResponse(OrderSummaryView order, List<OrderLine> orderLines, OrderFieldSelection fields) {
+        OrderResponse.OrderResponseBuilder response = OrderResponse.builder();
+        if (fields.includes(OrderFieldSelection.Field.ORDER_ID)) {
+            response.orderId(order.getId());
+        }
+        if (fields.includes(OrderFieldSelection.Field.CUSTOMER_ID)) {
+            response.customerId(order.getCustomerId());
+        }
+        if (fields.includes(OrderFieldSelection.Field.STATUS)) {
+            response.status(order.getStatus());
+        }
+        if (fields.includes(OrderFieldSelection.Field.ORDER_DATE)) {
+            response.orderDate(order.getOrderDate());
+        }
+        if (fields.includes(OrderFieldSelection.Field.TOTAL_AMOUNT)) {
+            response.totalAmount(order.getTotalAmount());
+        }
+        if (fields.includesLines()) {
+            List<OrderLine> lines = orderLines != null ? orderLines : List.of();
+            response.orderLines(lines.stream()
+                    .map(this::mapToLineDTO)
+                    .collect(Collectors.toList()));
+        }
+        if (fields.includes(OrderFieldSelection.Field.CREATED_AT)) {
+            response.createdAt(order.getCreatedAt());
+        }
+        if (fields.includes(OrderFieldSelection.Field.UPDATED_AT)) {
+            response.updatedAt(order.getUpdatedAt());
+        }
+        return response.build();
+    }
+
     private OrderAuditResponse mapToAuditResponse(OrderAudit audit) {
         return OrderAuditResponse.builder()
                 .id(audit.getId())
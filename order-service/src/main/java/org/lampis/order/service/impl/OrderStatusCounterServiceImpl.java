@@ -0,0 +1,156 @@
+package org.lampis.order.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.common.dto.order.OrderStatsResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.order.config.OrderStatsProperties;
+import org.lampis.order.entity.OrderStatusCounter;
+import org.lampis.order.repository.OrderRepository;
+import org.lampis.order.repository.OrderStatusCounterRepository;
+import org.lampis.order.repository.projection.StatusCountView;
+import org.lampis.order.service.OrderStatusCounterService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementation of OrderStatusCounterService
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusCounterServiceImpl implements OrderStatusCounterService {
+
+    private final OrderStatusCounterRepository counterRepository;
+    private final OrderRepository orderRepository;
+    private final OrderStatsProperties statsProperties;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(OrderStatus status, long count) {
+        pendingDeltas().add(status, count);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(OrderStatus fromStatus, OrderStatus toStatus, long count) {
+        if (fromStatus == toStatus || count == 0) {
+            return;
+        }
+        PendingDeltas deltas = pendingDeltas();
+        deltas.add(fromStatus, -count);
+        deltas.add(toStatus, count);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(OrderStatus status, long count) {
+        pendingDeltas().add(status, -count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderStatsResponse getStatusCounts() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        long total = 0;
+        for (StatusCountView view : counterRepository.sumByStatus()) {
+            counts.put(view.getStatus(), view.getCount());
+            total += view.getCount();
+        }
+        return OrderStatsResponse.builder()
+                .countsByStatus(counts)
+                .total(total)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public void initializeCounters() {
+        int stripes = statsProperties.getCounterStripes();
+        List<OrderStatusCounter> existing = counterRepository.findAll();
+
+        Map<OrderStatus, Long> seed = new EnumMap<>(OrderStatus.class);
+        if (existing.isEmpty()) {
+            for (StatusCountView view : orderRepository.countNotDeletedGroupByStatus()) {
+                seed.put(view.getStatus(), view.getCount());
+            }
+            log.info("Seeding order status counters from orders table: {}", seed);
+        }
+
+        Set<OrderStatusCounter.Key> present = new HashSet<>();
+        for (OrderStatusCounter counter : existing) {
+            present.add(new OrderStatusCounter.Key(counter.getStatus(), counter.getStripe()));
+        }
+
+        int created = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                if (!present.contains(new OrderStatusCounter.Key(status, stripe))) {
+                    // fails on a row another instance inserted since our read; the caller then runs this again
+                    counterRepository.insertStripe(status.name(), stripe, stripe == 0 ? seed.getOrDefault(status, 0L) : 0L);
+                    created++;
+                }
+            }
+        }
+        if (created > 0) {
+            log.info("Created {} order status counter rows ({} stripes per status)", created, stripes);
+        }
+    }
+
+    /**
+     * Deltas recorded by the current transaction, applied once just before it commits
+     */
+    private PendingDeltas pendingDeltas() {
+        // synchronizations are suspended with their transaction, so an inner REQUIRES_NEW gets its own
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas deltas && deltas.owner() == this) {
+                return deltas;
+            }
+        }
+        PendingDeltas deltas = new PendingDeltas();
+        TransactionSynchronizationManager.registerSynchronization(deltas);
+        return deltas;
+    }
+
+    /**
+     * Net delta per status of one transaction
+     * <p>
+     * Applied to a single random stripe in status order, so every transaction locks at most one row per status,
+     * in the same order, and only for the moment between the updates and the commit.
+     */
+    private final class PendingDeltas implements TransactionSynchronization {
+
+        private final Map<OrderStatus, Long> deltas = new EnumMap<>(OrderStatus.class);
+
+        void add(OrderStatus status, long delta) {
+            deltas.merge(status, delta, Long::sum);
+        }
+
+        OrderStatusCounterServiceImpl owner() {
+            return OrderStatusCounterServiceImpl.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            int stripe = ThreadLocalRandom.current().nextInt(statsProperties.getCounterStripes());
+            deltas.forEach((status, delta) -> {
+                if (delta != 0 && counterRepository.addToStripe(status, stripe, delta) == 0) {
+                    log.warn("Order status counter {}/{} is missing, delta {} not recorded", status, stripe, delta);
+                }
+            });
+        }
+    }
+}
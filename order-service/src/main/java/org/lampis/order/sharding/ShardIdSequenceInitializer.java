@@ -0,0 +1,76 @@
+package org.lampis.order.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.order.config.ShardingProperties;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Interleaves order IDs across shards: shard k issues k+1, k+1+N, k+1+2N, ... from its own order_id_seq
+ * A missing sequence is created starting above the shard's highest order ID; an existing one is checked,
+ * as are the IDs of the orders a shard already holds. With sharding disabled there is one shard, N = 1
+ */
+@Component
+@Slf4j
+public class ShardIdSequenceInitializer implements InitializingBean {
+
+    static final String SEQUENCE = "order_id_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final boolean createMissingSequences;
+
+    public ShardIdSequenceInitializer(DataSource dataSource, ShardRouter shardRouter,
+                                      ShardingProperties shardingProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.shardRouter = shardRouter;
+        this.createMissingSequences = shardingProperties.isConfigureIdSequences();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        int shardCount = shardRouter.getShardCount();
+        shardRouter.forEachShard(shard -> {
+            Long foreign = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM orders WHERE MOD(id - 1, ?) <> ?", Long.class, shardCount, shard);
+            if (foreign != null && foreign > 0) {
+                throw new IllegalStateException(String.format(
+                        "Shard %d holds %d orders whose IDs map to other shards", shard, foreign));
+            }
+
+            List<long[]> sequence = jdbcTemplate.query(
+                    "SELECT start_value, increment FROM information_schema.sequences "
+                            + "WHERE LOWER(sequence_name) = ? AND sequence_schema = CURRENT_SCHEMA",
+                    (rs, row) -> new long[]{Long.parseLong(rs.getString(1)), Long.parseLong(rs.getString(2))},
+                    SEQUENCE);
+            if (sequence.isEmpty()) {
+                createSequence(shard, shardCount);
+                return;
+            }
+
+            long start = sequence.get(0)[0];
+            long increment = sequence.get(0)[1];
+            if (increment != shardCount || Math.floorMod(start - 1, (long) shardCount) != shard) {
+                throw new IllegalStateException(String.format(
+                        "%s of shard %d starts at %d with increment %d; it must issue IDs k with (k - 1) %% %d = %d",
+                        SEQUENCE, shard, start, increment, shardCount, shard));
+            }
+        });
+    }
+
+    private void createSequence(int shard, int shardCount) {
+        if (!createMissingSequences) {
+            throw new IllegalStateException(String.format("Shard %d has no %s", shard, SEQUENCE));
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM orders", Long.class);
+        // first ID of this shard above the IDs already issued by the orders.id column
+        long start = maxId + 1 + Math.floorMod(shard - maxId, (long) shardCount);
+        jdbcTemplate.execute(String.format("CREATE SEQUENCE IF NOT EXISTS %s START WITH %d INCREMENT BY %d",
+                SEQUENCE, start, shardCount));
+        log.info("Created {} of shard {}: start {}, increment {}", SEQUENCE, shard, start, shardCount);
+    }
+}
@@ -0,0 +1,131 @@
+package org.lampis.order.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.order.config.ShardingProperties;
+import org.lampis.order.datasource.ShardContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Maps customers and orders to shards and runs work on a shard or on every shard
+ * Customers are placed by a hash of customerId; order IDs are interleaved so that
+ * shard k only issues IDs with (id - 1) % shardCount == k
+ * With sharding disabled there is a single shard and work runs unchanged
+ */
+@Component
+@Slf4j
+public class ShardRouter implements DisposableBean {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int shardCount;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(ShardingProperties shardingProperties) {
+        this.shardCount = shardingProperties.isEnabled() ? shardingProperties.getShards().size() : 1;
+        if (shardCount < 1) {
+            throw new IllegalStateException("Sharding is enabled but no shards are configured");
+        }
+        this.scatterExecutor = shardCount > 1 ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForCustomer(Long customerId) {
+        long hash = customerId * GOLDEN_GAMMA;
+        return Math.floorMod(hash ^ (hash >>> 32), shardCount);
+    }
+
+    public int shardForOrder(Long orderId) {
+        return (int) Math.floorMod(orderId - 1, (long) shardCount);
+    }
+
+    /**
+     * Run work with the given shard selected
+     * Must be called before the work's transaction touches the database, unless the shard is already selected
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.current();
+        if (shardCount > 1 && (previous == null || previous != shard)
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch shards inside an active transaction");
+        }
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void onShard(int shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run work on every shard in parallel, results indexed by shard
+     */
+    public <T> List<T> onAllShards(IntFunction<T> work) {
+        if (shardCount == 1) {
+            return List.of(onShard(0, () -> work.apply(0)));
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(scatterExecutor.submit(() -> onShard(target, () -> work.apply(target))));
+        }
+
+        List<T> results = new ArrayList<>(shardCount);
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * Run work on every shard one after another on the calling thread
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            onShard(target, () -> work.accept(target));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard results", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package org.lampis.order.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.common.dto.order.*;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.exception.BusinessException;
+import org.lampis.order.config.BulkOperationProperties;
+import org.lampis.order.config.ShardingProperties;
+import org.lampis.common.dto.order.OrderFieldSelection.Field;
+import org.lampis.order.service.OrderSearchCursor;
+import org.lampis.order.service.OrderService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * OrderService over sharded databases
+ * Single-customer and single-order calls run on their shard; lists, status queries,
+ * searches and stats scatter to every shard and merge the sorted, limited results.
+ * Each shard call is its own transaction, so multi-shard bulk updates are not atomic.
+ */
+@Slf4j
+public class ShardedOrderService implements OrderService {
+
+    private static final Comparator<OrderResponse> SEARCH_ORDER = Comparator
+            .comparing(OrderResponse::getOrderDate, Comparator.reverseOrder())
+            .thenComparing(OrderResponse::getOrderId, Comparator.reverseOrder());
+
+    private final OrderService delegate;
+    private final ShardRouter shardRouter;
+    private final ShardingProperties shardingProperties;
+    private final BulkOperationProperties bulkProperties;
+
+    public ShardedOrderService(OrderService delegate, ShardRouter shardRouter,
+                               ShardingProperties shardingProperties, BulkOperationProperties bulkProperties) {
+        this.delegate = delegate;
+        this.shardRouter = shardRouter;
+        this.shardingProperties = shardingProperties;
+        this.bulkProperties = bulkProperties;
+    }
+
+    @Override
+    public OrderResponse createOrder(CreateOrderRequest request) {
+        int shard = shardRouter.shardForCustomer(request.getCustomerId());
+        return shardRouter.onShard(shard, () -> delegate.createOrder(request));
+    }
+
+    @Override
+    public OrderResponse getOrderById(Long orderId, OrderFieldSelection fields) {
+        return onOrderShard(orderId, () -> delegate.getOrderById(orderId, fields));
+    }
+
+    @Override
+    public LocalDateTime getOrderLastModified(Long orderId) {
+        return onOrderShard(orderId, () -> delegate.getOrderLastModified(orderId));
+    }
+
+    @Override
+    public OrderLookupResponse getOrdersByIds(List<Long> orderIds, OrderFieldSelection fields) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        if (distinctIds.size() > bulkProperties.getMaxLookupIds()) {
+            throw new BusinessException("LOOKUP_LIMIT_EXCEEDED",
+                    String.format("Lookup accepts at most %d order IDs", bulkProperties.getMaxLookupIds()));
+        }
+
+        Map<Integer, List<Long>> idsByShard = groupOrderIdsByShard(distinctIds);
+        Map<Long, OrderLookupResult> resultsById = new HashMap<>();
+        for (OrderLookupResponse shardResponse : shardRouter.onAllShards(shard -> idsByShard.containsKey(shard)
+                ? delegate.getOrdersByIds(idsByShard.get(shard), fields)
+                : null)) {
+            if (shardResponse != null) {
+                shardResponse.getResults().forEach(result -> resultsById.put(result.getOrderId(), result));
+            }
+        }
+
+        List<OrderLookupResult> results = distinctIds.stream().map(resultsById::get).toList();
+        return OrderLookupResponse.builder()
+                .requested(distinctIds.size())
+                .found((int) results.stream().filter(OrderLookupResult::isFound).count())
+                .results(results)
+                .build();
+    }
+
+    @Override
+    public Page<OrderResponse> getAllOrders(Pageable pageable, OrderFieldSelection fields) {
+        return scatterPage(pageable, fields, delegate::getAllOrders);
+    }
+
+    @Override
+    public Page<OrderResponse> getOrdersByCustomerId(Long customerId, Pageable pageable, OrderFieldSelection fields) {
+        int shard = shardRouter.shardForCustomer(customerId);
+        return shardRouter.onShard(shard, () -> delegate.getOrdersByCustomerId(customerId, pageable, fields));
+    }
+
+    @Override
+    public Page<OrderResponse> getOrdersByStatus(OrderStatus status, Pageable pageable, OrderFieldSelection fields) {
+        return scatterPage(pageable, fields,
+                (shardPageable, shardFields) -> delegate.getOrdersByStatus(status, shardPageable, shardFields));
+    }
+
+    @Override
+    public OrderSearchResponse searchOrders(OrderSearchCriteria criteria, String cursor, int size,
+                                            OrderFieldSelection fields) {
+        if (criteria.getCustomerId() != null) {
+            int shard = shardRouter.shardForCustomer(criteria.getCustomerId());
+            return shardRouter.onShard(shard, () -> delegate.searchOrders(criteria, cursor, size, fields));
+        }
+
+        // Every shard returns its first page after the same global keyset; the merged head is the global page
+        EnumSet<Field> keyFields = EnumSet.of(Field.ORDER_ID, Field.ORDER_DATE);
+        OrderFieldSelection shardFields = fields.with(keyFields);
+        List<OrderSearchResponse> shardResponses = shardRouter.onAllShards(
+                shard -> delegate.searchOrders(criteria, cursor, size, shardFields));
+
+        List<OrderResponse> merged = shardResponses.stream()
+                .flatMap(response -> response.getOrders().stream())
+                .sorted(SEARCH_ORDER)
+                .toList();
+        boolean hasNext = merged.size() > size || shardResponses.stream().anyMatch(OrderSearchResponse::isHasNext);
+        List<OrderResponse> page = merged.subList(0, Math.min(size, merged.size()));
+        OrderResponse last = hasNext && !page.isEmpty() ? page.get(page.size() - 1) : null;
+        String nextCursor = last != null ? OrderSearchCursor.encode(last.getOrderDate(), last.getOrderId()) : null;
+
+        List<OrderResponse> orders = page.stream().map(order -> retainSelected(order, fields, keyFields)).toList();
+        return OrderSearchResponse.builder()
+                .orders(orders)
+                .size(orders.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public OrderResponse updateOrder(Long orderId, UpdateOrderRequest request) {
+        return onOrderShard(orderId, () -> delegate.updateOrder(orderId, request));
+    }
+
+    @Override
+    public OrderResponse updateOrderStatus(Long orderId, OrderStatus newStatus) {
+        return onOrderShard(orderId, () -> delegate.updateOrderStatus(orderId, newStatus));
+    }
+
+    @Override
+    public BulkOrderStatusResponse bulkUpdateOrderStatus(BulkUpdateOrderStatusRequest request) {
+        List<BulkOrderStatusResult> results = new ArrayList<>();
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()));
+            if (distinctIds.size() > bulkProperties.getMaxOrders()) {
+                throw new BusinessException("BULK_LIMIT_EXCEEDED",
+                        String.format("Bulk request selects more than %d orders", bulkProperties.getMaxOrders()));
+            }
+            Map<Long, BulkOrderStatusResult> resultsById = new HashMap<>();
+            groupOrderIdsByShard(distinctIds).forEach((shard, shardIds) -> {
+                BulkUpdateOrderStatusRequest shardRequest = BulkUpdateOrderStatusRequest.builder()
+                        .orderIds(shardIds)
+                        .status(request.getStatus())
+                        .build();
+                shardRouter.onShard(shard, () -> delegate.bulkUpdateOrderStatus(shardRequest))
+                        .getResults().forEach(result -> resultsById.put(result.getOrderId(), result));
+            });
+            distinctIds.forEach(orderId -> results.add(resultsById.get(orderId)));
+        } else if (request.getCustomerId() != null) {
+            int shard = shardRouter.shardForCustomer(request.getCustomerId());
+            return shardRouter.onShard(shard, () -> delegate.bulkUpdateOrderStatus(request));
+        } else {
+            // Filter by status only: the order limit applies per shard
+            shardRouter.forEachShard(shard -> results.addAll(delegate.bulkUpdateOrderStatus(request).getResults()));
+        }
+
+        Map<BulkOrderStatusResult.Outcome, Long> counts = new EnumMap<>(BulkOrderStatusResult.Outcome.class);
+        results.forEach(result -> counts.merge(result.getOutcome(), 1L, Long::sum));
+        int updated = counts.getOrDefault(BulkOrderStatusResult.Outcome.UPDATED, 0L).intValue();
+        int unchanged = counts.getOrDefault(BulkOrderStatusResult.Outcome.UNCHANGED, 0L).intValue();
+        return BulkOrderStatusResponse.builder()
+                .targetStatus(request.getStatus())
+                .requested(results.size())
+                .updated(updated)
+                .unchanged(unchanged)
+                .failed(results.size() - updated - unchanged)
+                .results(results)
+                .build();
+    }
+
+    @Override
+    public void deleteOrder(Long orderId) {
+        onOrderShard(orderId, () -> {
+            delegate.deleteOrder(orderId);
+            return null;
+        });
+    }
+
+    @Override
+    public OrderStatsResponse getOrderStats() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        long total = 0;
+        for (OrderStatsResponse shardStats : shardRouter.onAllShards(shard -> delegate.getOrderStats())) {
+            shardStats.getCountsByStatus().forEach((status, count) -> counts.merge(status, count, Long::sum));
+            total += shardStats.getTotal();
+        }
+        return OrderStatsResponse.builder()
+                .countsByStatus(counts)
+                .total(total)
+                .build();
+    }
+
+    @Override
+    public List<OrderAuditResponse> getOrderHistory(Long orderId) {
+        return onOrderShard(orderId, () -> delegate.getOrderHistory(orderId));
+    }
+
+    @Override
+    public Page<OrderLineDTO> getOrderLines(Long orderId, Pageable pageable) {
+        return onOrderShard(orderId, () -> delegate.getOrderLines(orderId, pageable));
+    }
+
+    @Override
+    public void progressOrderStatuses() {
+        shardRouter.forEachShard(shard -> delegate.progressOrderStatuses());
+    }
+
+    // Helper methods
+
+    private <T> T onOrderShard(Long orderId, Supplier<T> work) {
+        return shardRouter.onShard(shardRouter.shardForOrder(orderId), work);
+    }
+
+    private Map<Integer, List<Long>> groupOrderIdsByShard(List<Long> orderIds) {
+        Map<Integer, List<Long>> idsByShard = new LinkedHashMap<>();
+        for (Long orderId : orderIds) {
+            idsByShard.computeIfAbsent(shardRouter.shardForOrder(orderId), shard -> new ArrayList<>()).add(orderId);
+        }
+        return idsByShard;
+    }
+
+    /**
+     * Read offset + size rows from every shard with the same sort, merge them and cut out the page
+     */
+    private Page<OrderResponse> scatterPage(Pageable pageable, OrderFieldSelection fields,
+                                            BiFunction<Pageable, OrderFieldSelection, Page<OrderResponse>> query) {
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > shardingProperties.getMaxScatterRows()) {
+            throw new BusinessException("PAGE_TOO_DEEP", String.format(
+                    "Pages beyond row %d are not available across shards; use /search with a cursor",
+                    shardingProperties.getMaxScatterRows()));
+        }
+
+        EnumSet<Field> sortFields = EnumSet.of(Field.ORDER_ID);
+        for (Sort.Order order : pageable.getSort()) {
+            sortFields.add(sortField(order.getProperty()));
+        }
+        // the ID tie-breaker of the merge applies on every shard too, so equal sort keys cut the same way
+        Sort shardSort = pageable.getSort().getOrderFor("id") != null
+                ? pageable.getSort()
+                : pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id"));
+        Pageable shardPageable = PageRequest.of(0, (int) window, shardSort);
+        OrderFieldSelection shardFields = fields.with(sortFields);
+        List<Page<OrderResponse>> pages = shardRouter.onAllShards(shard -> query.apply(shardPageable, shardFields));
+
+        List<OrderResponse> content = pages.stream()
+                .flatMap(page -> page.getContent().stream())
+                .sorted(comparator(pageable.getSort()))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(order -> retainSelected(order, fields, sortFields))
+                .toList();
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Comparator<OrderResponse> comparator(Sort sort) {
+        Comparator<OrderResponse> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Function<OrderResponse, Comparable> key = sortKey(sortField(order.getProperty()));
+            Comparator<Comparable> direction = order.isAscending()
+                    ? Comparator.<Comparable>naturalOrder()
+                    : Comparator.<Comparable>reverseOrder();
+            comparator = comparator.thenComparing(key, Comparator.nullsLast(direction));
+        }
+        return comparator.thenComparing(OrderResponse::getOrderId, Comparator.reverseOrder());
+    }
+
+    private Field sortField(String property) {
+        return switch (property) {
+            case "id" -> Field.ORDER_ID;
+            case "customerId" -> Field.CUSTOMER_ID;
+            case "status" -> Field.STATUS;
+            case "orderDate" -> Field.ORDER_DATE;
+            case "totalAmount" -> Field.TOTAL_AMOUNT;
+            case "createdAt" -> Field.CREATED_AT;
+            case "updatedAt" -> Field.UPDATED_AT;
+            default -> throw new BusinessException("INVALID_SORT", "Cannot sort orders by: " + property);
+        };
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Function<OrderResponse, Comparable> sortKey(Field field) {
+        return switch (field) {
+            case ORDER_ID -> OrderResponse::getOrderId;
+            case CUSTOMER_ID -> OrderResponse::getCustomerId;
+            case STATUS -> OrderResponse::getStatus;
+            case ORDER_DATE -> OrderResponse::getOrderDate;
+            case TOTAL_AMOUNT -> OrderResponse::getTotalAmount;
+            case CREATED_AT -> OrderResponse::getCreatedAt;
+            case UPDATED_AT -> OrderResponse::getUpdatedAt;
+            case ORDER_LINES -> throw new BusinessException("INVALID_SORT", "Cannot sort orders by order lines");
+        };
+    }
+
+    /**
+     * Drop the fields that were only fetched for merging
+     */
+    private OrderResponse retainSelected(OrderResponse order, OrderFieldSelection fields, Set<Field> added) {
+        for (Field field : added) {
+            if (fields.includes(field)) {
+                continue;
+            }
+            switch (field) {
+                case ORDER_ID -> order.setOrderId(null);
+                case CUSTOMER_ID -> order.setCustomerId(null);
+                case STATUS -> order.setStatus(null);
+                case ORDER_DATE -> order.setOrderDate(null);
+                case TOTAL_AMOUNT -> order.setTotalAmount(null);
+                case CREATED_AT -> order.setCreatedAt(null);
+                case UPDATED_AT -> order.setUpdatedAt(null);
+                case ORDER_LINES -> order.setOrderLines(null);
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,69 @@
+package org.lampis.order.snapshot;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * order_lines rows as Arrow columns
+ */
+final class OrderLineTableWriter extends SnapshotTableWriter {
+
+    static final String SELECT = "SELECT l.id, l.order_id, l.product_id, l.quantity, l.unit_price, l.line_total " +
+            "FROM order_lines l";
+
+    private static final ArrowType MONEY = new ArrowType.Decimal(10, 2, 128);
+
+    private static final List<Field> FIELDS = List.of(
+            Field.notNullable("id", new ArrowType.Int(64, true)),
+            Field.notNullable("order_id", new ArrowType.Int(64, true)),
+            Field.notNullable("product_id", new ArrowType.Int(64, true)),
+            Field.notNullable("quantity", new ArrowType.Int(32, true)),
+            Field.notNullable("unit_price", MONEY),
+            Field.notNullable("line_total", MONEY));
+
+    private static final DictionaryProvider NO_DICTIONARIES = new DictionaryProvider.MapDictionaryProvider();
+
+    private final BigIntVector id;
+    private final BigIntVector orderId;
+    private final BigIntVector productId;
+    private final IntVector quantity;
+    private final DecimalVector unitPrice;
+    private final DecimalVector lineTotal;
+
+    OrderLineTableWriter(Map<String, String> metadata, BufferAllocator allocator, OutputStream out, int batchSize) {
+        super(FIELDS, metadata, allocator, out, batchSize);
+        id = vector(0);
+        orderId = vector(1);
+        productId = vector(2);
+        quantity = vector(3);
+        unitPrice = vector(4);
+        lineTotal = vector(5);
+    }
+
+    @Override
+    protected void append(ResultSet rs, int index) throws SQLException {
+        id.setSafe(index, rs.getLong(1));
+        orderId.setSafe(index, rs.getLong(2));
+        productId.setSafe(index, rs.getLong(3));
+        quantity.setSafe(index, rs.getInt(4));
+        unitPrice.setSafe(index, rs.getBigDecimal(5).setScale(2));
+        lineTotal.setSafe(index, rs.getBigDecimal(6).setScale(2));
+    }
+
+    @Override
+    protected DictionaryProvider dictionaries() {
+        return NO_DICTIONARIES;
+    }
+}
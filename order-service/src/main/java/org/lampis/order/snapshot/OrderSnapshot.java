@@ -0,0 +1,29 @@
+package org.lampis.order.snapshot;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * A written snapshot directory
+ *
+ * @param from exclusive lower updated_at bound of an incremental snapshot, null for a full one
+ * @param to   inclusive upper updated_at bound, the watermark the next incremental snapshot starts from
+ */
+public record OrderSnapshot(Kind kind, Path directory, LocalDateTime from, LocalDateTime to,
+                            long orders, long orderLines) {
+
+    public enum Kind {
+        /**
+         * Every order and order line
+         */
+        FULL,
+        /**
+         * The orders with updated_at in (from, to] and all of their current lines
+         */
+        INCREMENTAL;
+
+        public String prefix() {
+            return name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.lampis.order.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.lampis.order.config.OrderSnapshotProperties;
+import org.lampis.order.sharding.ShardRouter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Columnar snapshots of orders and order_lines, so analytical scans read files instead of the OLTP database
+ * <p>
+ * Each snapshot is a directory named {@code full-<to>} or {@code incremental-<to>} holding one Arrow IPC
+ * stream per table. Rows are streamed from a forward-only JDBC cursor into record batches, each shard in
+ * one read-only, repeatable-read transaction so the two tables agree; read-only transactions go to the
+ * replica when there is one. A snapshot is written to a hidden directory and renamed when complete.
+ * <p>
+ * An incremental snapshot holds the orders with updated_at after the newest snapshot's {@code to} and up
+ * to its own, with all of their current lines; apply them as upserts by order ID in name order, replacing
+ * the lines of every order they contain. {@code to} trails now by the settle time, so orders still being
+ * written cannot later commit with an updated_at the watermark has already passed.
+ */
+@Component
+@Slf4j
+public class OrderSnapshotExporter {
+
+    public static final String ORDERS_FILE = "orders.arrows";
+    public static final String ORDER_LINES_FILE = "order_lines.arrows";
+
+    private static final DateTimeFormatter NAME_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("(full|incremental)-(\\d{8}T\\d{6})");
+    private static final String CHANGED_ORDERS = " WHERE updated_at > ? AND updated_at <= ?";
+    private static final String LINES_OF_CHANGED_ORDERS =
+            " JOIN orders o ON o.id = l.order_id WHERE o.updated_at > ? AND o.updated_at <= ?";
+
+    private final OrderSnapshotProperties properties;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderSnapshotExporter(OrderSnapshotProperties properties, ShardRouter shardRouter,
+                                 DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Write a full snapshot, then delete the snapshots older than the retained full ones
+     */
+    public OrderSnapshot exportFull() {
+        return exportFull(settledNow());
+    }
+
+    /**
+     * Write the changes since the newest snapshot, or a full snapshot when there is none
+     *
+     * @return empty when the newest snapshot is not older than the settle time
+     */
+    public Optional<OrderSnapshot> exportIncremental() {
+        return exportIncremental(settledNow());
+    }
+
+    synchronized OrderSnapshot exportFull(LocalDateTime to) {
+        OrderSnapshot snapshot = export(OrderSnapshot.Kind.FULL, null, to);
+        deleteExpired();
+        return snapshot;
+    }
+
+    synchronized Optional<OrderSnapshot> exportIncremental(LocalDateTime to) {
+        Optional<LocalDateTime> from = snapshots().keySet().stream()
+                .map(OrderSnapshotExporter::snapshotTime)
+                .max(Comparator.naturalOrder());
+        if (from.isEmpty()) {
+            return Optional.of(exportFull(to));
+        }
+        if (!to.isAfter(from.get())) {
+            return Optional.empty();
+        }
+        return Optional.of(export(OrderSnapshot.Kind.INCREMENTAL, from.get(), to));
+    }
+
+    private OrderSnapshot export(OrderSnapshot.Kind kind, LocalDateTime from, LocalDateTime to) {
+        long started = System.nanoTime();
+        Path root = Path.of(properties.getDirectory());
+        String name = kind.prefix() + "-" + NAME_TIME.format(to);
+        Path work = root.resolve("." + name + ".tmp");
+        Path target = root.resolve(name);
+
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("snapshot.kind", kind.prefix());
+        metadata.put("snapshot.to", to.toString());
+        if (from != null) {
+            metadata.put("snapshot.from", from.toString());
+        }
+
+        long orderCount;
+        long lineCount;
+        try {
+            Files.createDirectories(root);
+            FileSystemUtils.deleteRecursively(work);
+            Files.createDirectory(work);
+            try (BufferAllocator allocator = new RootAllocator();
+                 OutputStream ordersOut = new BufferedOutputStream(Files.newOutputStream(work.resolve(ORDERS_FILE)));
+                 OutputStream linesOut = new BufferedOutputStream(Files.newOutputStream(work.resolve(ORDER_LINES_FILE)));
+                 OrderTableWriter orders = new OrderTableWriter(metadata, allocator, ordersOut, properties.getBatchSize());
+                 OrderLineTableWriter lines = new OrderLineTableWriter(metadata, allocator, linesOut, properties.getBatchSize())) {
+                shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+                    if (from == null) {
+                        jdbcTemplate.query(OrderTableWriter.SELECT, orders);
+                        jdbcTemplate.query(OrderLineTableWriter.SELECT, lines);
+                    } else {
+                        jdbcTemplate.query(OrderTableWriter.SELECT + CHANGED_ORDERS, orders, from, to);
+                        jdbcTemplate.query(OrderLineTableWriter.SELECT + LINES_OF_CHANGED_ORDERS, lines, from, to);
+                    }
+                }));
+                orders.finish();
+                lines.finish();
+                orderCount = orders.getRows();
+                lineCount = lines.getRows();
+            }
+            Files.move(work, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write order snapshot " + target, e);
+        } finally {
+            deleteQuietly(work);
+        }
+
+        log.info("Wrote order snapshot {}: {} orders, {} order lines in {} ms", target, orderCount, lineCount,
+                (System.nanoTime() - started) / 1_000_000);
+        return new OrderSnapshot(kind, target, from, to, orderCount, lineCount);
+    }
+
+    /**
+     * Delete the snapshots older than the oldest retained full snapshot, and work directories of failed runs
+     */
+    private void deleteExpired() {
+        Map<Path, OrderSnapshot.Kind> snapshots = snapshots();
+        List<LocalDateTime> fullTimes = new ArrayList<>();
+        snapshots.forEach((directory, kind) -> {
+            if (kind == OrderSnapshot.Kind.FULL) {
+                fullTimes.add(snapshotTime(directory));
+            }
+        });
+        if (fullTimes.size() > properties.getRetainFull()) {
+            fullTimes.sort(Comparator.reverseOrder());
+            LocalDateTime oldestRetained = fullTimes.get(properties.getRetainFull() - 1);
+            snapshots.keySet().stream()
+                    .filter(directory -> snapshotTime(directory).isBefore(oldestRetained))
+                    .forEach(this::deleteQuietly);
+        }
+        try (Stream<Path> entries = Files.list(Path.of(properties.getDirectory()))) {
+            entries.filter(entry -> entry.getFileName().toString().endsWith(".tmp")).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not list order snapshots in {}", properties.getDirectory(), e);
+        }
+    }
+
+    private Map<Path, OrderSnapshot.Kind> snapshots() {
+        Path root = Path.of(properties.getDirectory());
+        Map<Path, OrderSnapshot.Kind> snapshots = new HashMap<>();
+        if (!Files.isDirectory(root)) {
+            return snapshots;
+        }
+        try (Stream<Path> entries = Files.list(root)) {
+            entries.forEach(entry -> {
+                Matcher matcher = SNAPSHOT_NAME.matcher(entry.getFileName().toString());
+                if (matcher.matches()) {
+                    snapshots.put(entry, OrderSnapshot.Kind.valueOf(matcher.group(1).toUpperCase()));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list order snapshots in " + root, e);
+        }
+        return snapshots;
+    }
+
+    private static LocalDateTime snapshotTime(Path directory) {
+        String name = directory.getFileName().toString();
+        return LocalDateTime.parse(name.substring(name.indexOf('-') + 1), NAME_TIME);
+    }
+
+    private LocalDateTime settledNow() {
+        return LocalDateTime.now().minus(properties.getSettleTime()).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+}
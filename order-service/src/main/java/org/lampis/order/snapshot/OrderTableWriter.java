@@ -0,0 +1,145 @@
+package org.lampis.order.snapshot;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.lampis.common.enums.OrderStatus;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * orders rows as Arrow columns
+ * <p>
+ * status is encoded against a fixed dictionary of every {@link OrderStatus}, in declaration order.
+ * customer_id is encoded against a dictionary of the customers of each batch, written as a replacement
+ * dictionary before the batch.
+ */
+final class OrderTableWriter extends SnapshotTableWriter {
+
+    static final String SELECT = "SELECT id, customer_id, status, order_date, total_amount, deleted, created_at, updated_at " +
+            "FROM orders";
+
+    static final long STATUS_DICTIONARY = 1;
+    static final long CUSTOMER_DICTIONARY = 2;
+
+    private static final DictionaryEncoding STATUS_ENCODING =
+            new DictionaryEncoding(STATUS_DICTIONARY, false, new ArrowType.Int(8, true));
+    private static final DictionaryEncoding CUSTOMER_ENCODING =
+            new DictionaryEncoding(CUSTOMER_DICTIONARY, false, new ArrowType.Int(32, true));
+    private static final ArrowType TIMESTAMP = new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+
+    private static final List<Field> FIELDS = List.of(
+            field("id", new ArrowType.Int(64, true), null),
+            field("customer_id", CUSTOMER_ENCODING.getIndexType(), CUSTOMER_ENCODING),
+            field("status", STATUS_ENCODING.getIndexType(), STATUS_ENCODING),
+            field("order_date", TIMESTAMP, null),
+            field("total_amount", new ArrowType.Decimal(10, 2, 128), null),
+            field("deleted", ArrowType.Bool.INSTANCE, null),
+            field("created_at", TIMESTAMP, null),
+            field("updated_at", TIMESTAMP, null));
+
+    private final BigIntVector id;
+    private final IntVector customerId;
+    private final TinyIntVector status;
+    private final TimeStampMicroVector orderDate;
+    private final DecimalVector totalAmount;
+    private final BitVector deleted;
+    private final TimeStampMicroVector createdAt;
+    private final TimeStampMicroVector updatedAt;
+
+    private final VarCharVector statuses;
+    private final BigIntVector customers;
+    private final Map<Long, Integer> customerIndexes = new HashMap<>();
+    private final DictionaryProvider dictionaries;
+
+    OrderTableWriter(Map<String, String> metadata, BufferAllocator allocator, OutputStream out, int batchSize) {
+        super(FIELDS, metadata, allocator, out, batchSize);
+        id = vector(0);
+        customerId = vector(1);
+        status = vector(2);
+        orderDate = vector(3);
+        totalAmount = vector(4);
+        deleted = vector(5);
+        createdAt = vector(6);
+        updatedAt = vector(7);
+
+        statuses = new VarCharVector("status", allocator);
+        OrderStatus[] values = OrderStatus.values();
+        for (int i = 0; i < values.length; i++) {
+            statuses.setSafe(i, values[i].name().getBytes(StandardCharsets.UTF_8));
+        }
+        statuses.setValueCount(values.length);
+        customers = new BigIntVector("customer_id", allocator);
+        dictionaries = new DictionaryProvider.MapDictionaryProvider(
+                new Dictionary(statuses, STATUS_ENCODING),
+                new Dictionary(customers, CUSTOMER_ENCODING));
+    }
+
+    @Override
+    protected void append(ResultSet rs, int index) throws SQLException {
+        id.setSafe(index, rs.getLong(1));
+        customerId.setSafe(index, customerIndex(rs.getLong(2)));
+        status.setSafe(index, (byte) OrderStatus.valueOf(rs.getString(3)).ordinal());
+        orderDate.setSafe(index, micros(rs.getObject(4, LocalDateTime.class)));
+        totalAmount.setSafe(index, rs.getBigDecimal(5).setScale(2));
+        deleted.setSafe(index, rs.getBoolean(6) ? 1 : 0);
+        createdAt.setSafe(index, micros(rs.getObject(7, LocalDateTime.class)));
+        updatedAt.setSafe(index, micros(rs.getObject(8, LocalDateTime.class)));
+    }
+
+    @Override
+    protected DictionaryProvider dictionaries() {
+        return dictionaries;
+    }
+
+    @Override
+    protected void beforeBatch() {
+        customers.setValueCount(customerIndexes.size());
+    }
+
+    @Override
+    protected void afterBatch() {
+        customerIndexes.clear();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        statuses.close();
+        customers.close();
+    }
+
+    private int customerIndex(long customer) {
+        Integer index = customerIndexes.get(customer);
+        if (index == null) {
+            index = customerIndexes.size();
+            customers.setSafe(index, customer);
+            customerIndexes.put(customer, index);
+        }
+        return index;
+    }
+
+    private static Field field(String name, ArrowType type, DictionaryEncoding encoding) {
+        return new Field(name, new FieldType(false, type, encoding), null);
+    }
+}
@@ -0,0 +1,140 @@
+package org.lampis.order.snapshot;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the rows of a JDBC cursor to an Arrow IPC stream, one record batch per batchSize rows
+ * <p>
+ * The column vectors are allocated once and overwritten batch after batch, so memory stays at one batch
+ * whatever the table size. Dictionaries that changed since the previous batch are written again
+ * before it as replacement dictionaries.
+ */
+abstract class SnapshotTableWriter implements RowCallbackHandler, AutoCloseable {
+
+    private final VectorSchemaRoot root;
+    private final WritableByteChannel out;
+    private final int batchSize;
+    private ArrowStreamWriter writer;
+    private int batchRows;
+    private long rows;
+
+    protected SnapshotTableWriter(List<Field> fields, Map<String, String> metadata, BufferAllocator allocator,
+                                  OutputStream out, int batchSize) {
+        this.root = VectorSchemaRoot.create(new Schema(fields, metadata), allocator);
+        this.out = Channels.newChannel(out);
+        this.batchSize = batchSize;
+        for (FieldVector vector : root.getFieldVectors()) {
+            vector.setInitialCapacity(batchSize);
+            vector.allocateNew();
+        }
+    }
+
+    @Override
+    public final void processRow(ResultSet rs) throws SQLException {
+        append(rs, batchRows++);
+        rows++;
+        if (batchRows == batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Set the row's values at the given index of the current batch
+     */
+    protected abstract void append(ResultSet rs, int index) throws SQLException;
+
+    /**
+     * Dictionaries of the dictionary-encoded columns
+     */
+    protected abstract DictionaryProvider dictionaries();
+
+    /**
+     * Called before a batch is written, to complete the batch's dictionaries
+     */
+    protected void beforeBatch() {
+    }
+
+    /**
+     * Called after a batch was written, to start the next batch's dictionaries
+     */
+    protected void afterBatch() {
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <V extends FieldVector> V vector(int column) {
+        return (V) root.getVector(column);
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Write the last partial batch and the end-of-stream marker
+     */
+    public void finish() {
+        flush();
+        try {
+            writer().end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.close();
+        }
+        root.close();
+    }
+
+    /**
+     * Timestamp without time zone as Arrow stores it: microseconds of the wall-clock time read as UTC
+     */
+    protected static long micros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+
+    private void flush() {
+        if (batchRows == 0) {
+            return;
+        }
+        beforeBatch();
+        root.setRowCount(batchRows);
+        try {
+            writer().writeBatch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        batchRows = 0;
+        afterBatch();
+    }
+
+    private ArrowStreamWriter writer() throws IOException {
+        if (writer == null) {
+            writer = new ArrowStreamWriter(root, dictionaries(), out);
+            writer.start();
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,232 @@
+package org.lampis.order.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.common.dto.order.OrderStatusUpdate;
+import org.lampis.order.config.OrderStreamProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fan-out of order status updates to SSE subscribers of one order or of one customer's orders
+ * <p>
+ * An idle subscriber costs an async request and an index entry, no thread. Updates are queued in a
+ * bounded buffer per subscriber and written by a virtual thread, so a slow socket never blocks the
+ * publisher or other subscribers. A subscriber whose buffer overflows is disconnected; its client
+ * reconnects and receives the current status again. Keep-alive comments at a fixed interval
+ * detect disconnected clients the same way.
+ */
+@Component
+@Slf4j
+public class OrderStatusStreamHub implements DisposableBean {
+
+    static final String STATUS_EVENT = "status";
+
+    private final OrderStreamProperties properties;
+    private final Map<Long, Set<Subscriber>> orderSubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> customerSubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter evictions;
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("order-stream-heartbeat").daemon().factory());
+
+    public OrderStatusStreamHub(OrderStreamProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        Gauge.builder("order.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order status streams")
+                .register(registry);
+        this.evictions = Counter.builder("order.stream.evictions")
+                .description("Order status streams disconnected because their buffer was full")
+                .register(registry);
+
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stream the updates of one order, starting with its current status
+     * <p>
+     * The subscriber is registered before the current status is read, so no change is missed in between;
+     * a change may then arrive ahead of an older current status, which clients discard by changedAt.
+     */
+    public SseEmitter subscribeToOrder(Long orderId, Supplier<OrderStatusUpdate> currentStatus) {
+        Subscriber subscriber = register(orderSubscribers, orderId);
+        try {
+            subscriber.offer(currentStatus.get());
+        } catch (RuntimeException e) {
+            subscriber.remove();
+            throw e;
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Stream the updates of every order of a customer
+     */
+    public SseEmitter subscribeToCustomer(Long customerId) {
+        return register(customerSubscribers, customerId).emitter;
+    }
+
+    public void publish(OrderStatusUpdate update) {
+        deliver(orderSubscribers.get(update.getOrderId()), update);
+        deliver(customerSubscribers.get(update.getCustomerId()), update);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(Subscriber::remove);
+        writers.shutdownNow();
+    }
+
+    private void deliver(Set<Subscriber> targets, OrderStatusUpdate update) {
+        if (targets != null) {
+            targets.forEach(subscriber -> subscriber.offer(update));
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach(subscriber -> subscriber.offer(null));
+    }
+
+    private Subscriber register(Map<Long, Set<Subscriber>> index, Long key) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitExceededException(properties.getMaxSubscribers());
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.getTimeout().toMillis()), index, key);
+        index.compute(key, (k, set) -> {
+            Set<Subscriber> targets = set != null ? set : ConcurrentHashMap.newKeySet();
+            targets.add(subscriber);
+            return targets;
+        });
+        subscribers.add(subscriber);
+
+        subscriber.emitter.onCompletion(subscriber::remove);
+        subscriber.emitter.onTimeout(subscriber::remove);
+        subscriber.emitter.onError(e -> subscriber.remove());
+        return subscriber;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Map<Long, Set<Subscriber>> index;
+        private final Long key;
+        // null entries are keep-alive comments
+        private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Map<Long, Set<Subscriber>> index, Long key) {
+            this.emitter = emitter;
+            this.index = index;
+            this.key = key;
+        }
+
+        void offer(OrderStatusUpdate update) {
+            if (removed.get()) {
+                return;
+            }
+            if (!buffer.offer(update != null ? update : Heartbeat.INSTANCE)) {
+                evict();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Object next;
+                while (!removed.get() && (next = buffer.poll()) != null) {
+                    emitter.send(toEvent(next));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client gone: the container completes the async request
+                remove();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // an offer may have seen draining still set after the loop found the buffer empty
+            if (!removed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private SseEventBuilder toEvent(Object next) {
+            if (next == Heartbeat.INSTANCE) {
+                return SseEmitter.event().comment("keep-alive");
+            }
+            return SseEmitter.event().name(STATUS_EVENT).data(next, MediaType.APPLICATION_JSON);
+        }
+
+        private void evict() {
+            if (remove()) {
+                evictions.increment();
+                log.debug("Disconnecting slow order status subscriber of {}", key);
+                // complete off the caller: the emitter is locked while a blocked write is in progress
+                try {
+                    writers.execute(emitter::complete);
+                } catch (RejectedExecutionException e) {
+                    // shutting down
+                }
+            }
+        }
+
+        boolean remove() {
+            if (!removed.compareAndSet(false, true)) {
+                return false;
+            }
+            index.computeIfPresent(key, (k, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            subscribers.remove(this);
+            subscriberCount.decrementAndGet();
+            buffer.clear();
+            return true;
+        }
+    }
+
+    private enum Heartbeat {
+        INSTANCE
+    }
+}
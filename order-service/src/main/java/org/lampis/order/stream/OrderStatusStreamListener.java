@@ -0,0 +1,35 @@
+package org.lampis.order.stream;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.lampis.common.dto.order.OrderStatusUpdate;
+import org.lampis.common.event.order.OrderStatusChangedEvent;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Feeds the order status streams of this instance with the status changes of all instances,
+ * delivered through this instance's own queue on the order exchange
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusStreamListener {
+
+    private final OrderStatusStreamHub hub;
+
+    @RabbitListener(queues = "#{orderStatusStreamQueue.name}")
+    public void handleOrderStatusChanged(OrderStatusChangedEvent event) {
+        log.debug("Streaming status change of order {}: {} -> {}",
+                event.getOrderId(), event.getOldStatus(), event.getNewStatus());
+        hub.publish(OrderStatusUpdate.builder()
+                .orderId(event.getOrderId())
+                .customerId(event.getCustomerId())
+                .previousStatus(event.getOldStatus())
+                .status(event.getNewStatus())
+                .changedAt(event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,11 @@
+package org.lampis.order.stream;
+
+/**
+ * Thrown when an instance already serves the maximum number of order status streams
+ */
+public class SubscriberLimitExceededException extends RuntimeException {
+
+    public SubscriberLimitExceededException(int maxSubscribers) {
+        super(String.format("Order status streams are at capacity (%d subscribers)", maxSubscribers));
+    }
+}
@@ -0,0 +1,78 @@
+-- Schema of one order database (the primary, or one shard), for PostgreSQL and the embedded H2 test databases
+-- Hibernate runs with ddl-auto none, so this script is the only DDL. The Compose stack runs it when the
+-- postgres volume is first initialised; run it by hand against an existing database or shard. It can run again.
+-- order_id_seq is created by ShardIdSequenceInitializer at start-up, aligned to the shard count.
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_date TIMESTAMP NOT NULL,
+    total_amount NUMERIC(10, 2) NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_lines (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id BIGINT NOT NULL REFERENCES orders (id),
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_price NUMERIC(10, 2) NOT NULL,
+    line_total NUMERIC(10, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_audit (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    field_name VARCHAR(255) NOT NULL,
+    old_value VARCHAR(255),
+    new_value VARCHAR(255),
+    changed_at TIMESTAMP NOT NULL,
+    changed_by VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS inventory (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT NOT NULL UNIQUE,
+    product_name VARCHAR(255) NOT NULL,
+    available_stock INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_status_counters (
+    status VARCHAR(20) NOT NULL,
+    stripe INTEGER NOT NULL,
+    order_count BIGINT NOT NULL,
+    PRIMARY KEY (status, stripe)
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    order_id BIGINT,
+    response_body TEXT,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS product_prices (
+    product_id BIGINT PRIMARY KEY,
+    price DECIMAL(10, 2),
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS product_price_version_seq;
+
+-- customer history and customer searches
+CREATE INDEX IF NOT EXISTS idx_orders_customer_date ON orders (customer_id, order_date DESC, id DESC);
+-- status lists, the status scheduler and status searches
+CREATE INDEX IF NOT EXISTS idx_orders_status_date ON orders (status, order_date DESC, id DESC);
+-- date-range searches and the search keyset order
+CREATE INDEX IF NOT EXISTS idx_orders_date ON orders (order_date DESC, id DESC);
+-- lines of one or many orders
+CREATE INDEX IF NOT EXISTS idx_order_lines_order_id ON order_lines (order_id);
+-- incremental price catalog refresh
+CREATE INDEX IF NOT EXISTS idx_product_prices_version ON product_prices (version);
+-- purge of expired idempotency keys
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires ON idempotency_keys (expires_at);
@@ -0,0 +1,112 @@
+package org.lampis.order.controller;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.money.Money;
+import org.lampis.common.util.BinaryFormats;
+import org.lampis.order.config.BinaryContentConfiguration;
+import org.lampis.order.service.IdempotencyService;
+import org.lampis.order.service.OrderService;
+import org.lampis.order.stream.OrderStatusStreamHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Accept header negotiation of the order endpoints: CBOR and Smile on request, JSON otherwise
+ */
+@WebMvcTest(OrderController.class)
+@ContextConfiguration(classes = {OrderController.class, BinaryContentConfiguration.class})
+class OrderControllerContentNegotiationTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private OrderStatusStreamHub statusStreamHub;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        OrderResponse order = OrderResponse.builder()
+                .orderId(1L)
+                .customerId(7L)
+                .status(OrderStatus.PROCESSING)
+                .orderDate(ORDER_DATE)
+                .totalAmount(Money.ofMinor(5998))
+                .orderLines(List.of(OrderLineDTO.builder()
+                        .id(11L).productId(100L).quantity(2)
+                        .unitPrice(Money.ofMinor(2999)).lineTotal(Money.ofMinor(5998))
+                        .build()))
+                .build();
+        when(orderService.getAllOrders(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(order), PageRequest.of(0, 10), 1));
+    }
+
+    @Test
+    void getAllOrders_BinaryAcceptHeader_RoundTripsThePage() throws Exception {
+        Map<String, ObjectMapper> formats = Map.of(
+                BinaryFormats.APPLICATION_CBOR_VALUE, BinaryFormats.cborMapper(objectMapper),
+                BinaryFormats.APPLICATION_SMILE_VALUE, BinaryFormats.smileMapper(objectMapper));
+
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            MvcResult result = mockMvc.perform(get("/api/v1/orders").accept(format.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(format.getKey()))
+                    .andReturn();
+
+            OrderPage page = format.getValue().readValue(result.getResponse().getContentAsByteArray(), OrderPage.class);
+            assertEquals(1, page.content().size());
+            OrderResponse order = page.content().get(0);
+            assertEquals(1L, order.getOrderId());
+            assertEquals(ORDER_DATE, order.getOrderDate());
+            assertEquals(Money.ofMinor(5998), order.getTotalAmount());
+            assertEquals(Money.ofMinor(2999), order.getOrderLines().get(0).getUnitPrice());
+        }
+    }
+
+    @Test
+    void getAllOrders_AnyMediaType_ReturnsJson() throws Exception {
+        mockMvc.perform(get("/api/v1/orders").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content[0].orderId").value(1));
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record OrderPage(List<OrderResponse> content) {
+    }
+}
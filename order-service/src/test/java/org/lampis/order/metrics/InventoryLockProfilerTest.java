@@ -0,0 +1,81 @@
+package org.lampis.order.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.lampis.order.config.OrderMetricsProperties;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryLockProfilerTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void snapshot_RanksProductsByWaitTime() {
+        InventoryLockProfiler profiler = profiler(10);
+
+        profiler.record(1L, 5 * MILLI);
+        profiler.record(2L, 50 * MILLI);
+        profiler.record(2L, 30 * MILLI);
+        profiler.record(3L, 1 * MILLI);
+
+        InventoryLockProfiler.Snapshot snapshot = profiler.snapshot();
+        assertEquals(4, snapshot.getAcquisitions());
+        assertEquals(86.0, snapshot.getWaitMs(), 0.001);
+        List<InventoryLockProfiler.ProductLockContention> products = snapshot.getProducts();
+        assertEquals(List.of(2L, 1L, 3L), products.stream().map(InventoryLockProfiler.ProductLockContention::getProductId).toList());
+        assertEquals(2, products.get(0).getAcquisitions());
+        assertEquals(80.0, products.get(0).getWaitMs(), 0.001);
+        assertEquals(0.0, products.get(0).getErrorMs());
+        assertEquals(50.0, products.get(0).getMaxMs(), 0.5);
+        assertEquals(4, meterRegistry.get(InventoryLockProfiler.ACQUIRE_TIMER).timer().count());
+    }
+
+    @Test
+    void record_FullSketch_EvictsLeastContendedAndKeepsHeavyHitters() {
+        InventoryLockProfiler profiler = profiler(3);
+        profiler.record(1L, 100 * MILLI);
+        profiler.record(2L, 80 * MILLI);
+
+        // a long tail of lightly contended products cycles through the remaining slot
+        for (long productId = 100; productId < 150; productId++) {
+            profiler.record(productId, MILLI);
+        }
+
+        List<InventoryLockProfiler.ProductLockContention> products = profiler.snapshot().getProducts();
+        assertEquals(3, products.size());
+        assertEquals(1L, products.get(0).getProductId());
+        assertEquals(2L, products.get(1).getProductId());
+        // whichever tail product holds the slot inherited the wait of the products it replaced as its error
+        InventoryLockProfiler.ProductLockContention tail = products.get(2);
+        assertTrue(tail.getProductId() >= 100 && tail.getProductId() < 150);
+        assertEquals(1, tail.getAcquisitions());
+        assertEquals(1.0, tail.getWaitMs(), 0.001);
+        assertEquals(tail.getWaitMs() + tail.getErrorMs(), tail.getEstimatedWaitMs(), 0.001);
+        assertTrue(tail.getErrorMs() <= 49.0 + 0.001);
+        assertEquals(1.0, tail.getMaxMs(), 0.05);
+    }
+
+    @Test
+    void reset_ClearsSamples() {
+        InventoryLockProfiler profiler = profiler(10);
+        profiler.record(1L, MILLI);
+
+        profiler.reset();
+
+        InventoryLockProfiler.Snapshot snapshot = profiler.snapshot();
+        assertEquals(0, snapshot.getAcquisitions());
+        assertTrue(snapshot.getProducts().isEmpty());
+    }
+
+    private InventoryLockProfiler profiler(int topK) {
+        OrderMetricsProperties properties = new OrderMetricsProperties();
+        properties.setLockContentionTopK(topK);
+        return new InventoryLockProfiler(meterRegistry, properties);
+    }
+}
@@ -0,0 +1,87 @@
+package org.lampis.order.pricing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.lampis.common.money.Money;
+import org.lampis.order.config.PricingProperties;
+import org.lampis.order.repository.ProductPriceRepository;
+import org.lampis.order.repository.projection.ProductPriceView;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ProductPriceCatalogTest {
+
+    private final ProductPriceRepository priceRepository = mock(ProductPriceRepository.class);
+    private final PricingProperties properties = new PricingProperties();
+    private final ProductPriceCatalog catalog =
+            new ProductPriceCatalog(priceRepository, properties, new SimpleMeterRegistry());
+
+    @Test
+    void refresh_LowerVersionCommittedLate_IsPickedUpByTheLookback() {
+        properties.setVersionLookback(10);
+        when(priceRepository.findChangedSince(0)).thenReturn(List.of(price(1L, "10.00", 5), price(2L, "20.00", 7)));
+        catalog.refresh();
+
+        // version 6 commits after version 7 was read
+        when(priceRepository.findChangedSince(0)).thenReturn(List.of(
+                price(1L, "10.00", 5), price(3L, "30.00", 6), price(2L, "20.00", 7)));
+        catalog.refresh();
+
+        assertEquals(Money.ofMinor(3000), catalog.snapshot().priceOf(3L));
+        assertEquals(7, catalog.snapshot().getVersion());
+    }
+
+    @Test
+    void refresh_NothingChangedInTheLookback_KeepsTheSnapshot() {
+        when(priceRepository.findChangedSince(anyLong())).thenReturn(List.of(price(1L, "10.00", 5)));
+        catalog.refresh();
+        PriceSnapshot loaded = catalog.snapshot();
+
+        catalog.refresh();
+
+        assertSame(loaded, catalog.snapshot());
+    }
+
+    @Test
+    void refresh_FailedInitialLoad_IsRetriedAndGatesReadiness() {
+        PriceCatalogHealthIndicator health = new PriceCatalogHealthIndicator(catalog);
+        when(priceRepository.findChangedSince(0))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(List.of(price(1L, "10.00", 5)));
+
+        catalog.run(null);
+        assertFalse(catalog.isLoaded());
+        assertEquals(Status.DOWN, health.health().getStatus());
+
+        catalog.refresh();
+        assertTrue(catalog.isLoaded());
+        assertEquals(Status.UP, health.health().getStatus());
+        verify(priceRepository, times(2)).findChangedSince(0);
+    }
+
+    private static ProductPriceView price(Long productId, String price, long version) {
+        return new ProductPriceView() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Money getPrice() {
+                return Money.of(new BigDecimal(price));
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package org.lampis.order.service;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.lampis.common.config.RabbitMQConfig;
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.event.order.OrderCreatedEvent;
+import org.lampis.common.event.order.OrderStatusChangedEvent;
+import org.lampis.common.exception.IdempotencyKeyConflictException;
+import org.lampis.common.money.Money;
+import org.lampis.order.config.IdempotencyProperties;
+import org.lampis.order.config.ShardingProperties;
+import org.lampis.order.repository.IdempotencyRecordRepository;
+import org.lampis.order.service.impl.EventPublisherServiceImpl;
+import org.lampis.order.service.impl.IdempotencyServiceImpl;
+import org.lampis.order.sharding.ShardRouter;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order events leave the service only once the transaction that wrote them commits
+ */
+@SpringJUnitConfig(EventPublisherServiceTest.TransactionConfiguration.class)
+class EventPublisherServiceTest {
+
+    @Autowired
+    private EventPublisherService eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @Test
+    void publishOrderStatusChangedEvent_SentAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishOrderStatusChangedEvent(event());
+            verifyNoInteractions(rabbitTemplate);
+        });
+
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.ORDER_EXCHANGE),
+                eq(RabbitMQConfig.ORDER_STATUS_CHANGED_ROUTING_KEY), any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    void publishOrderStatusChangedEvent_RolledBack_NeverSent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishOrderStatusChangedEvent(event());
+            status.setRollbackOnly();
+        });
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void createOrderOnce_LostClaim_PublishesNothing() {
+        IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        // a retry took the claim over while the order was being created
+        when(repository.complete(anyString(), any(), any(), anyString())).thenReturn(0);
+        IdempotencyService idempotencyService = new IdempotencyServiceImpl(repository, new IdempotencyProperties(),
+                Jackson2ObjectMapperBuilder.json().build(), new ShardRouter(new ShardingProperties()), transactionManager);
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerId(7L)
+                .orderLines(List.of(OrderLineDTO.builder().productId(100L).quantity(1).build()))
+                .build();
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.createOrderOnce("7:checkout-1", request, () -> {
+            eventPublisher.publishOrderCreatedEvent(new OrderCreatedEvent(
+                    1L, 7L, OrderStatus.UNPROCESSED, Money.ofMinor(1000), LocalDateTime.now(), List.of()));
+            return OrderResponse.builder().orderId(1L).build();
+        }));
+
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    private static OrderStatusChangedEvent event() {
+        return new OrderStatusChangedEvent(1L, 7L, OrderStatus.UNPROCESSED, OrderStatus.CANCELLED);
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import(EventPublisherServiceImpl.class)
+    static class TransactionConfiguration {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:events;DB_CLOSE_DELAY=-1");
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.lampis.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.exception.BusinessException;
+import org.lampis.common.exception.IdempotencyKeyConflictException;
+import org.lampis.order.config.IdempotencyProperties;
+import org.lampis.order.config.ShardingProperties;
+import org.lampis.order.entity.IdempotencyRecord;
+import org.lampis.order.repository.IdempotencyRecordRepository;
+import org.lampis.order.service.impl.IdempotencyServiceImpl;
+import org.lampis.order.sharding.ShardRouter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyServiceImpl
+ */
+class IdempotencyServiceTest {
+
+    private static final String KEY = "7:checkout-1";
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicInteger creates = new AtomicInteger();
+    private PlatformTransactionManager transactionManager;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.complete(anyString(), any(), any(), anyString())).thenReturn(1);
+        idempotencyService = new IdempotencyServiceImpl(repository, new IdempotencyProperties(), objectMapper,
+                new ShardRouter(new ShardingProperties()), transactionManager);
+    }
+
+    @Test
+    void createOrderOnce_Retry_ReplaysStoredResponseWithoutCreatingAgain() {
+        IdempotencyService.Result first = idempotencyService.createOrderOnce(KEY, request(2), this::create);
+        IdempotencyService.Result retry = idempotencyService.createOrderOnce(KEY, request(2), this::create);
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertEquals(first.getResponse().getOrderId(), retry.getResponse().getOrderId());
+        assertEquals(1, creates.get());
+        verify(repository).insertClaim(eq(KEY), anyString(), any(), any());
+        verify(repository).complete(eq(KEY), any(LocalDateTime.class), eq(1L), anyString());
+    }
+
+    @Test
+    void createOrderOnce_SameKeyDifferentRequest_IsRejected() {
+        idempotencyService.createOrderOnce(KEY, request(2), this::create);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> idempotencyService.createOrderOnce(KEY, request(3), this::create));
+        assertEquals("IDEMPOTENCY_KEY_REUSED", exception.getErrorCode());
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void createOrderOnce_ConcurrentDuplicate_WaitsForRunningRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyService.Result> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.createOrderOnce(KEY, request(2), () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<IdempotencyService.Result> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.createOrderOnce(KEY, request(2), this::create));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        assertFalse(first.get(5, TimeUnit.SECONDS).isReplayed());
+        assertTrue(duplicate.get(5, TimeUnit.SECONDS).isReplayed());
+        assertEquals(1L, duplicate.get().getResponse().getOrderId());
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void createOrderOnce_CompletedOnAnotherInstance_ReplaysStoredResponse() throws Exception {
+        idempotencyService.createOrderOnce("7:other", request(2), this::create);
+        IdempotencyRecord stored = IdempotencyRecord.builder()
+                .key(KEY)
+                .requestHash(storedHash("7:other"))
+                .lockedAt(LocalDateTime.now())
+                .orderId(41L)
+                .responseBody(objectMapper.writeValueAsString(OrderResponse.builder().orderId(41L).build()))
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        when(repository.insertClaim(eq(KEY), anyString(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findById(KEY)).thenReturn(Optional.empty(), Optional.of(stored));
+
+        IdempotencyService.Result result = idempotencyService.createOrderOnce(KEY, request(2), this::create);
+
+        assertTrue(result.isReplayed());
+        assertEquals(41L, result.getResponse().getOrderId());
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void createOrderOnce_FailedRequest_ReleasesKeyForRetry() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.createOrderOnce(KEY, request(2), () -> {
+            throw new IllegalStateException("inventory unavailable");
+        }));
+        verify(repository).releaseClaim(eq(KEY), any(LocalDateTime.class));
+
+        IdempotencyService.Result retry = idempotencyService.createOrderOnce(KEY, request(2), this::create);
+        assertFalse(retry.isReplayed());
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void createOrderOnce_ClaimTakenOverWhileRunning_RollsBackTheOrder() {
+        when(repository.complete(eq(KEY), any(), any(), anyString())).thenReturn(0);
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> idempotencyService.createOrderOnce(KEY, request(2), this::create));
+
+        // the order and the completion share one transaction, and it is not committed
+        verify(transactionManager).rollback(any());
+        verify(repository).releaseClaim(eq(KEY), any(LocalDateTime.class));
+    }
+
+    private OrderResponse create() {
+        return OrderResponse.builder()
+                .orderId((long) creates.incrementAndGet())
+                .customerId(7L)
+                .status(OrderStatus.UNPROCESSED)
+                .build();
+    }
+
+    private String storedHash(String key) {
+        verify(repository).insertClaim(eq(key), anyString(), any(), any());
+        return mockingDetails(repository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("insertClaim"))
+                .map(invocation -> (String) invocation.getArgument(1))
+                .findFirst().orElseThrow();
+    }
+
+    private static CreateOrderRequest request(int quantity) {
+        return CreateOrderRequest.builder()
+                .customerId(7L)
+                .orderLines(List.of(OrderLineDTO.builder().productId(100L).quantity(quantity).build()))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,37 +4,62 @@ import org.lampis.common.dto.order.*;
 import org.lampis.common.enums.OrderStatus;
 import org.lampis.common.event.order.OrderCreatedEvent;
 import org.lampis.common.event.order.OrderStatusChangedEvent;
+import org.lampis.common.exception.BusinessException;
 import org.lampis.common.exception.InsufficientStockException;
 import org.lampis.common.exception.InvalidOrderStateException;
+import org.lampis.common.exception.OrderConflictException;
 import org.lampis.common.exception.ResourceNotFoundException;
+import org.lampis.common.money.Money;
+import org.lampis.order.config.BulkOperationProperties;
+import org.lampis.order.config.InventoryProperties;
+import org.lampis.order.config.LargeOrderProperties;
+import org.lampis.order.config.OrderMetricsProperties;
 import org.lampis.order.entity.Inventory;
 import org.lampis.order.entity.Order;
 import org.lampis.order.entity.OrderAudit;
 import org.lampis.order.entity.OrderLine;
+import org.lampis.order.metrics.InventoryLockProfiler;
+import org.lampis.order.metrics.OrderMetrics;
+import org.lampis.order.pricing.PriceSnapshot;
+import org.lampis.order.pricing.ProductPriceCatalog;
 import org.lampis.order.repository.InventoryRepository;
 import org.lampis.order.repository.OrderAuditRepository;
 import org.lampis.order.repository.OrderRepository;
+import org.lampis.order.repository.projection.OrderStatusView;
+import org.lampis.order.repository.projection.OrderSummaryView;
+import org.lampis.order.repository.projection.ProductQuantityView;
 import org.lampis.order.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -55,6 +80,34 @@ class OrderServiceTest {
     @Mock
     private EventPublisherService eventPublisher;
 
+    @Mock
+    private OrderStatusCounterService statusCounterService;
+
+    @Spy
+    private BulkOperationProperties bulkProperties = new BulkOperationProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OrderMetrics orderMetrics = new OrderMetrics(meterRegistry, new OrderMetricsProperties());
+
+    @Spy
+    private InventoryLockProfiler lockProfiler = new InventoryLockProfiler(meterRegistry, new OrderMetricsProperties());
+
+    @Mock
+    private ProductPriceCatalog priceCatalog;
+
+    @Spy
+    private LargeOrderProperties largeOrderProperties = new LargeOrderProperties();
+
+    @Spy
+    private InventoryProperties inventoryProperties = new InventoryProperties();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -65,6 +118,8 @@ class OrderServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(priceCatalog.snapshot()).thenReturn(PriceSnapshot.of(Map.of(1L, Money.ofMinor(2999)), 1));
+
         // Setup test inventory
         testInventory = Inventory.builder()
                 .id(1L)
@@ -79,7 +134,7 @@ class OrderServiceTest {
                 .customerId(123L)
                 .status(OrderStatus.UNPROCESSED)
                 .orderDate(LocalDateTime.now())
-                .totalAmount(new BigDecimal("59.98"))
+                .totalAmount(Money.ofMinor(5998))
                 .deleted(false)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
@@ -90,8 +145,8 @@ class OrderServiceTest {
                 .order(testOrder)
                 .productId(1L)
                 .quantity(2)
-                .unitPrice(new BigDecimal("29.99"))
-                .lineTotal(new BigDecimal("59.98"))
+                .unitPrice(Money.ofMinor(2999))
+                .lineTotal(Money.ofMinor(5998))
                 .build();
 
         testOrder.setOrderLines(new ArrayList<>(List.of(orderLine)));
@@ -100,7 +155,7 @@ class OrderServiceTest {
         OrderLineDTO lineDTO = OrderLineDTO.builder()
                 .productId(1L)
                 .quantity(2)
-                .unitPrice(new BigDecimal("29.99"))
+                .unitPrice(Money.ofMinor(2999))
                 .build();
 
         createRequest = CreateOrderRequest.builder()
@@ -116,18 +171,95 @@ class OrderServiceTest {
 
     // ============== CREATE ORDER TESTS ==============
 
+    @Test
+    void createOrder_PricesLinesFromCatalog_IgnoringClientPrice() {
+        // Arrange
+        createRequest.getOrderLines().get(0).setUnitPrice(Money.ofMinor(1));
+        when(inventoryRepository.findAvailableStockByProductId(1L)).thenReturn(Optional.of(100));
+        when(inventoryRepository.findByProductIdWithLock(1L)).thenReturn(Optional.of(testInventory));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        OrderResponse response = orderService.createOrder(createRequest);
+
+        // Assert
+        assertEquals(Money.ofMinor(5998), response.getTotalAmount());
+        assertEquals(Money.ofMinor(2999), response.getOrderLines().get(0).getUnitPrice());
+        verify(eventPublisher).publishOrderCreatedEvent(argThat(event ->
+                Money.ofMinor(2999).equals(event.getOrderLines().get(0).getUnitPrice())));
+    }
 
     @Test
-    void createOrder_InsufficientStock_ThrowsException() {
+    void createOrder_LargeOrder_ReservesPerProductInBatchesAndReturnsSummary() {
+        // Arrange: 5 lines over 3 products, 2 products per reservation batch
+        largeOrderProperties.setLineThreshold(4);
+        largeOrderProperties.setChunkSize(2);
+        when(priceCatalog.snapshot()).thenReturn(PriceSnapshot.of(
+                Map.of(1L, Money.ofMinor(150), 2L, Money.ofMinor(200), 3L, Money.ofMinor(1000)), 1));
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerId(123L)
+                .orderLines(List.of(line(3L, 1), line(1L, 2), line(2L, 1), line(1L, 4), line(3L, 1)))
+                .build();
+        when(inventoryRepository.batchReserveStock(any())).thenReturn(List.of());
+        when(orderRepository.saveAndFlush(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(42L);
+            return order;
+        });
+
+        // Act
+        OrderResponse response = orderService.createOrder(request);
+
+        // Assert
+        assertEquals(42L, response.getOrderId());
+        assertEquals(5, response.getLineCount());
+        assertNull(response.getOrderLines());
+        assertEquals(Money.ofMinor(3100), response.getTotalAmount());
+        verify(inventoryRepository).batchReserveStock(argThat(chunk ->
+                List.copyOf(chunk.entrySet()).equals(List.of(Map.entry(1L, 6), Map.entry(2L, 1)))));
+        verify(inventoryRepository).batchReserveStock(argThat(chunk -> chunk.equals(Map.of(3L, 2))));
+        verify(orderRepository).batchInsertLines(eq(42L), argThat(lines -> lines.size() == 2
+                && Money.ofMinor(1000).equals(lines.get(0).getLineTotal())));
+        verify(orderRepository).batchInsertLines(eq(42L), argThat(lines -> lines.size() == 1));
+        verify(inventoryRepository, never()).findByProductIdWithLock(anyLong());
+    }
+
+    @Test
+    void createOrder_LargeOrder_InsufficientStock_ThrowsException() {
         // Arrange
-        Inventory lowStock = Inventory.builder()
-                .id(1L)
-                .productId(1L)
-                .productName("Test Product")
-                .availableStock(1) // Less than requested
+        largeOrderProperties.setLineThreshold(1);
+        CreateOrderRequest request = CreateOrderRequest.builder()
+                .customerId(123L)
+                .orderLines(List.of(line(1L, 60), line(1L, 60)))
                 .build();
+        when(inventoryRepository.batchReserveStock(any())).thenReturn(List.of(1L));
+        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.of(testInventory));
+
+        // Act & Assert
+        InsufficientStockException exception = assertThrows(
+                InsufficientStockException.class,
+                () -> orderService.createOrder(request)
+        );
+        assertEquals(120, exception.getRequestedQuantity());
+        assertEquals(100, exception.getAvailableStock());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_ProductWithoutPrice_ThrowsBeforeAnyQuery() {
+        // Arrange
+        when(priceCatalog.snapshot()).thenReturn(PriceSnapshot.EMPTY);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> orderService.createOrder(createRequest));
+        assertEquals("PRICE_NOT_FOUND", exception.getErrorCode());
+        verifyNoInteractions(inventoryRepository, orderRepository);
+    }
 
-        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.of(lowStock));
+    @Test
+    void createOrder_InsufficientStock_ThrowsException() {
+        // Arrange
+        when(inventoryRepository.findAvailableStockByProductId(1L)).thenReturn(Optional.of(1)); // Less than requested
 
         // Act & Assert
         InsufficientStockException exception = assertThrows(
@@ -142,12 +274,19 @@ class OrderServiceTest {
         // Verify no order was saved
         verify(orderRepository, never()).save(any(Order.class));
         verify(eventPublisher, never()).publishOrderCreatedEvent(any(OrderCreatedEvent.class));
+
+        // Verify the rejection and the failed phase were recorded
+        assertEquals(1.0, meterRegistry.get("order.inventory.insufficient.stock").tag("product", "1").counter().count());
+        assertEquals(1, meterRegistry.get("order.service.phase")
+                .tags("operation", "create", "phase", "validate_inventory").timer().count());
+        assertEquals(0, meterRegistry.get("order.service.phase")
+                .tags("operation", "create", "phase", "reserve_inventory").timer().count());
     }
 
     @Test
     void createOrder_ProductNotFound_ThrowsException() {
         // Arrange
-        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.empty());
+        when(inventoryRepository.findAvailableStockByProductId(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(createRequest));
@@ -156,6 +295,10 @@ class OrderServiceTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
 
+    private static OrderLineDTO line(Long productId, int quantity) {
+        return OrderLineDTO.builder().productId(productId).quantity(quantity).build();
+    }
+
     // ============== GET ORDER TESTS ==============
 
     @Test
@@ -164,7 +307,7 @@ class OrderServiceTest {
         when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(testOrder));
 
         // Act
-        OrderResponse response = orderService.getOrderById(1L);
+        OrderResponse response = orderService.getOrderById(1L, OrderFieldSelection.ALL);
 
         // Assert
         assertNotNull(response);
@@ -179,7 +322,102 @@ class OrderServiceTest {
         when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(1L));
+        assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(1L, OrderFieldSelection.ALL));
+    }
+
+    @Test
+    void getOrdersByIds_ReturnsRequestOrderWithMisses() {
+        // Arrange
+        Order secondOrder = Order.builder()
+                .id(2L)
+                .customerId(124L)
+                .status(OrderStatus.PROCESSING)
+                .totalAmount(Money.ofMinor(1000))
+                .deleted(false)
+                .build();
+        OrderLine line = testOrder.getOrderLines().get(0);
+        when(orderRepository.findAllByIdInAndNotDeleted(List.of(2L, 9L, 1L)))
+                .thenReturn(List.of(testOrder, secondOrder));
+        when(orderRepository.findLinesByOrderIds(any())).thenReturn(List.of(line));
+
+        // Act - duplicate ID is collapsed
+        OrderLookupResponse response = orderService.getOrdersByIds(List.of(2L, 9L, 1L, 2L), OrderFieldSelection.ALL);
+
+        // Assert
+        assertEquals(3, response.getRequested());
+        assertEquals(2, response.getFound());
+        assertEquals(2L, response.getResults().get(0).getOrderId());
+        assertTrue(response.getResults().get(0).getOrder().getOrderLines().isEmpty());
+        assertFalse(response.getResults().get(1).isFound());
+        assertNull(response.getResults().get(1).getOrder());
+        assertEquals(1, response.getResults().get(2).getOrder().getOrderLines().size());
+        verify(orderRepository, never()).findByIdAndNotDeleted(anyLong());
+    }
+
+    @Test
+    void getOrdersByIds_TooManyIds_ThrowsException() {
+        // Arrange
+        bulkProperties.setMaxLookupIds(2);
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> orderService.getOrdersByIds(List.of(1L, 2L, 3L), OrderFieldSelection.ALL));
+        verify(orderRepository, never()).findAllByIdInAndNotDeleted(anyList());
+    }
+
+    @Test
+    void getOrderById_WithoutLines_UsesProjection() {
+        // Arrange
+        when(orderRepository.findSummaryById(1L)).thenReturn(Optional.of(OrderSummaryView.of(testOrder)));
+
+        // Act
+        OrderResponse response = orderService.getOrderById(1L,
+                OrderFieldSelection.parse("orderId,status,totalAmount", null));
+
+        // Assert
+        assertEquals(1L, response.getOrderId());
+        assertEquals(OrderStatus.UNPROCESSED, response.getStatus());
+        assertEquals(Money.ofMinor(5998), response.getTotalAmount());
+        assertNull(response.getCustomerId());
+        assertNull(response.getOrderLines());
+        verify(orderRepository, never()).findByIdAndNotDeleted(anyLong());
+    }
+
+    @Test
+    void getOrderById_SparseFieldsWithIncludeLines_LoadsLines() {
+        // Arrange
+        when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(testOrder));
+
+        // Act
+        OrderResponse response = orderService.getOrderById(1L, OrderFieldSelection.parse("orderId", "lines"));
+
+        // Assert
+        assertEquals(1L, response.getOrderId());
+        assertNull(response.getStatus());
+        assertEquals(1, response.getOrderLines().size());
+    }
+
+    @Test
+    void orderFieldSelection_UnknownField_ThrowsException() {
+        assertThrows(BusinessException.class, () -> OrderFieldSelection.parse("orderId,secret", null));
+        assertThrows(BusinessException.class, () -> OrderFieldSelection.parse(null, "audit"));
+    }
+
+    @Test
+    void getAllOrders_WithoutLines_UsesProjection() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<OrderSummaryView> summaryPage = new PageImpl<>(List.of(OrderSummaryView.of(testOrder)));
+        when(orderRepository.findAllSummariesNotDeleted(pageable)).thenReturn(summaryPage);
+
+        // Act
+        Page<OrderResponse> response = orderService.getAllOrders(pageable,
+                OrderFieldSelection.parse("orderId,status", null));
+
+        // Assert
+        assertEquals(1, response.getTotalElements());
+        assertNull(response.getContent().get(0).getOrderLines());
+        verify(orderRepository, never()).findAllNotDeleted(any(Pageable.class));
+        verify(orderRepository, never()).findLinesByOrderIds(any());
     }
 
     @Test
@@ -190,7 +428,7 @@ class OrderServiceTest {
         when(orderRepository.findAllNotDeleted(pageable)).thenReturn(orderPage);
 
         // Act
-        Page<OrderResponse> response = orderService.getAllOrders(pageable);
+        Page<OrderResponse> response = orderService.getAllOrders(pageable, OrderFieldSelection.ALL);
 
         // Assert
         assertNotNull(response);
@@ -206,7 +444,7 @@ class OrderServiceTest {
         when(orderRepository.findByCustomerId(123L, pageable)).thenReturn(orderPage);
 
         // Act
-        Page<OrderResponse> response = orderService.getOrdersByCustomerId(123L, pageable);
+        Page<OrderResponse> response = orderService.getOrdersByCustomerId(123L, pageable, OrderFieldSelection.ALL);
 
         // Assert
         assertNotNull(response);
@@ -222,7 +460,7 @@ class OrderServiceTest {
         when(orderRepository.findByStatus(OrderStatus.UNPROCESSED, pageable)).thenReturn(orderPage);
 
         // Act
-        Page<OrderResponse> response = orderService.getOrdersByStatus(OrderStatus.UNPROCESSED, pageable);
+        Page<OrderResponse> response = orderService.getOrdersByStatus(OrderStatus.UNPROCESSED, pageable, OrderFieldSelection.ALL);
 
         // Assert
         assertNotNull(response);
@@ -230,27 +468,129 @@ class OrderServiceTest {
         verify(orderRepository).findByStatus(OrderStatus.UNPROCESSED, pageable);
     }
 
+    // ============== SEARCH ORDERS TESTS ==============
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchOrders_MoreResults_ReturnsCursor() {
+        // Arrange - one row more than the page size signals another page
+        Order olderOrder = Order.builder()
+                .id(2L)
+                .customerId(123L)
+                .status(OrderStatus.UNPROCESSED)
+                .orderDate(testOrder.getOrderDate().minusDays(1))
+                .totalAmount(Money.ofMinor(1000))
+                .build();
+        when(orderRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(testOrder, olderOrder), index -> ScrollPosition.keyset()));
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder().customerId(123L).build();
+
+        // Act
+        OrderSearchResponse response = orderService.searchOrders(criteria, null, 1,
+                OrderFieldSelection.parse("orderId,status", null));
+
+        // Assert
+        assertEquals(1, response.getSize());
+        assertEquals(1L, response.getOrders().get(0).getOrderId());
+        assertTrue(response.isHasNext());
+        assertNotNull(response.getNextCursor());
+        verify(orderRepository, never()).findLinesByOrderIds(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchOrders_LastPage_HasNoCursor() {
+        // Arrange
+        when(orderRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(testOrder), index -> ScrollPosition.keyset()));
+
+        // Act
+        OrderSearchResponse response = orderService.searchOrders(
+                new OrderSearchCriteria(), null, 20, OrderFieldSelection.ALL);
+
+        // Assert
+        assertFalse(response.isHasNext());
+        assertNull(response.getNextCursor());
+        verify(orderRepository).findLinesByOrderIds(List.of(1L));
+    }
+
+    @Test
+    void searchOrders_InvalidCursorOrSize_ThrowsException() {
+        assertThrows(BusinessException.class, () -> orderService.searchOrders(
+                new OrderSearchCriteria(), "not-a-cursor", 20, OrderFieldSelection.ALL));
+        assertThrows(BusinessException.class, () -> orderService.searchOrders(
+                new OrderSearchCriteria(), null, 0, OrderFieldSelection.ALL));
+    }
+
+    // ============== UPDATE ORDER TESTS ==============
+
+    @Test
+    void updateOrder_TakesOnlyTheNetStockChange() {
+        // Arrange: the order holds 2, the new lines want 5
+        updateRequest.getOrderLines().get(0).setQuantity(5);
+        when(orderRepository.findByIdAndNotDeletedForUpdate(1L)).thenReturn(Optional.of(testOrder));
+        when(inventoryRepository.findByProductIdWithLock(1L)).thenReturn(Optional.of(testInventory));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        orderService.updateOrder(1L, updateRequest);
+
+        // Assert
+        assertEquals(97, testInventory.getAvailableStock());
+        verify(inventoryRepository, times(1)).findByProductIdWithLock(1L);
+        verify(inventoryRepository, never()).findByProductId(anyLong());
+    }
+
+    @Test
+    void updateOrder_ConditionalUpdate_ShortOfStock_ThrowsException() {
+        // Arrange
+        inventoryProperties.setReservation(InventoryProperties.Reservation.CONDITIONAL_UPDATE);
+        updateRequest.getOrderLines().get(0).setQuantity(200);
+        when(orderRepository.findByIdAndNotDeletedForUpdate(1L)).thenReturn(Optional.of(testOrder));
+        when(inventoryRepository.batchReserveStock(Map.of(1L, 198))).thenReturn(List.of(1L));
+        when(inventoryRepository.findByProductId(1L)).thenReturn(Optional.of(testInventory));
+
+        // Act & Assert
+        InsufficientStockException exception = assertThrows(
+                InsufficientStockException.class,
+                () -> orderService.updateOrder(1L, updateRequest)
+        );
+
+        assertEquals(198, exception.getRequestedQuantity());
+        assertEquals(100, exception.getAvailableStock());
+        verify(inventoryRepository, never()).findByProductIdWithLock(anyLong());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     // ============== UPDATE ORDER STATUS TESTS ==============
 
     @Test
     void updateOrderStatus_ValidTransition_Success() {
         // Arrange
-        when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderRepository.findSummaryById(1L)).thenReturn(Optional.of(OrderSummaryView.of(testOrder)));
+        when(orderRepository.transitionStatus(eq(1L), eq(OrderStatus.PROCESSING), any(), any())).thenReturn(1);
+        when(orderRepository.findLinesByOrderIds(List.of(1L))).thenReturn(testOrder.getOrderLines());
 
         // Act
         OrderResponse response = orderService.updateOrderStatus(1L, OrderStatus.PROCESSING);
 
-        // Assert
-        assertNotNull(response);
+        // Assert: one compare-and-set on the status read, and a response with lines without loading the aggregate
+        assertEquals(OrderStatus.PROCESSING, response.getStatus());
+        assertEquals(123L, response.getCustomerId());
+        assertEquals(1, response.getOrderLines().size());
+        verify(orderRepository).transitionStatus(eq(1L), eq(OrderStatus.PROCESSING),
+                eq(EnumSet.of(OrderStatus.UNPROCESSED)), any());
+        verify(orderRepository, never()).findByIdAndNotDeleted(anyLong());
+        verify(orderRepository, never()).save(any(Order.class));
         verify(orderAuditRepository).save(any(OrderAudit.class));
         verify(eventPublisher).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
+        verify(statusCounterService).recordTransition(OrderStatus.UNPROCESSED, OrderStatus.PROCESSING, 1);
     }
 
     @Test
     void updateOrderStatus_InvalidTransition_ThrowsException() {
         // Arrange
-        when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findSummaryById(1L)).thenReturn(Optional.of(OrderSummaryView.of(testOrder)));
 
         // Act & Assert - trying to skip from UNPROCESSED to SHIPPED
         InvalidOrderStateException exception = assertThrows(
@@ -262,7 +602,7 @@ class OrderServiceTest {
         assertEquals(OrderStatus.SHIPPED, exception.getTargetStatus());
 
         // Verify no update happened
-        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).transitionStatus(anyLong(), any(), any(), any());
         verify(eventPublisher, never()).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
     }
 
@@ -270,37 +610,208 @@ class OrderServiceTest {
     void updateOrderStatus_FromProcessingToProcessed_Success() {
         // Arrange
         testOrder.setStatus(OrderStatus.PROCESSING);
-        when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderRepository.findSummaryById(1L)).thenReturn(Optional.of(OrderSummaryView.of(testOrder)));
+        when(orderRepository.transitionStatus(eq(1L), eq(OrderStatus.PROCESSED), any(), any())).thenReturn(1);
 
         // Act
         OrderResponse response = orderService.updateOrderStatus(1L, OrderStatus.PROCESSED);
 
         // Assert
         assertNotNull(response);
-        verify(eventPublisher).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
+        assertEquals(OrderStatus.PROCESSED, response.getStatus());
+        verify(eventPublisher).publishOrderStatusChangedEvent(argThat(event ->
+                event.getOldStatus() == OrderStatus.PROCESSING && event.getNewStatus() == OrderStatus.PROCESSED));
     }
 
     @Test
-    void updateOrderStatus_CancelUnprocessed_Success() {
+    void updateOrderStatus_CancelUnprocessed_ReleasesStock() {
         // Arrange
-        when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(testOrder));
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderRepository.findSummaryById(1L)).thenReturn(Optional.of(OrderSummaryView.of(testOrder)));
+        when(orderRepository.transitionStatus(eq(1L), eq(OrderStatus.CANCELLED), any(), any())).thenReturn(1);
+        when(orderRepository.sumLineQuantitiesByProduct(List.of(1L))).thenReturn(List.of(productQuantity(1L, 2L)));
+        when(inventoryRepository.releaseStock(1L, 2)).thenReturn(1);
 
         // Act
         OrderResponse response = orderService.updateOrderStatus(1L, OrderStatus.CANCELLED);
 
-        // Assert
+        // Assert - same stock release as a bulk cancel
         assertNotNull(response);
+        verify(inventoryRepository).releaseStock(1L, 2);
         verify(eventPublisher).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
     }
 
+    @Test
+    void updateOrderStatus_CancelProcessing_KeepsStock() {
+        // Arrange
+        testOrder.setStatus(OrderStatus.PROCESSING);
+        when(orderRepository.findSummaryById(1L)).thenReturn(Optional.of(OrderSummaryView.of(testOrder)));
+        when(orderRepository.transitionStatus(eq(1L), eq(OrderStatus.CANCELLED), any(), any())).thenReturn(1);
+
+        // Act
+        orderService.updateOrderStatus(1L, OrderStatus.CANCELLED);
+
+        // Assert
+        verify(orderRepository, never()).sumLineQuantitiesByProduct(anyList());
+        verify(inventoryRepository, never()).releaseStock(anyLong(), any());
+    }
+
+    @Test
+    void updateOrderStatus_ConcurrentTransition_ThrowsConflict() {
+        // Arrange - another request moved the order on between the read and the update
+        when(orderRepository.findSummaryById(1L)).thenReturn(Optional.of(OrderSummaryView.of(testOrder)));
+        when(orderRepository.transitionStatus(eq(1L), eq(OrderStatus.PROCESSING), any(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(OrderConflictException.class,
+                () -> orderService.updateOrderStatus(1L, OrderStatus.PROCESSING));
+        verify(orderAuditRepository, never()).save(any(OrderAudit.class));
+        verify(eventPublisher, never()).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
+        verify(statusCounterService, never()).recordTransition(any(), any(), anyInt());
+    }
+
+    @Test
+    void updateOrderStatus_NotFound_ThrowsException() {
+        // Arrange
+        when(orderRepository.findSummaryById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> orderService.updateOrderStatus(1L, OrderStatus.PROCESSING));
+        verify(orderRepository, never()).transitionStatus(anyLong(), any(), any(), any());
+    }
+
+    // ============== BULK UPDATE ORDER STATUS TESTS ==============
+
+    @Test
+    void bulkUpdateOrderStatus_MixedOutcomes_ReportsPerOrder() {
+        // Arrange
+        BulkUpdateOrderStatusRequest request = BulkUpdateOrderStatusRequest.builder()
+                .orderIds(List.of(1L, 2L, 3L, 4L))
+                .status(OrderStatus.PROCESSING)
+                .build();
+        when(orderRepository.findStatusViewsByIdInForUpdate(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                statusView(1L, 123L, OrderStatus.UNPROCESSED),
+                statusView(2L, 124L, OrderStatus.SHIPPED),
+                statusView(3L, 125L, OrderStatus.PROCESSING)));
+        when(orderRepository.transitionStatusForIds(eq(List.of(1L)), eq(OrderStatus.PROCESSING),
+                eq(OrderStatus.UNPROCESSED), any())).thenReturn(1);
+
+        // Act
+        BulkOrderStatusResponse response = orderService.bulkUpdateOrderStatus(request);
+
+        // Assert
+        assertEquals(4, response.getRequested());
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getUnchanged());
+        assertEquals(2, response.getFailed());
+        assertEquals(BulkOrderStatusResult.Outcome.UPDATED, response.getResults().get(0).getOutcome());
+        assertEquals(BulkOrderStatusResult.Outcome.INVALID_TRANSITION, response.getResults().get(1).getOutcome());
+        assertEquals(BulkOrderStatusResult.Outcome.UNCHANGED, response.getResults().get(2).getOutcome());
+        assertEquals(BulkOrderStatusResult.Outcome.NOT_FOUND, response.getResults().get(3).getOutcome());
+        verify(orderAuditRepository).batchInsert(argThat(audits -> audits.size() == 1));
+        verify(eventPublisher).publishOrderStatusChangedEvents(argThat(events -> events.size() == 1));
+        verify(inventoryRepository, never()).releaseStock(anyLong(), any());
+        verify(statusCounterService).recordTransition(OrderStatus.UNPROCESSED, OrderStatus.PROCESSING, 1);
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_CancelUnprocessed_ReleasesAggregatedStock() {
+        // Arrange
+        bulkProperties.setChunkSize(10);
+        BulkUpdateOrderStatusRequest request = BulkUpdateOrderStatusRequest.builder()
+                .customerId(123L)
+                .status(OrderStatus.CANCELLED)
+                .build();
+        when(orderRepository.findIdsByFilter(eq(123L), eq(null), any(Pageable.class))).thenReturn(List.of(1L, 2L, 3L));
+        when(orderRepository.findStatusViewsByIdInForUpdate(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                statusView(1L, 123L, OrderStatus.UNPROCESSED),
+                statusView(2L, 123L, OrderStatus.UNPROCESSED),
+                statusView(3L, 123L, OrderStatus.PROCESSING)));
+        when(orderRepository.transitionStatusForIds(eq(List.of(1L, 2L)), eq(OrderStatus.CANCELLED),
+                eq(OrderStatus.UNPROCESSED), any())).thenReturn(2);
+        when(orderRepository.transitionStatusForIds(eq(List.of(3L)), eq(OrderStatus.CANCELLED),
+                eq(OrderStatus.PROCESSING), any())).thenReturn(1);
+        when(orderRepository.sumLineQuantitiesByProduct(List.of(1L, 2L)))
+                .thenReturn(List.of(productQuantity(1L, 5L), productQuantity(2L, 3L)));
+        when(inventoryRepository.releaseStock(anyLong(), any())).thenReturn(1);
+
+        // Act
+        BulkOrderStatusResponse response = orderService.bulkUpdateOrderStatus(request);
+
+        // Assert - stock released once per product, only for orders cancelled from UNPROCESSED
+        assertEquals(3, response.getUpdated());
+        verify(inventoryRepository).releaseStock(1L, 5);
+        verify(inventoryRepository).releaseStock(2L, 3);
+        verify(inventoryRepository, never()).findByProductIdWithLock(anyLong());
+        verify(orderAuditRepository).batchInsert(argThat(audits -> audits.size() == 3));
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_ProcessesInChunks() {
+        // Arrange
+        bulkProperties.setChunkSize(2);
+        BulkUpdateOrderStatusRequest request = BulkUpdateOrderStatusRequest.builder()
+                .orderIds(List.of(1L, 2L, 3L))
+                .status(OrderStatus.PROCESSING)
+                .build();
+        when(orderRepository.findStatusViewsByIdInForUpdate(anyList())).thenReturn(List.of());
+
+        // Act
+        BulkOrderStatusResponse response = orderService.bulkUpdateOrderStatus(request);
+
+        // Assert
+        assertEquals(3, response.getFailed());
+        verify(orderRepository).findStatusViewsByIdInForUpdate(List.of(1L, 2L));
+        verify(orderRepository).findStatusViewsByIdInForUpdate(List.of(3L));
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_FailingChunk_RollsBackOnlyThatChunk() {
+        // Arrange
+        bulkProperties.setChunkSize(2);
+        BulkUpdateOrderStatusRequest request = BulkUpdateOrderStatusRequest.builder()
+                .orderIds(List.of(1L, 2L, 3L))
+                .status(OrderStatus.CANCELLED)
+                .build();
+        when(orderRepository.findStatusViewsByIdInForUpdate(List.of(1L, 2L))).thenReturn(List.of(
+                statusView(1L, 123L, OrderStatus.PROCESSING),
+                statusView(2L, 123L, OrderStatus.PROCESSING)));
+        when(orderRepository.findStatusViewsByIdInForUpdate(List.of(3L))).thenReturn(List.of(
+                statusView(3L, 123L, OrderStatus.UNPROCESSED)));
+        when(orderRepository.sumLineQuantitiesByProduct(List.of(3L))).thenReturn(List.of(productQuantity(9L, 1L)));
+        when(inventoryRepository.releaseStock(9L, 1)).thenReturn(0);
+
+        // Act
+        BulkOrderStatusResponse response = orderService.bulkUpdateOrderStatus(request);
+
+        // Assert - the first chunk committed and published, the second rolled back without events
+        assertEquals(2, response.getUpdated());
+        assertEquals(1, response.getFailed());
+        assertEquals(BulkOrderStatusResult.Outcome.FAILED, response.getResults().get(2).getOutcome());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(eventPublisher, times(1)).publishOrderStatusChangedEvents(argThat(events -> events.size() == 2));
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_TooManyOrders_ThrowsException() {
+        // Arrange
+        bulkProperties.setMaxOrders(2);
+        BulkUpdateOrderStatusRequest request = BulkUpdateOrderStatusRequest.builder()
+                .orderIds(List.of(1L, 2L, 3L))
+                .status(OrderStatus.CANCELLED)
+                .build();
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> orderService.bulkUpdateOrderStatus(request));
+        verify(orderRepository, never()).findStatusViewsByIdInForUpdate(anyList());
+    }
+
     // ============== DELETE ORDER TESTS ==============
 
     @Test
     void deleteOrder_UnprocessedOrder_ReleasesInventory() {
         // Arrange
-        when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdAndNotDeletedForUpdate(1L)).thenReturn(Optional.of(testOrder));
         when(inventoryRepository.findByProductIdWithLock(1L)).thenReturn(Optional.of(testInventory));
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
 
@@ -312,13 +823,17 @@ class OrderServiceTest {
         verify(inventoryRepository).save(any(Inventory.class)); // Releasing stock
         verify(orderRepository).save(any(Order.class)); // Soft delete
         verify(orderAuditRepository).save(any(OrderAudit.class));
+        verify(statusCounterService).recordDeleted(OrderStatus.UNPROCESSED, 1);
+        InventoryLockProfiler.Snapshot contention = lockProfiler.snapshot();
+        assertEquals(1, contention.getAcquisitions());
+        assertEquals(1L, contention.getProducts().get(0).getProductId());
     }
 
     @Test
     void deleteOrder_ProcessedOrder_DoesNotReleaseInventory() {
         // Arrange
         testOrder.setStatus(OrderStatus.PROCESSED);
-        when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdAndNotDeletedForUpdate(1L)).thenReturn(Optional.of(testOrder));
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
 
         // Act
@@ -333,7 +848,7 @@ class OrderServiceTest {
     @Test
     void deleteOrder_NotFound_ThrowsException() {
         // Arrange
-        when(orderRepository.findByIdAndNotDeleted(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdAndNotDeletedForUpdate(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> orderService.deleteOrder(1L));
@@ -381,59 +896,89 @@ class OrderServiceTest {
     @Test
     void progressOrderStatuses_ProgressesAllStatuses() {
         // Arrange
-        Order unprocessedOrder = Order.builder()
-                .id(1L)
-                .status(OrderStatus.UNPROCESSED)
-                .customerId(123L)
-                .deleted(false)
-                .build();
+        when(orderRepository.findStatusViewsByStatus(OrderStatus.UNPROCESSED))
+                .thenReturn(List.of(statusView(1L, 123L, OrderStatus.UNPROCESSED)));
+        when(orderRepository.findStatusViewsByStatus(OrderStatus.PROCESSING))
+                .thenReturn(List.of(statusView(2L, 124L, OrderStatus.PROCESSING)));
+        when(orderRepository.findStatusViewsByStatus(OrderStatus.PROCESSED))
+                .thenReturn(List.of(statusView(3L, 125L, OrderStatus.PROCESSED)));
+        when(orderRepository.transitionStatus(anyLong(), any(), any(), any())).thenReturn(1);
 
-        Order processingOrder = Order.builder()
-                .id(2L)
-                .status(OrderStatus.PROCESSING)
-                .customerId(124L)
-                .deleted(false)
-                .build();
+        // Act
+        orderService.progressOrderStatuses();
 
-        Order processedOrder = Order.builder()
-                .id(3L)
-                .status(OrderStatus.PROCESSED)
-                .customerId(125L)
-                .deleted(false)
-                .build();
+        // Assert
+        verify(orderRepository).findStatusViewsByStatus(OrderStatus.UNPROCESSED);
+        verify(orderRepository).findStatusViewsByStatus(OrderStatus.PROCESSING);
+        verify(orderRepository).findStatusViewsByStatus(OrderStatus.PROCESSED);
+        verify(orderRepository).transitionStatus(eq(1L), eq(OrderStatus.PROCESSING), any(), any());
+        verify(orderRepository).transitionStatus(eq(2L), eq(OrderStatus.PROCESSED), any(), any());
+        verify(orderRepository).transitionStatus(eq(3L), eq(OrderStatus.SHIPPED), any(), any());
+        verify(orderRepository, never()).findByIdAndNotDeleted(anyLong());
+        verify(eventPublisher, times(3)).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
+    }
 
-        when(orderRepository.findByStatusForProcessing(OrderStatus.UNPROCESSED))
-                .thenReturn(List.of(unprocessedOrder));
-        when(orderRepository.findByStatusForProcessing(OrderStatus.PROCESSING))
-                .thenReturn(List.of(processingOrder));
-        when(orderRepository.findByStatusForProcessing(OrderStatus.PROCESSED))
-                .thenReturn(List.of(processedOrder));
-        when(orderRepository.findByIdAndNotDeleted(anyLong()))
-                .thenReturn(Optional.of(unprocessedOrder), Optional.of(processingOrder), Optional.of(processedOrder));
-        when(orderRepository.save(any(Order.class)))
-                .thenReturn(unprocessedOrder, processingOrder, processedOrder);
+    @Test
+    void progressOrderStatuses_ConcurrentlyChangedOrder_IsSkipped() {
+        // Arrange
+        when(orderRepository.findStatusViewsByStatus(OrderStatus.UNPROCESSED))
+                .thenReturn(List.of(statusView(1L, 123L, OrderStatus.UNPROCESSED)));
+        when(orderRepository.findStatusViewsByStatus(OrderStatus.PROCESSING)).thenReturn(List.of());
+        when(orderRepository.findStatusViewsByStatus(OrderStatus.PROCESSED)).thenReturn(List.of());
+        when(orderRepository.transitionStatus(anyLong(), any(), any(), any())).thenReturn(0);
 
         // Act
         orderService.progressOrderStatuses();
 
         // Assert
-        verify(orderRepository).findByStatusForProcessing(OrderStatus.UNPROCESSED);
-        verify(orderRepository).findByStatusForProcessing(OrderStatus.PROCESSING);
-        verify(orderRepository).findByStatusForProcessing(OrderStatus.PROCESSED);
-        verify(eventPublisher, times(3)).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
+        verify(orderAuditRepository, never()).save(any(OrderAudit.class));
+        verify(eventPublisher, never()).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
     }
 
     @Test
     void progressOrderStatuses_NoOrders_DoesNothing() {
         // Arrange
-        when(orderRepository.findByStatusForProcessing(any(OrderStatus.class)))
+        when(orderRepository.findStatusViewsByStatus(any(OrderStatus.class)))
                 .thenReturn(List.of());
 
         // Act
         orderService.progressOrderStatuses();
 
         // Assert
-        verify(orderRepository, times(3)).findByStatusForProcessing(any(OrderStatus.class));
+        verify(orderRepository, times(3)).findStatusViewsByStatus(any(OrderStatus.class));
         verify(eventPublisher, never()).publishOrderStatusChangedEvent(any(OrderStatusChangedEvent.class));
     }
-}
\ No newline at end of file
+
+    private ProductQuantityView productQuantity(Long productId, Long quantity) {
+        return new ProductQuantityView() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private OrderStatusView statusView(Long id, Long customerId, OrderStatus status) {
+        return new OrderStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCustomerId() {
+                return customerId;
+            }
+
+            @Override
+            public OrderStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,284 @@
+package org.lampis.order.sharding;
+
+import org.lampis.common.dto.order.*;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.money.Money;
+import org.lampis.order.datasource.ShardRoutingDataSource;
+import org.lampis.order.pricing.ProductPriceCatalog;
+import org.lampis.order.service.EventPublisherService;
+import org.lampis.order.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for sharding, with three embedded H2 databases standing in for the shards
+ * Each shard gets a single read permit, fewer than there are shards
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "order.large-orders.line-threshold=100",
+        "order.large-orders.chunk-size=64",
+        "order.status.progression.interval=3600000",
+        "order.datasource.bulkhead.read-permits=1",
+        "order.sharding.enabled=true",
+        "order.sharding.per-shard-inventory=true",
+        "order.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'",
+        "order.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'",
+        "order.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'"
+})
+class ShardedOrderServiceIntegrationTest {
+
+    private static final int SHARDS = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private ProductPriceCatalog priceCatalog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private EventPublisherService eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            JdbcTemplate jdbc = shardJdbc(shard);
+            jdbc.update("DELETE FROM order_lines");
+            jdbc.update("DELETE FROM order_audit");
+            jdbc.update("DELETE FROM orders");
+            jdbc.update("DELETE FROM inventory");
+            jdbc.update("UPDATE order_status_counters SET order_count = 0");
+            jdbc.update("INSERT INTO inventory (product_id, product_name, available_stock) VALUES (1, 'Test Product', 1000)");
+        }
+        // the catalog lives on the default shard
+        shardJdbc(0).update("MERGE INTO product_prices KEY (product_id) VALUES (1, 10.00, 1, CURRENT_TIMESTAMP)");
+        priceCatalog.refresh();
+    }
+
+    @Test
+    void createOrder_StoresOrderOnCustomerShardWithGloballyUniqueId() {
+        // Act
+        List<OrderResponse> created = createOrders(12);
+
+        // Assert
+        Set<Long> ids = new HashSet<>();
+        Set<Integer> usedShards = new HashSet<>();
+        for (OrderResponse order : created) {
+            int shard = shardRouter.shardForCustomer(order.getCustomerId());
+            assertEquals(shard, shardRouter.shardForOrder(order.getOrderId()));
+            assertEquals(1, countOrders(shard, order.getOrderId()));
+            assertTrue(ids.add(order.getOrderId()));
+            usedShards.add(shard);
+
+            OrderResponse fetched = orderService.getOrderById(order.getOrderId(), OrderFieldSelection.ALL);
+            assertEquals(order.getCustomerId(), fetched.getCustomerId());
+        }
+        assertEquals(SHARDS, usedShards.size());
+    }
+
+    @Test
+    void getAllOrders_MergesSortedPagesAcrossShards() {
+        // Arrange
+        List<Long> expected = createOrders(10).stream()
+                .map(OrderResponse::getOrderId)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+
+        // Act
+        Page<OrderResponse> first = orderService.getAllOrders(
+                PageRequest.of(0, 4, Sort.by("id").descending()), OrderFieldSelection.parse("status", null));
+        Page<OrderResponse> second = orderService.getAllOrders(
+                PageRequest.of(1, 4, Sort.by("id").descending()), OrderFieldSelection.ALL);
+
+        // Assert
+        assertEquals(10, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertTrue(first.getContent().stream().allMatch(order -> order.getOrderId() == null));
+        assertEquals(expected.subList(4, 8), second.getContent().stream().map(OrderResponse::getOrderId).toList());
+    }
+
+    @Test
+    void getAllOrders_EqualSortKeys_PagesEveryOrderOnce() {
+        // Arrange: every order has the same status, so only the ID orders them
+        List<Long> expected = createOrders(10).stream()
+                .map(OrderResponse::getOrderId)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+
+        // Act
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            orderService.getAllOrders(PageRequest.of(page, 3, Sort.by("status")), OrderFieldSelection.ALL)
+                    .forEach(order -> paged.add(order.getOrderId()));
+        }
+
+        // Assert
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void searchOrders_CursorWalksAllShardsInKeysetOrder() {
+        // Arrange
+        List<OrderResponse> created = createOrders(8);
+
+        // Act
+        List<OrderResponse> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderSearchResponse page = orderService.searchOrders(
+                    OrderSearchCriteria.builder().build(), cursor, 3, OrderFieldSelection.ALL);
+            walked.addAll(page.getOrders());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        List<Long> expected = created.stream()
+                .sorted(Comparator.comparing(OrderResponse::getOrderDate)
+                        .thenComparing(OrderResponse::getOrderId).reversed())
+                .map(OrderResponse::getOrderId)
+                .toList();
+        assertEquals(expected, walked.stream().map(OrderResponse::getOrderId).toList());
+    }
+
+    @Test
+    void createOrder_LargeOrder_InsertsLinesInBatchesAndPagesThem() {
+        // Arrange: 150 lines over 2 products
+        shardJdbc(0).update("MERGE INTO product_prices KEY (product_id) VALUES (2, 2.50, 2, CURRENT_TIMESTAMP)");
+        priceCatalog.refresh();
+        long customerId = 5;
+        int shard = shardRouter.shardForCustomer(customerId);
+        shardJdbc(shard).update("INSERT INTO inventory (product_id, product_name, available_stock) VALUES (2, 'Bulk Product', 100)");
+        List<OrderLineDTO> lines = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            lines.add(OrderLineDTO.builder().productId(i % 2 == 0 ? 1L : 2L).quantity(1).build());
+        }
+
+        // Act
+        OrderResponse created = orderService.createOrder(CreateOrderRequest.builder()
+                .customerId(customerId)
+                .orderLines(lines)
+                .build());
+        Page<OrderLineDTO> lastPage = orderService.getOrderLines(created.getOrderId(), PageRequest.of(1, 100));
+
+        // Assert
+        assertEquals(150, created.getLineCount());
+        assertNull(created.getOrderLines());
+        assertEquals(Money.ofMinor(93750), created.getTotalAmount());
+        assertEquals(150, lastPage.getTotalElements());
+        assertEquals(50, lastPage.getNumberOfElements());
+        assertEquals(Money.ofMinor(250), lastPage.getContent().get(49).getLineTotal());
+        assertEquals(925, shardJdbc(shard).queryForObject(
+                "SELECT available_stock FROM inventory WHERE product_id = 1", Integer.class));
+        assertEquals(25, shardJdbc(shard).queryForObject(
+                "SELECT available_stock FROM inventory WHERE product_id = 2", Integer.class));
+    }
+
+    @Test
+    void bulkUpdateAndStats_SpanAllShards() {
+        // Arrange
+        List<Long> ids = createOrders(6).stream().map(OrderResponse::getOrderId).toList();
+
+        // Act
+        BulkOrderStatusResponse response = orderService.bulkUpdateOrderStatus(BulkUpdateOrderStatusRequest.builder()
+                .orderIds(ids.subList(0, 4))
+                .status(OrderStatus.PROCESSING)
+                .build());
+        OrderStatsResponse stats = orderService.getOrderStats();
+        OrderLookupResponse lookup = orderService.getOrdersByIds(ids, OrderFieldSelection.parse("status", null));
+
+        // Assert
+        assertEquals(4, response.getUpdated());
+        assertEquals(ids.subList(0, 4), response.getResults().stream().map(BulkOrderStatusResult::getOrderId).toList());
+        assertEquals(6, stats.getTotal());
+        assertEquals(4L, stats.getCountsByStatus().get(OrderStatus.PROCESSING));
+        assertEquals(2L, stats.getCountsByStatus().get(OrderStatus.UNPROCESSED));
+        assertEquals(6, lookup.getFound());
+        assertEquals(ids, lookup.getResults().stream().map(OrderLookupResult::getOrderId).toList());
+    }
+
+    @Test
+    void onAllShards_MoreShardsThanReadPermits_HoldsAReadConnectionOnEveryShardAtOnce() {
+        // Arrange: every shard's read waits until all shards hold a connection
+        CyclicBarrier allConnected = new CyclicBarrier(SHARDS);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        // Act
+        List<Integer> stock = shardRouter.onAllShards(shard -> readOnly.execute(status -> {
+            Integer available = jdbc.queryForObject(
+                    "SELECT available_stock FROM inventory WHERE product_id = 1", Integer.class);
+            try {
+                allConnected.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("Shard " + shard + " did not see every shard connected", e);
+            }
+            return available;
+        }));
+
+        // Assert
+        assertEquals(List.of(1000, 1000, 1000), stock);
+    }
+
+    private List<OrderResponse> createOrders(int count) {
+        List<OrderResponse> created = new ArrayList<>();
+        for (long customerId = 1; customerId <= count; customerId++) {
+            created.add(orderService.createOrder(CreateOrderRequest.builder()
+                    .customerId(customerId)
+                    .orderLines(List.of(OrderLineDTO.builder()
+                            .productId(1L)
+                            .quantity(1)
+                            .unitPrice(Money.ofMinor(1000))
+                            .build()))
+                    .build()));
+        }
+        return created;
+    }
+
+    private long countOrders(int shard, Long orderId) {
+        return shardJdbc(shard).queryForObject("SELECT COUNT(*) FROM orders WHERE id = ?", Long.class, orderId);
+    }
+
+    private JdbcTemplate shardJdbc(int shard) {
+        return new JdbcTemplate(shardRoutingDataSource.getShard(shard));
+    }
+}
@@ -0,0 +1,172 @@
+package org.lampis.order.snapshot;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lampis.order.config.OrderSnapshotProperties;
+import org.lampis.order.config.ShardingProperties;
+import org.lampis.order.sharding.ShardRouter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSnapshotExporterTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @TempDir
+    private Path directory;
+
+    private final OrderSnapshotProperties properties = new OrderSnapshotProperties();
+    private JdbcTemplate jdbc;
+    private OrderSnapshotExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:snapshot-" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        properties.setDirectory(directory.toString());
+        properties.setBatchSize(2);
+        exporter = new OrderSnapshotExporter(properties, new ShardRouter(new ShardingProperties()),
+                dataSource, new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void exportFull_WritesEveryOrderInDictionaryEncodedBatches() throws IOException {
+        insertOrder(1, 7, "SHIPPED", T0.minusDays(3), 2);
+        insertOrder(2, 7, "UNPROCESSED", T0.minusDays(2), 1);
+        insertOrder(3, 9, "CANCELLED", T0.minusDays(1), 3);
+        insertOrder(4, 7, "PROCESSING", T0.minusHours(1), 1);
+        insertOrder(5, 11, "UNPROCESSED", T0, 1);
+
+        OrderSnapshot snapshot = exporter.exportFull(T0);
+
+        assertEquals(directory.resolve("full-20260101T000000"), snapshot.directory());
+        assertEquals(5, snapshot.orders());
+        assertEquals(8, snapshot.orderLines());
+        Orders orders = readOrders(snapshot.directory());
+        assertEquals(List.of(
+                new OrderRow(1, 7, "SHIPPED"),
+                new OrderRow(2, 7, "UNPROCESSED"),
+                new OrderRow(3, 9, "CANCELLED"),
+                new OrderRow(4, 7, "PROCESSING"),
+                new OrderRow(5, 11, "UNPROCESSED")), orders.rows());
+        // one batch per two rows, each with the dictionary of its own customers
+        assertEquals(List.of(1, 2, 1), orders.customerDictionarySizes());
+        assertEquals(Map.of("snapshot.kind", "full", "snapshot.to", "2026-01-01T00:00"), orders.metadata());
+        assertEquals(8, countRows(snapshot.directory().resolve(OrderSnapshotExporter.ORDER_LINES_FILE)));
+    }
+
+    @Test
+    void exportIncremental_WritesOrdersChangedSinceNewestSnapshot() throws IOException {
+        insertOrder(1, 7, "UNPROCESSED", T0.minusDays(1), 2);
+        insertOrder(2, 9, "UNPROCESSED", T0.minusDays(1), 1);
+        exporter.exportFull(T0);
+
+        jdbc.update("UPDATE orders SET status = 'PROCESSING', updated_at = ? WHERE id = 2", T0.plusMinutes(5));
+        insertOrder(3, 7, "UNPROCESSED", T0.plusMinutes(10), 3);
+        // not settled yet: after the incremental snapshot's upper bound
+        insertOrder(4, 7, "UNPROCESSED", T0.plusHours(2), 1);
+
+        OrderSnapshot snapshot = exporter.exportIncremental(T0.plusHours(1)).orElseThrow();
+
+        assertEquals(OrderSnapshot.Kind.INCREMENTAL, snapshot.kind());
+        assertEquals(T0, snapshot.from());
+        assertEquals(List.of(new OrderRow(2, 9, "PROCESSING"), new OrderRow(3, 7, "UNPROCESSED")),
+                readOrders(snapshot.directory()).rows());
+        assertEquals(4, snapshot.orderLines());
+        assertEquals(4, countRows(snapshot.directory().resolve(OrderSnapshotExporter.ORDER_LINES_FILE)));
+        assertEquals(Optional.empty(), exporter.exportIncremental(T0.plusHours(1)));
+    }
+
+    @Test
+    void exportFull_DeletesSnapshotsOlderThanTheRetainedFullOnes() throws IOException {
+        properties.setRetainFull(1);
+        insertOrder(1, 7, "UNPROCESSED", T0.minusDays(1), 1);
+        exporter.exportFull(T0);
+        exporter.exportIncremental(T0.plusHours(1));
+
+        exporter.exportFull(T0.plusDays(1));
+
+        try (Stream<Path> entries = Files.list(directory)) {
+            assertEquals(List.of("full-20260102T000000"), entries.map(entry -> entry.getFileName().toString()).toList());
+        }
+    }
+
+    private void insertOrder(long id, long customerId, String status, LocalDateTime updatedAt, int lines) {
+        jdbc.update("INSERT INTO orders (id, customer_id, status, order_date, total_amount, deleted, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, FALSE, ?, ?)", id, customerId, status, updatedAt, new BigDecimal("10.00").multiply(BigDecimal.valueOf(lines)), updatedAt, updatedAt);
+        for (int line = 0; line < lines; line++) {
+            jdbc.update("INSERT INTO order_lines (order_id, product_id, quantity, unit_price, line_total) VALUES (?, ?, 1, 10.00, 10.00)",
+                    id, 100 + line);
+        }
+    }
+
+    private record OrderRow(long id, long customerId, String status) {
+    }
+
+    private record Orders(List<OrderRow> rows, List<Integer> customerDictionarySizes, Map<String, String> metadata) {
+    }
+
+    private static Orders readOrders(Path snapshot) throws IOException {
+        List<OrderRow> rows = new ArrayList<>();
+        List<Integer> dictionarySizes = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(snapshot.resolve(OrderSnapshotExporter.ORDERS_FILE));
+             BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(in, allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                BigIntVector customers = (BigIntVector) reader.getDictionaryVectors()
+                        .get(OrderTableWriter.CUSTOMER_DICTIONARY).getVector();
+                VarCharVector statuses = (VarCharVector) reader.getDictionaryVectors()
+                        .get(OrderTableWriter.STATUS_DICTIONARY).getVector();
+                BigIntVector id = (BigIntVector) root.getVector("id");
+                IntVector customerId = (IntVector) root.getVector("customer_id");
+                TinyIntVector status = (TinyIntVector) root.getVector("status");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    rows.add(new OrderRow(id.get(i), customers.get(customerId.get(i)),
+                            new String(statuses.get(status.get(i)), StandardCharsets.UTF_8)));
+                }
+                dictionarySizes.add(customers.getValueCount());
+            }
+            return new Orders(rows, dictionarySizes, root.getSchema().getCustomMetadata());
+        }
+    }
+
+    private static long countRows(Path file) throws IOException {
+        long rows = 0;
+        try (InputStream in = Files.newInputStream(file);
+             BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(in, allocator)) {
+            while (reader.loadNextBatch()) {
+                rows += reader.getVectorSchemaRoot().getRowCount();
+            }
+        }
+        return rows;
+    }
+}
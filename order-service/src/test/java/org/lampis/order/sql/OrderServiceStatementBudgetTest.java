@@ -0,0 +1,241 @@
+package org.lampis.order.sql;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.lampis.common.dto.order.*;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.order.pricing.ProductPriceCatalog;
+import org.lampis.order.service.EventPublisherService;
+import org.lampis.order.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQL statement budgets of the OrderService methods, by line count and page size
+ * <p>
+ * Each call's statements are counted at the DataSource and checked against a budget of
+ * {@code fixed + perItem * items}, so an N+1, an extra existence check or an extra save fails the build.
+ * The counts are written to target/sql-statement-budgets.md for review. When a change makes a method
+ * cheaper, lower its budget in the same change.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "order.large-orders.line-threshold=500",
+        "order.large-orders.chunk-size=1000"
+})
+class OrderServiceStatementBudgetTest {
+
+    private static final int PRODUCTS = 100;
+    private static final Map<String, String> REPORT = new TreeMap<>();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ProductPriceCatalog priceCatalog;
+
+    @MockitoBean
+    private EventPublisherService eventPublisher;
+
+    @TestConfiguration
+    static class CounterConfiguration {
+
+        @Bean
+        static SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM order_lines");
+        jdbc.update("DELETE FROM order_audit");
+        jdbc.update("DELETE FROM orders");
+        jdbc.update("DELETE FROM inventory");
+        jdbc.update("UPDATE order_status_counters SET order_count = 0");
+        List<Object[]> products = LongStream.rangeClosed(1, PRODUCTS).mapToObj(id -> new Object[]{id}).toList();
+        jdbc.batchUpdate("INSERT INTO inventory (product_id, product_name, available_stock) VALUES (?, 'Product', 1000000)", products);
+        jdbc.batchUpdate("MERGE INTO product_prices KEY (product_id) VALUES (?, 9.99, 1, CURRENT_TIMESTAMP)", products);
+        priceCatalog.refresh();
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {1, 10, 50})
+    void createOrder(int lines) {
+        // next order ID, insert header and counters; per line: stock read, locked read, stock update, line insert
+        assertBudget("createOrder", lines + " lines", 3, 4, lines,
+                () -> orderService.createOrder(createRequest(1L, lines)));
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {600, 2500})
+    void createOrder_LargeOrder(int lines) {
+        // stock of 100 products in one batch, then next order ID, header, counters and one line batch per 1000 lines
+        int lineBatches = (lines + 999) / 1000;
+        assertBudget("createOrder (large)", lines + " lines", 4 + lineBatches, 0, lines,
+                () -> orderService.createOrder(createRequest(1L, lines)));
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {1, 10, 50})
+    void updateOrder(int lines) {
+        Long orderId = orderService.createOrder(createRequest(1L, lines)).getOrderId();
+        List<OrderLineDTO> doubled = createRequest(1L, lines).getOrderLines().stream()
+                .map(line -> OrderLineDTO.builder().productId(line.getProductId()).quantity(2).build())
+                .toList();
+        UpdateOrderRequest request = UpdateOrderRequest.builder().orderLines(doubled).build();
+        // locked order, its lines, header update and audit; per line: locked read and update to take
+        // the difference, old line delete and new line insert
+        assertBudget("updateOrder", lines + " lines", 4, 4, lines,
+                () -> orderService.updateOrder(orderId, request));
+    }
+
+    @Test
+    void updateOrderStatus() {
+        Long orderId = orderService.createOrder(createRequest(1L, 3)).getOrderId();
+        // header, compare-and-set on the status read, audit, lines for the response, two counter stripes at commit
+        assertBudget("updateOrderStatus", "1 order", 6, 0, 1,
+                () -> orderService.updateOrderStatus(orderId, OrderStatus.PROCESSING));
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {10, 50})
+    void getAllOrders(int pageSize) {
+        createOrders(pageSize, 5);
+        // page, count and one query for the lines of the whole page
+        assertBudget("getAllOrders", "page size " + pageSize, 3, 0, pageSize,
+                () -> orderService.getAllOrders(PageRequest.of(0, pageSize), OrderFieldSelection.ALL));
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {10, 50})
+    void getAllOrders_WithoutLines(int pageSize) {
+        createOrders(pageSize, 5);
+        assertBudget("getAllOrders (fields=status)", "page size " + pageSize, 2, 0, pageSize,
+                () -> orderService.getAllOrders(PageRequest.of(0, pageSize), OrderFieldSelection.parse("status", null)));
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {10, 50})
+    void getOrdersByCustomerId(int pageSize) {
+        createOrders(pageSize, 5);
+        assertBudget("getOrdersByCustomerId", "page size " + pageSize, 3, 0, pageSize,
+                () -> orderService.getOrdersByCustomerId(1L, PageRequest.of(0, pageSize), OrderFieldSelection.ALL));
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {10, 50})
+    void getOrdersByStatus(int pageSize) {
+        createOrders(pageSize, 5);
+        assertBudget("getOrdersByStatus", "page size " + pageSize, 3, 0, pageSize,
+                () -> orderService.getOrdersByStatus(OrderStatus.UNPROCESSED, PageRequest.of(0, pageSize), OrderFieldSelection.ALL));
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {10, 50})
+    void searchOrders(int pageSize) {
+        createOrders(pageSize, 5);
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .customerId(1L)
+                .statuses(Set.of(OrderStatus.UNPROCESSED))
+                .build();
+        // keyset window and one query for the lines of the whole page, no count
+        assertBudget("searchOrders", "page size " + pageSize, 2, 0, pageSize,
+                () -> orderService.searchOrders(criteria, null, pageSize, OrderFieldSelection.ALL));
+    }
+
+    @ParameterizedTest(name = "{0} ids")
+    @ValueSource(ints = {10, 50})
+    void getOrdersByIds(int ids) {
+        List<Long> orderIds = createOrders(ids, 5);
+        assertBudget("getOrdersByIds", ids + " ids", 2, 0, ids,
+                () -> orderService.getOrdersByIds(orderIds, OrderFieldSelection.ALL));
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {100, 1000})
+    void getOrderLines(int pageSize) {
+        Long orderId = orderService.createOrder(createRequest(1L, 2500)).getOrderId();
+        // existence check, page and count
+        assertBudget("getOrderLines", "page size " + pageSize, 3, 0, pageSize,
+                () -> orderService.getOrderLines(orderId, PageRequest.of(1, pageSize)));
+    }
+
+    @ParameterizedTest(name = "{0} orders")
+    @ValueSource(ints = {5, 20})
+    void progressOrderStatuses(int orders) {
+        createOrders(orders, 2);
+        // one query per status and, at commit, the net change of the first and last status counters;
+        // each order then moves three steps in the same run, each step a conditional status update and an audit insert
+        assertBudget("progressOrderStatuses", orders + " orders", 5, 6, orders,
+                () -> orderService.progressOrderStatuses());
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        StringBuilder report = new StringBuilder("# SQL statement budgets\n\n")
+                .append("| Method | Input | Statements | Budget |\n")
+                .append("|--------|-------|------------|--------|\n");
+        REPORT.values().forEach(report::append);
+        Path target = Path.of("target", "sql-statement-budgets.md");
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, report);
+    }
+
+    private void assertBudget(String method, String input, int fixed, int perItem, int items, Runnable call) {
+        List<String> statements = counter.record(call);
+        int budget = fixed + perItem * items;
+        REPORT.put(method + " " + String.format("%06d", items),
+                String.format("| `%s` | %s | %d | %d |%n", method, input, statements.size(), budget));
+        assertTrue(statements.size() <= budget, () -> String.format("%s with %s sent %d statements, budget %d:%n%s",
+                method, input, statements.size(), budget, String.join("\n", statements)));
+    }
+
+    private CreateOrderRequest createRequest(Long customerId, int lines) {
+        List<OrderLineDTO> orderLines = LongStream.range(0, lines)
+                .mapToObj(i -> OrderLineDTO.builder().productId(1 + i % PRODUCTS).quantity(1).build())
+                .toList();
+        return CreateOrderRequest.builder().customerId(customerId).orderLines(orderLines).build();
+    }
+
+    private List<Long> createOrders(int count, int linesPerOrder) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(orderService.createOrder(createRequest(1L, linesPerOrder)).getOrderId());
+        }
+        return ids;
+    }
+}
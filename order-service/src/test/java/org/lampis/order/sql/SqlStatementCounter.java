@@ -0,0 +1,104 @@
+package org.lampis.order.sql;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Counts the SQL statements the calling thread sends through the application DataSource
+ * <p>
+ * Wraps the primary DataSource, so statements from Hibernate and from JdbcTemplate batches are both seen.
+ * A JDBC batch counts once, as it is one round trip. Statements of other threads, e.g. schedulers,
+ * are ignored.
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private final List<String> statements = new ArrayList<>();
+    private volatile Thread recordingThread;
+
+    /**
+     * Run an action and return the statements it sent
+     */
+    public synchronized List<String> record(Runnable action) {
+        statements.clear();
+        recordingThread = Thread.currentThread();
+        try {
+            action.run();
+        } finally {
+            recordingThread = null;
+        }
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection
+                        ? proxy(Connection.class, connection, this::onConnection)
+                        : result;
+            });
+        }
+        return bean;
+    }
+
+    private Object onConnection(Object connection, Method method, Object[] args) throws Throwable {
+        Object result = invoke(connection, method, args);
+        if (!STATEMENT_FACTORIES.contains(method.getName()) || !(result instanceof Statement statement)) {
+            return result;
+        }
+        String preparedSql = args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+        Class<? extends Statement> type = switch (method.getName()) {
+            case "prepareCall" -> java.sql.CallableStatement.class;
+            case "prepareStatement" -> java.sql.PreparedStatement.class;
+            default -> Statement.class;
+        };
+        return proxy(type, statement, (target, statementMethod, statementArgs) -> {
+            if (EXECUTE_METHODS.contains(statementMethod.getName())) {
+                String sql = statementArgs != null && statementArgs.length > 0 && statementArgs[0] instanceof String s
+                        ? s : preparedSql;
+                recordStatement(statementMethod.getName().contains("Batch") ? "[batch] " + sql : sql);
+            }
+            return invoke(target, statementMethod, statementArgs);
+        });
+    }
+
+    private void recordStatement(String sql) {
+        if (Thread.currentThread() == recordingThread) {
+            statements.add(sql);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,133 @@
+package org.lampis.order.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lampis.common.dto.order.OrderResponse;
+import org.lampis.common.dto.order.OrderStatusUpdate;
+import org.lampis.common.enums.OrderStatus;
+import org.lampis.common.exception.ResourceNotFoundException;
+import org.lampis.order.config.OrderStreamProperties;
+import org.lampis.order.controller.OrderController;
+import org.lampis.order.exception.GlobalExceptionHandler;
+import org.lampis.order.service.IdempotencyService;
+import org.lampis.order.service.OrderService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of the order status streams through the controller's SSE endpoints
+ */
+class OrderStatusStreamHubTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private OrderStatusStreamHub hub;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        OrderStreamProperties properties = new OrderStreamProperties();
+        properties.setMaxSubscribers(2);
+        hub = new OrderStatusStreamHub(properties, new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(orderService, hub, mock(IdempotencyService.class)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.destroy();
+    }
+
+    @Test
+    void streamOrderStatus_SendsCurrentStatusThenChangesOfThatOrderOnly() throws Exception {
+        when(orderService.getOrderById(eq(1L), any())).thenReturn(OrderResponse.builder()
+                .orderId(1L).customerId(10L).status(OrderStatus.PROCESSING).updatedAt(LocalDateTime.now())
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/orders/1/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        hub.publish(update(2L, OrderStatus.PROCESSING, OrderStatus.PROCESSED));
+        hub.publish(update(1L, OrderStatus.PROCESSING, OrderStatus.PROCESSED));
+
+        String body = awaitContent(result.getResponse(), "\"previousStatus\":\"PROCESSING\"");
+        assertTrue(body.startsWith("event:status\ndata:{\"orderId\":1,\"customerId\":10,\"status\":\"PROCESSING\""), body);
+        assertFalse(body.contains("\"orderId\":2"), body);
+        assertEquals(2, body.split("event:status").length - 1);
+    }
+
+    @Test
+    void streamCustomerOrderStatuses_ReceivesChangesOfEveryOrderOfTheCustomer() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/orders/events?customerId=10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        hub.publish(update(1L, OrderStatus.UNPROCESSED, OrderStatus.PROCESSING));
+        hub.publish(update(2L, OrderStatus.PROCESSING, OrderStatus.PROCESSED));
+
+        String body = awaitContent(result.getResponse(), "\"orderId\":2");
+        assertTrue(body.contains("\"orderId\":1"), body);
+    }
+
+    @Test
+    void streamOrderStatus_UnknownOrder_ReturnsNotFoundAndReleasesSubscription() throws Exception {
+        when(orderService.getOrderById(eq(99L), any())).thenThrow(new ResourceNotFoundException("Order", "id", 99L));
+
+        mockMvc.perform(get("/api/v1/orders/99/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+
+        assertEquals(0, hub.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_BeyondMaxSubscribers_ReturnsServiceUnavailable() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/orders/events?customerId=10"))
+                    .andExpect(request().asyncStarted());
+        }
+
+        mockMvc.perform(get("/api/v1/orders/events?customerId=10").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, hub.getSubscriberCount());
+    }
+
+    private OrderStatusUpdate update(Long orderId, OrderStatus previousStatus, OrderStatus status) {
+        return OrderStatusUpdate.builder()
+                .orderId(orderId)
+                .customerId(10L)
+                .previousStatus(previousStatus)
+                .status(status)
+                .changedAt(LocalDateTime.now())
+                .build();
+    }
+
+    // events are written by the hub's writer threads
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = response.getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = response.getContentAsString();
+        }
+        assertTrue(body.contains(expected), body);
+        return body;
+    }
+}
@@ -0,0 +1,298 @@
+package org.lampis.order.stress;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.lampis.common.dto.order.CreateOrderRequest;
+import org.lampis.common.dto.order.OrderLineDTO;
+import org.lampis.common.dto.order.UpdateOrderRequest;
+import org.lampis.common.exception.BusinessException;
+import org.lampis.common.exception.ResourceNotFoundException;
+import org.lampis.order.config.InventoryProperties;
+import org.lampis.order.pricing.ProductPriceCatalog;
+import org.lampis.order.service.EventPublisherService;
+import org.lampis.order.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent createOrder, updateOrder and deleteOrder calls on a few shared products, per stock reservation strategy
+ * <p>
+ * Workers pick operations, products, quantities and target orders at random from a seeded generator and target
+ * recently created orders, so updates and deletes of the same order overlap. Afterwards every product must have
+ * non-negative stock, and stock plus the quantities still held by orders must equal the initial stock. Every order
+ * must hold the lines of one of its successful writes, with a matching total, and be deleted exactly when one
+ * delete succeeded. Throughput is written to target/inventory-stress-report.md. Rerun a failure with the seed
+ * from its message: {@code mvn test -pl order-service -Dtest=InventoryReservationStressTest -Dstress.seed=...}
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stress;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=" + InventoryReservationStressTest.WORKERS,
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "order.datasource.bulkhead.enabled=false",
+        "order.status.progression.interval=86400000",
+        "logging.level.org.lampis.order=WARN"
+})
+class InventoryReservationStressTest {
+
+    static final int WORKERS = 16;
+
+    private static final int OPERATIONS = 4000;
+    private static final int PRODUCTS = 8;
+    private static final int INITIAL_STOCK = 400;
+    private static final int RECENT_ORDERS = 32;
+    private static final Map<InventoryProperties.Reservation, String> REPORT =
+            new EnumMap<>(InventoryProperties.Reservation.class);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryProperties inventoryProperties;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ProductPriceCatalog priceCatalog;
+
+    @MockitoBean
+    private EventPublisherService eventPublisher;
+
+    private final List<Long> orderIds = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, Set<List<String>>> writtenLines = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> deletes = new ConcurrentHashMap<>();
+    private final Map<Outcome, AtomicLong> outcomes = new ConcurrentHashMap<>();
+    private final List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+
+    private enum Outcome {
+        CREATED, UPDATED, DELETED, REJECTED, ABORTED
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM order_lines");
+        jdbc.update("DELETE FROM order_audit");
+        jdbc.update("DELETE FROM orders");
+        jdbc.update("DELETE FROM inventory");
+        List<Object[]> products = LongStream.rangeClosed(1, PRODUCTS).mapToObj(id -> new Object[]{id}).toList();
+        jdbc.batchUpdate("INSERT INTO inventory (product_id, product_name, available_stock) VALUES (?, 'Product', " +
+                INITIAL_STOCK + ")", products);
+        jdbc.batchUpdate("MERGE INTO product_prices KEY (product_id) VALUES (?, 9.99, 1, CURRENT_TIMESTAMP)", products);
+        priceCatalog.refresh();
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+    }
+
+    @AfterEach
+    void resetReservation() {
+        inventoryProperties.setReservation(InventoryProperties.Reservation.ROW_LOCK);
+    }
+
+    @ParameterizedTest
+    @EnumSource(InventoryProperties.Reservation.class)
+    void concurrentWrites_NeverOversellOrLoseUpdates(InventoryProperties.Reservation reservation) throws Exception {
+        inventoryProperties.setReservation(reservation);
+        long seed = Long.getLong("stress.seed", System.nanoTime());
+        SplittableRandom seeds = new SplittableRandom(seed);
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger remaining = new AtomicInteger(OPERATIONS);
+        for (int worker = 0; worker < WORKERS; worker++) {
+            SplittableRandom random = seeds.split();
+            workers.execute(() -> {
+                awaitQuietly(start);
+                while (remaining.getAndDecrement() > 0) {
+                    runOperation(random);
+                }
+            });
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(5, TimeUnit.MINUTES), "workers did not finish, seed " + seed);
+        long elapsedNanos = System.nanoTime() - started;
+        report(reservation, elapsedNanos);
+
+        assertTrue(unexpected.isEmpty(), () -> "seed " + seed + ", unexpected failures: " + unexpected);
+        assertStockConserved(seed);
+        assertNoLostUpdates(seed);
+    }
+
+    private void runOperation(SplittableRandom random) {
+        int choice = random.nextInt(10);
+        Long orderId = choice < 5 ? null : recentOrder(random);
+        try {
+            if (orderId == null) {
+                List<OrderLineDTO> lines = randomLines(random);
+                Long created = orderService.createOrder(CreateOrderRequest.builder()
+                        .customerId(1 + (long) random.nextInt(50)).orderLines(lines).build()).getOrderId();
+                writtenLines.computeIfAbsent(created, id -> ConcurrentHashMap.newKeySet()).add(lineKeys(lines));
+                orderIds.add(created);
+                outcomes.get(Outcome.CREATED).incrementAndGet();
+            } else if (choice < 8) {
+                List<OrderLineDTO> lines = randomLines(random);
+                orderService.updateOrder(orderId, UpdateOrderRequest.builder().orderLines(lines).build());
+                writtenLines.computeIfAbsent(orderId, id -> ConcurrentHashMap.newKeySet()).add(lineKeys(lines));
+                outcomes.get(Outcome.UPDATED).incrementAndGet();
+            } else {
+                orderService.deleteOrder(orderId);
+                deletes.computeIfAbsent(orderId, id -> new AtomicInteger()).incrementAndGet();
+                outcomes.get(Outcome.DELETED).incrementAndGet();
+            }
+        } catch (BusinessException | ResourceNotFoundException e) {
+            // short of stock, deleted by another worker or no longer UNPROCESSED
+            outcomes.get(Outcome.REJECTED).incrementAndGet();
+        } catch (ConcurrencyFailureException e) {
+            // deadlock victim or lock timeout, rolled back
+            outcomes.get(Outcome.ABORTED).incrementAndGet();
+        } catch (RuntimeException e) {
+            unexpected.add(e);
+        }
+    }
+
+    private void assertStockConserved(long seed) {
+        Map<Long, Integer> available = new HashMap<>();
+        jdbc.query("SELECT product_id, available_stock FROM inventory",
+                rs -> {
+                    available.put(rs.getLong(1), rs.getInt(2));
+                });
+        // stock goes back when an UNPROCESSED order is deleted or an order is cancelled
+        Map<Long, Integer> held = new HashMap<>();
+        jdbc.query("SELECT l.product_id, SUM(l.quantity) FROM order_lines l JOIN orders o ON o.id = l.order_id " +
+                        "WHERE o.status <> 'CANCELLED' AND NOT (o.deleted AND o.status = 'UNPROCESSED') GROUP BY l.product_id",
+                rs -> {
+                    held.put(rs.getLong(1), rs.getInt(2));
+                });
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            int stock = available.get(productId);
+            int reserved = held.getOrDefault(productId, 0);
+            assertTrue(stock >= 0, "seed " + seed + ": product " + productId + " oversold, stock " + stock);
+            assertEquals(INITIAL_STOCK, stock + reserved, "seed " + seed + ": product " + productId +
+                    " has " + stock + " in stock and " + reserved + " held by orders");
+        }
+    }
+
+    private void assertNoLostUpdates(long seed) {
+        Map<Long, List<String>> storedLines = new TreeMap<>();
+        Map<Long, BigDecimal> lineTotals = new HashMap<>();
+        jdbc.query("SELECT order_id, product_id, quantity, line_total FROM order_lines", rs -> {
+            storedLines.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2) + "x" + rs.getInt(3));
+            lineTotals.merge(rs.getLong(1), rs.getBigDecimal(4), BigDecimal::add);
+        });
+        List<Long> storedOrders = new ArrayList<>();
+        jdbc.query("SELECT id, deleted, total_amount FROM orders", rs -> {
+            long orderId = rs.getLong(1);
+            storedOrders.add(orderId);
+            List<String> lines = storedLines.getOrDefault(orderId, List.of());
+            Collections.sort(lines);
+            assertTrue(writtenLines.getOrDefault(orderId, Set.of()).contains(lines),
+                    "seed " + seed + ": order " + orderId + " holds lines " + lines + " that no successful write sent");
+            assertEquals(0, rs.getBigDecimal(3).compareTo(lineTotals.getOrDefault(orderId, BigDecimal.ZERO)),
+                    "seed " + seed + ": total of order " + orderId + " does not match its lines");
+            int deleted = deletes.getOrDefault(orderId, new AtomicInteger()).get();
+            assertTrue(deleted <= 1, "seed " + seed + ": order " + orderId + " was deleted " + deleted + " times");
+            assertEquals(deleted == 1, rs.getBoolean(2), "seed " + seed + ": deleted flag of order " + orderId);
+        });
+        assertEquals(outcomes.get(Outcome.CREATED).get(), storedOrders.size(), "seed " + seed + ": orders stored");
+    }
+
+    private void report(InventoryProperties.Reservation reservation, long elapsedNanos) {
+        long completed = outcomes.get(Outcome.CREATED).get() + outcomes.get(Outcome.UPDATED).get()
+                + outcomes.get(Outcome.DELETED).get();
+        double seconds = elapsedNanos / 1e9;
+        REPORT.put(reservation, String.format("| `%s` | %d | %d | %d | %d | %d | %d | %d | %.0f | %.0f |%n",
+                reservation, OPERATIONS, outcomes.get(Outcome.CREATED).get(), outcomes.get(Outcome.UPDATED).get(),
+                outcomes.get(Outcome.DELETED).get(), outcomes.get(Outcome.REJECTED).get(),
+                outcomes.get(Outcome.ABORTED).get(), elapsedNanos / 1_000_000, OPERATIONS / seconds, completed / seconds));
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        StringBuilder report = new StringBuilder("# Inventory reservation stress\n\n")
+                .append(String.format("%d operations by %d workers on %d products with %d in stock each%n%n",
+                        OPERATIONS, WORKERS, PRODUCTS, INITIAL_STOCK))
+                .append("| Reservation | Calls | Created | Updated | Deleted | Rejected | Aborted | ms | Calls/s | Writes/s |\n")
+                .append("|-------------|-------|---------|---------|---------|----------|---------|----|---------|----------|\n");
+        REPORT.values().forEach(report::append);
+        Path target = Path.of("target", "inventory-stress-report.md");
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, report);
+    }
+
+    private Long recentOrder(SplittableRandom random) {
+        synchronized (orderIds) {
+            if (orderIds.isEmpty()) {
+                return null;
+            }
+            int recent = Math.min(RECENT_ORDERS, orderIds.size());
+            return orderIds.get(orderIds.size() - 1 - random.nextInt(recent));
+        }
+    }
+
+    private static List<OrderLineDTO> randomLines(SplittableRandom random) {
+        int count = 1 + random.nextInt(4);
+        List<OrderLineDTO> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(OrderLineDTO.builder()
+                    .productId(1 + (long) random.nextInt(PRODUCTS))
+                    .quantity(1 + random.nextInt(5))
+                    .build());
+        }
+        return lines;
+    }
+
+    private static List<String> lineKeys(List<OrderLineDTO> lines) {
+        List<String> keys = new ArrayList<>(lines.size());
+        for (OrderLineDTO line : lines) {
+            keys.add(line.getProductId() + "x" + line.getQuantity());
+        }
+        Collections.sort(keys);
+        return keys;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}